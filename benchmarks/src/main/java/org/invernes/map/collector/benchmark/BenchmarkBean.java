@@ -0,0 +1,15 @@
+package org.invernes.map.collector.benchmark;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Synthetic bean to collect. Key of the bean in the map is its id
+ */
+@Getter
+@RequiredArgsConstructor
+@BenchmarkCollectAnnotation
+public class BenchmarkBean {
+
+    private final int id;
+}
@@ -0,0 +1,15 @@
+package org.invernes.map.collector.benchmark;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation, with which synthetic beans to collect are marked
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BenchmarkCollectAnnotation {
+
+}
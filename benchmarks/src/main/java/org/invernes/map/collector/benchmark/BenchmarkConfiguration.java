@@ -0,0 +1,12 @@
+package org.invernes.map.collector.benchmark;
+
+/**
+ * Factory of {@link BenchmarkMapCollector} beans. {@link org.invernes.map.collector.MapCollectorBeanFactoryPostProcessor}
+ * resolves type of collected beans by return type of factory method
+ */
+public class BenchmarkConfiguration {
+
+    public BenchmarkMapCollector benchmarkMapCollector() {
+        return new BenchmarkMapCollector();
+    }
+}
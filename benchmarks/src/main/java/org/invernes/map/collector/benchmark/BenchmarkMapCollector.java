@@ -0,0 +1,25 @@
+package org.invernes.map.collector.benchmark;
+
+import org.invernes.map.collector.MapCollector;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+
+import java.util.Map;
+
+/**
+ * Collector of {@link BenchmarkBean}, written the same way as collectors of library users:
+ * beans are searched by annotation and put into map by id
+ */
+public class BenchmarkMapCollector extends MapCollector<Integer, BenchmarkBean> {
+
+    @Override
+    protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+        return ((ListableBeanFactory) beanFactory).getBeansWithAnnotation(BenchmarkCollectAnnotation.class);
+    }
+
+    @Override
+    protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+        BenchmarkBean benchmarkBean = (BenchmarkBean) bean;
+        map.put(benchmarkBean.getId(), benchmarkBean);
+    }
+}
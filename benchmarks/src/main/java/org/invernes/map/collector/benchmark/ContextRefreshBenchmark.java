@@ -0,0 +1,42 @@
+package org.invernes.map.collector.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of context refresh with {@link org.invernes.map.collector.MapCollectorBeanFactoryPostProcessor},
+ * as number of beans and collectors grows
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ContextRefreshBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    private int beanCount;
+
+    @Param({"1", "10"})
+    private int collectorCount;
+
+    @Benchmark
+    public GenericApplicationContext refresh() {
+        GenericApplicationContext applicationContext = SyntheticBeanDefinitions.createContext(beanCount, collectorCount);
+        applicationContext.refresh();
+        applicationContext.close();
+        return applicationContext;
+    }
+}
@@ -0,0 +1,95 @@
+package org.invernes.map.collector.benchmark;
+
+import org.invernes.map.collector.IntKeyFrozenMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of lookup in map of {@link org.invernes.map.collector.MapCollector} against handwritten {@link Map#copyOf}
+ * baseline with the same entries. Allocation rate is measured with <i>-prof gc</i>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LookupBenchmark {
+
+    private static final int LOOKUP_COUNT = 1024;
+
+    @Param({"16", "1000", "50000"})
+    private int beanCount;
+
+    private DefaultListableBeanFactory beanFactory;
+    private Map<Integer, BenchmarkBean> collectedMap;
+    private Map<Integer, BenchmarkBean> baselineMap;
+    private int[] keys;
+    private Integer[] boxedKeys;
+
+    @Setup
+    public void setUp() {
+        beanFactory = SyntheticBeanDefinitions.createBeanFactory(beanCount);
+        BenchmarkMapCollector benchmarkMapCollector = new BenchmarkMapCollector();
+        benchmarkMapCollector.setBeanFactory(beanFactory);
+        collectedMap = benchmarkMapCollector.getMap();
+        baselineMap = Map.copyOf(collectedMap);
+        Random random = new Random(0);
+        keys = new int[LOOKUP_COUNT];
+        boxedKeys = new Integer[LOOKUP_COUNT];
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            keys[i] = random.nextInt(beanCount);
+            boxedKeys[i] = keys[i];
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        beanFactory.destroySingletons();
+    }
+
+    @Benchmark
+    public void baselineGet(Blackhole blackhole) {
+        for (Integer key : boxedKeys) {
+            blackhole.consume(baselineMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void collectedGet(Blackhole blackhole) {
+        for (Integer key : boxedKeys) {
+            blackhole.consume(collectedMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void collectedGetWithBoxing(Blackhole blackhole) {
+        for (int key : keys) {
+            blackhole.consume(collectedMap.get(key));
+        }
+    }
+
+    @Benchmark
+    public void collectedPrimitiveGet(Blackhole blackhole) {
+        IntKeyFrozenMap<BenchmarkBean> intKeyFrozenMap = (IntKeyFrozenMap<BenchmarkBean>) collectedMap;
+        for (int key : keys) {
+            blackhole.consume(intKeyFrozenMap.get(key));
+        }
+    }
+}
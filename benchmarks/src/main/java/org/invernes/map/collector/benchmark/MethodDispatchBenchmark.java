@@ -0,0 +1,109 @@
+package org.invernes.map.collector.benchmark;
+
+import org.invernes.map.collector.MethodMapCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Benchmark of call of handler method, found by key in map of {@link MethodMapCollector}, against reflective
+ * {@link Method#invoke} and {@link MethodHandle#invokeExact} of the same method, held in fields as dispatch tables
+ * hold them. Handwritten lambda is the baseline
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodDispatchBenchmark {
+
+    private static final String KEY = "checksum";
+
+    private String message;
+    private ToIntFunction<String> baselineFunction;
+    private ToIntFunction<String> collectedFunction;
+    private Method method;
+    private MethodHandle methodHandle;
+    private Handlers handlers;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("handlers", new Handlers());
+        HandlerMapCollector handlerMapCollector = new HandlerMapCollector();
+        handlerMapCollector.setBeanFactory(beanFactory);
+        handlers = beanFactory.getBean(Handlers.class);
+        message = "order.created:42";
+        baselineFunction = handlers::checksum;
+        collectedFunction = handlerMapCollector.getMap().get(KEY);
+        method = Handlers.class.getMethod(KEY, String.class);
+        methodHandle = MethodHandles.publicLookup()
+                .findVirtual(Handlers.class, KEY, MethodType.methodType(int.class, String.class));
+    }
+
+    @Benchmark
+    public int baselineLambda() {
+        return baselineFunction.applyAsInt(message);
+    }
+
+    @Benchmark
+    public int collectedFunction() {
+        return collectedFunction.applyAsInt(message);
+    }
+
+    @Benchmark
+    public int methodInvoke() throws ReflectiveOperationException {
+        return (int) method.invoke(handlers, message);
+    }
+
+    @Benchmark
+    public int methodHandleInvokeExact() throws Throwable {
+        return (int) methodHandle.invokeExact(handlers, message);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Handles {
+
+        String value();
+    }
+
+    public static class Handlers {
+
+        @Handles(KEY)
+        public int checksum(String message) {
+            int checksum = 0;
+            for (int i = 0; i < message.length(); i++) {
+                checksum = 31 * checksum + message.charAt(i);
+            }
+            return checksum;
+        }
+    }
+
+    public static class HandlerMapCollector extends MethodMapCollector<String, ToIntFunction<String>> {
+
+        public HandlerMapCollector() {
+            super(Handles.class, "value");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.invernes.map.collector.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link org.invernes.map.collector.MapCollector#setBeanFactory} of a single collector,
+ * when beans to collect are already instantiated
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SetBeanFactoryBenchmark {
+
+    @Param({"100", "1000", "10000", "50000"})
+    private int beanCount;
+
+    private DefaultListableBeanFactory beanFactory;
+
+    @Setup
+    public void setUp() {
+        beanFactory = SyntheticBeanDefinitions.createBeanFactory(beanCount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        beanFactory.destroySingletons();
+    }
+
+    @Benchmark
+    public Map<Integer, BenchmarkBean> setBeanFactory() {
+        BenchmarkMapCollector benchmarkMapCollector = new BenchmarkMapCollector();
+        benchmarkMapCollector.setBeanFactory(beanFactory);
+        return benchmarkMapCollector.getMap();
+    }
+}
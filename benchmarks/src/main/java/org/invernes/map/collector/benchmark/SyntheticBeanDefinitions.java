@@ -0,0 +1,82 @@
+package org.invernes.map.collector.benchmark;
+
+import org.invernes.map.collector.MapCollectorBeanFactoryPostProcessor;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Generator of synthetic bean definitions, so that benchmarks don't depend on classpath scanning
+ */
+public final class SyntheticBeanDefinitions {
+
+    public static final String BEAN_NAME_PREFIX = "benchmarkBean";
+    public static final String COLLECTOR_NAME_PREFIX = "benchmarkMapCollector";
+
+    private static final String CONFIGURATION_NAME = "benchmarkConfiguration";
+
+    private SyntheticBeanDefinitions() {
+    }
+
+    /**
+     * Method to create context with synthetic beans, collectors and {@link MapCollectorBeanFactoryPostProcessor}
+     *
+     * @param beanCount      number of beans to collect
+     * @param collectorCount number of collectors
+     * @return not refreshed context
+     */
+    public static GenericApplicationContext createContext(int beanCount, int collectorCount) {
+        GenericApplicationContext applicationContext = new GenericApplicationContext();
+        registerBeans(applicationContext, beanCount);
+        registerCollectors(applicationContext, collectorCount);
+        applicationContext.registerBean(MapCollectorBeanFactoryPostProcessor.class,
+                () -> new MapCollectorBeanFactoryPostProcessor(BenchmarkCollectAnnotation.class));
+        return applicationContext;
+    }
+
+    /**
+     * Method to create bean factory with instantiated synthetic beans
+     *
+     * @param beanCount number of beans to collect
+     * @return bean factory
+     */
+    public static DefaultListableBeanFactory createBeanFactory(int beanCount) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        registerBeans(beanFactory, beanCount);
+        beanFactory.preInstantiateSingletons();
+        return beanFactory;
+    }
+
+    /**
+     * Method to register definitions of beans to collect
+     *
+     * @param registry  registry of bean definitions
+     * @param beanCount number of beans to collect
+     */
+    public static void registerBeans(BeanDefinitionRegistry registry, int beanCount) {
+        for (int i = 0; i < beanCount; i++) {
+            int id = i;
+            registry.registerBeanDefinition(BEAN_NAME_PREFIX + i, BeanDefinitionBuilder
+                    .genericBeanDefinition(BenchmarkBean.class, () -> new BenchmarkBean(id))
+                    .getBeanDefinition());
+        }
+    }
+
+    /**
+     * Method to register definitions of collectors, created by factory method of {@link BenchmarkConfiguration}
+     *
+     * @param registry       registry of bean definitions
+     * @param collectorCount number of collectors
+     */
+    public static void registerCollectors(BeanDefinitionRegistry registry, int collectorCount) {
+        registry.registerBeanDefinition(CONFIGURATION_NAME,
+                BeanDefinitionBuilder.genericBeanDefinition(BenchmarkConfiguration.class).getBeanDefinition());
+        for (int i = 0; i < collectorCount; i++) {
+            registry.registerBeanDefinition(COLLECTOR_NAME_PREFIX + i, BeanDefinitionBuilder
+                    .genericBeanDefinition()
+                    .setFactoryMethodOnBean("benchmarkMapCollector", CONFIGURATION_NAME)
+                    .getBeanDefinition());
+        }
+    }
+}
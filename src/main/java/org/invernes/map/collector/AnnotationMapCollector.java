@@ -0,0 +1,247 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link MapCollector}, that collects beans with annotation of specified type by values of specified key attribute
+ * of the annotation
+ * <p>
+ * Key attribute can be single-valued (<i>int key()</i>) or array-valued (<i>int[] keys()</i>), in the latter case bean is
+ * put into map by each key. Keys are extracted with {@link MethodHandle}, resolved once per annotation type and attribute.
+ * Names of beans are resolved from bean definitions, so collector also works in {@link LazyMapCollector}
+ * and {@link ParallelMapCollector} modes
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ * @implSpec For correct usage extend this class with specific generic parameters:
+ * <pre>
+ * class SomeClassMapCollector extends AnnotationMapCollector&lt;Integer, SomeClass&gt; {
+ *     SomeClassMapCollector() {
+ *         super(SomeAnnotation.class, "keys");
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class AnnotationMapCollector<K, V> extends MapCollector<K, V> {
+
+    private static final Map<KeyAttribute, MethodHandle> KEY_ATTRIBUTE_ACCESSORS = new ConcurrentReferenceHashMap<>();
+
+    private final Class<? extends Annotation> annotationType;
+    private final String keyAttribute;
+    private final MethodHandle keyAttributeAccessor;
+    private final Class<?> keyType;
+
+    /**
+     * @param annotationType type of annotation, with which beans to collect are marked
+     * @param keyAttribute   name of annotation attribute, which contains key or array of keys of bean
+     * @throws RuntimeException if annotation doesn't have attribute with specified name
+     *                          or collector class declares another annotation with {@link CollectedAnnotation}
+     */
+    protected AnnotationMapCollector(@NonNull Class<? extends Annotation> annotationType, @NonNull String keyAttribute) {
+        CollectedAnnotation collectedAnnotation = AnnotatedElementUtils.findMergedAnnotation(this.getClass(), CollectedAnnotation.class);
+        if (collectedAnnotation != null && collectedAnnotation.value() != annotationType) {
+            throw new RuntimeException(String.format("Collector %s declares annotation %s, but collects beans with annotation %s",
+                    this.getClass().getName(), collectedAnnotation.value().getName(), annotationType.getName()));
+        }
+        this.annotationType = annotationType;
+        this.keyAttribute = keyAttribute;
+        this.keyAttributeAccessor = getKeyAttributeAccessor(annotationType, keyAttribute);
+        this.keyType = ResolvableType.forClass(this.getClass()).as(MapCollector.class).getGeneric(0).toClass();
+    }
+
+    /**
+     * Internal method to get names of beans to collect with their keys. If collector has no generated
+     * {@link MapCollectorIndex}, keys are taken from {@link MapCollectorScanCache} or extracted from annotations
+     * of bean definitions of type to collect
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return map of bean names with keys of the map as keys
+     * @throws RuntimeException if the same key is used by several beans or key has type different from key type of the map
+     */
+    @Override
+    protected Map<K, String> getBeanNamesByKey(BeanFactory beanFactory) {
+        Map<K, String> indexedBeanNamesByKey = super.getBeanNamesByKey(beanFactory);
+        if (indexedBeanNamesByKey != null) {
+            return indexedBeanNamesByKey;
+        }
+        MapCollectorScanCache scanCache = getBeanName() == null || getModes().refreshable() ? null : MapCollectorScanCache.find(beanFactory);
+        if (scanCache != null) {
+            Map<K, String> cachedBeanNamesByKey = scanCache.getBeanNamesByKey(getBeanName());
+            if (cachedBeanNamesByKey != null) {
+                return cachedBeanNamesByKey;
+            }
+        }
+        ListableBeanFactory listableBeanFactory = (ListableBeanFactory) beanFactory;
+        Map<K, String> beanNamesByKey = new LinkedHashMap<>();
+        for (String beanName : listableBeanFactory.getBeanNamesForType(getClassGenerics(this.getClass()))) {
+            Annotation annotationOnBean = listableBeanFactory.findAnnotationOnBean(beanName, annotationType, false);
+            if (annotationOnBean == null) {
+                continue;
+            }
+            for (Object key : extractKeys(annotationOnBean)) {
+                String previousBeanName = beanNamesByKey.putIfAbsent(toKey(key, beanName), beanName);
+                if (previousBeanName != null) {
+                    throw new RuntimeException(String.format("Key %s of bean with name %s is already used by bean with name %s",
+                            key, beanName, previousBeanName));
+                }
+            }
+        }
+        if (scanCache != null) {
+            scanCache.putBeanNamesByKey(getBeanName(), beanNamesByKey);
+        }
+        return beanNamesByKey;
+    }
+
+    /**
+     * Internal method to get beans with annotation of type <i>annotationType</i>. Used only if
+     * {@link #getBeanNamesByKey(BeanFactory)} is overridden to return null
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return map of annotated beans with bean names as keys
+     */
+    @Override
+    protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+        return new HashMap<>(((ListableBeanFactory) beanFactory).getBeansWithAnnotation(annotationType));
+    }
+
+    /**
+     * Internal method to put bean into map by each key of its annotation
+     *
+     * @param beanName    name of bean to be put into map
+     * @param bean        bean
+     * @param beanFactory owning {@link BeanFactory}
+     * @throws RuntimeException if the same key is used by several beans
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+        Annotation annotationOnBean = ((ListableBeanFactory) beanFactory).findAnnotationOnBean(beanName, annotationType);
+        if (annotationOnBean == null) {
+            throw new RuntimeException(String.format("%s not found on bean with name %s", annotationType.getSimpleName(), beanName));
+        }
+        for (Object key : extractKeys(annotationOnBean)) {
+            V previousBean = map.putIfAbsent(toKey(key, beanName), (V) bean);
+            if (previousBean != null) {
+                throw new RuntimeException(String.format("Key %s of bean with name %s is already used by bean with name %s",
+                        key, beanName, getAnnotatedBeanName(previousBean, beanFactory)));
+            }
+        }
+    }
+
+    /**
+     * Internal method to find name of annotated bean, which is already put into map
+     *
+     * @param bean        bean already put into map
+     * @param beanFactory owning {@link BeanFactory}
+     * @return name of bean or null if bean is not found among beans with annotation of type <i>annotationType</i>
+     */
+    private String getAnnotatedBeanName(Object bean, BeanFactory beanFactory) {
+        for (var annotatedBeanEntry : ((ListableBeanFactory) beanFactory).getBeansWithAnnotation(annotationType).entrySet()) {
+            if (annotatedBeanEntry.getValue() == bean) {
+                return annotatedBeanEntry.getKey();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Internal method to extract keys from annotation of bean
+     *
+     * @param annotation annotation of bean
+     * @return keys of bean
+     */
+    private Object[] extractKeys(Annotation annotation) {
+        return extractKeys(keyAttributeAccessor, annotation, keyAttribute);
+    }
+
+    /**
+     * Internal method to extract values of key attribute from annotation of bean
+     *
+     * @param keyAttributeAccessor accessor of key attribute, see {@link #getKeyAttributeAccessor(Class, String)}
+     * @param annotation           annotation of bean
+     * @param keyAttribute         name of key attribute
+     * @return value of single-valued attribute or elements of array-valued attribute
+     */
+    static Object[] extractKeys(MethodHandle keyAttributeAccessor, Annotation annotation, String keyAttribute) {
+        Object value;
+        try {
+            value = (Object) keyAttributeAccessor.invokeExact(annotation);
+        } catch (Throwable e) {
+            throw new RuntimeException(String.format("Failed to get attribute %s of annotation %s",
+                    keyAttribute, annotation.annotationType().getName()), e);
+        }
+        return ObjectUtils.isArray(value) ? ObjectUtils.toObjectArray(value) : new Object[]{value};
+    }
+
+    /**
+     * Internal method to get cached {@link MethodHandle}, which returns value of annotation attribute as {@link Object}
+     *
+     * @param annotationType type of annotation
+     * @param keyAttribute   name of attribute
+     * @return method handle of type (Annotation) -&gt; Object
+     * @throws RuntimeException if annotation doesn't have attribute with specified name
+     */
+    static MethodHandle getKeyAttributeAccessor(Class<? extends Annotation> annotationType, String keyAttribute) {
+        return KEY_ATTRIBUTE_ACCESSORS.computeIfAbsent(new KeyAttribute(annotationType, keyAttribute),
+                AnnotationMapCollector::resolveKeyAttributeAccessor);
+    }
+
+    /**
+     * Internal method to check type of key extracted from annotation
+     *
+     * @param key      extracted key
+     * @param beanName name of bean
+     * @return key of the map
+     * @throws RuntimeException if key has type different from key type of the map
+     */
+    @SuppressWarnings("unchecked")
+    private K toKey(Object key, String beanName) {
+        if (!keyType.isInstance(key)) {
+            throw new RuntimeException(String.format("Key %s of bean with name %s is not of type %s",
+                    key, beanName, keyType.getName()));
+        }
+        return (K) key;
+    }
+
+    /**
+     * Internal method to resolve {@link MethodHandle}, which returns value of annotation attribute as {@link Object}
+     *
+     * @param keyAttribute annotation type and name of attribute
+     * @return method handle of type (Annotation) -&gt; Object
+     * @throws RuntimeException if annotation doesn't have attribute with specified name
+     */
+    private static MethodHandle resolveKeyAttributeAccessor(KeyAttribute keyAttribute) {
+        Method attributeMethod = ReflectionUtils.findMethod(keyAttribute.annotationType(), keyAttribute.name());
+        if (attributeMethod == null) {
+            throw new RuntimeException(String.format("Annotation %s has no attribute %s",
+                    keyAttribute.annotationType().getName(), keyAttribute.name()));
+        }
+        ReflectionUtils.makeAccessible(attributeMethod);
+        try {
+            return MethodHandles.lookup().unreflect(attributeMethod)
+                    .asType(MethodType.methodType(Object.class, Annotation.class));
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(String.format("Attribute %s of annotation %s is not accessible",
+                    keyAttribute.name(), keyAttribute.annotationType().getName()), e);
+        }
+    }
+
+    private record KeyAttribute(Class<? extends Annotation> annotationType, String name) {
+    }
+}
@@ -0,0 +1,146 @@
+package org.invernes.map.collector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Batch of items, grouped by beans of collected map, to which items are dispatched, see {@link MapCollector#dispatch}
+ * <p>
+ * Items are grouped in a single pass with one lookup per item. Groups and items in groups keep order of the batch,
+ * items, which keys are not found in the map, are reported together by key
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ * @param <T> type of items
+ */
+public final class BatchDispatch<K, V, T> {
+
+    private final List<Group<V, T>> groups;
+    private final Map<K, List<T>> unmatchedItems;
+
+    private BatchDispatch(List<Group<V, T>> groups, Map<K, List<T>> unmatchedItems) {
+        this.groups = groups;
+        this.unmatchedItems = unmatchedItems;
+    }
+
+    /**
+     * Method to group items by beans of map
+     *
+     * @param map          collected map
+     * @param items        items to dispatch
+     * @param keyExtractor function, which extracts key of the map from item
+     * @param <K>          key type of the map
+     * @param <V>          value type of the map
+     * @param <T>          type of items
+     * @return grouped items
+     */
+    static <K, V, T> BatchDispatch<K, V, T> of(Map<K, V> map, Iterable<? extends T> items, Function<? super T, ? extends K> keyExtractor) {
+        Map<V, List<T>> itemsByBean = new IdentityHashMap<>();
+        List<Group<V, T>> groups = new ArrayList<>();
+        Map<K, List<T>> unmatchedItems = new LinkedHashMap<>();
+        for (T item : items) {
+            K key = keyExtractor.apply(item);
+            V bean = key == null ? null : map.get(key);
+            if (bean == null) {
+                unmatchedItems.computeIfAbsent(key, k -> new ArrayList<>()).add(item);
+                continue;
+            }
+            List<T> beanItems = itemsByBean.get(bean);
+            if (beanItems == null) {
+                beanItems = new ArrayList<>();
+                itemsByBean.put(bean, beanItems);
+                groups.add(new Group<>(bean, Collections.unmodifiableList(beanItems)));
+            }
+            beanItems.add(item);
+        }
+        unmatchedItems.replaceAll((key, keyItems) -> Collections.unmodifiableList(keyItems));
+        return new BatchDispatch<>(Collections.unmodifiableList(groups), Collections.unmodifiableMap(unmatchedItems));
+    }
+
+    /**
+     * @return groups of items in order of the first item of each group
+     */
+    public List<Group<V, T>> getGroups() {
+        return groups;
+    }
+
+    /**
+     * @return items, which keys are not found in the map, by key in order of the first item of each key
+     */
+    public Map<K, List<T>> getUnmatchedItems() {
+        return unmatchedItems;
+    }
+
+    /**
+     * Method to pass each group to its bean one by one in the calling thread
+     *
+     * @param invocation action, which passes items to bean
+     */
+    public void invoke(BiConsumer<? super V, ? super List<T>> invocation) {
+        for (Group<V, T> group : groups) {
+            invocation.accept(group.bean(), group.items());
+        }
+    }
+
+    /**
+     * Method to pass groups to their beans concurrently in {@link ForkJoinPool#commonPool()}
+     *
+     * @param invocation action, which passes items to bean
+     * @throws RuntimeException failure of the first group, with failures of other groups as suppressed
+     */
+    public void invokeConcurrently(BiConsumer<? super V, ? super List<T>> invocation) {
+        invokeConcurrently(invocation, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Method to pass groups to their beans concurrently, e.g. in executor of virtual threads,
+     * and wait for all groups to be passed
+     *
+     * @param invocation action, which passes items to bean
+     * @param executor   executor, in which groups are passed. Executor is not shut down
+     * @throws RuntimeException failure of the first group, with failures of other groups as suppressed
+     */
+    public void invokeConcurrently(BiConsumer<? super V, ? super List<T>> invocation, Executor executor) {
+        List<CompletableFuture<Void>> invocationFutures = new ArrayList<>(groups.size());
+        for (Group<V, T> group : groups) {
+            invocationFutures.add(CompletableFuture.runAsync(() -> invocation.accept(group.bean(), group.items()), executor));
+        }
+        RuntimeException failure = null;
+        for (CompletableFuture<Void> invocationFuture : invocationFutures) {
+            try {
+                invocationFuture.join();
+            } catch (CompletionException e) {
+                RuntimeException groupFailure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                if (failure == null) {
+                    failure = groupFailure;
+                } else {
+                    failure.addSuppressed(groupFailure);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Items, dispatched to the same bean
+     *
+     * @param bean  bean of the map
+     * @param items unmodifiable list of items in order of the batch
+     * @param <V>   value type of the map
+     * @param <T>   type of items
+     */
+    public record Group<V, T>(V bean, List<T> items) {
+    }
+}
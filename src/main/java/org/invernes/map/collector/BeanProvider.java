@@ -0,0 +1,106 @@
+package org.invernes.map.collector;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * Provider of bean, collected by {@link ProviderMapCollector}
+ * <p>
+ * Scope of bean is resolved once, when provider is created, so retrieval of bean doesn't look up bean definition
+ * of collector: singleton is returned from field after the first retrieval, bean of other scopes is requested
+ * from bean factory by name. Instances of prototype can be pooled: {@link #get()} takes instance from pool,
+ * {@link #release(Object)} returns it back. Pool is bounded, released instances, which don't fit into pool,
+ * are destroyed
+ *
+ * @param <V> type of bean
+ */
+public final class BeanProvider<V> implements Supplier<V> {
+
+    private final String beanName;
+    private final Class<V> beanType;
+    private final BeanFactory beanFactory;
+    private final boolean singleton;
+    private final boolean prototype;
+    private final BlockingQueue<V> pool;
+
+    private volatile V singletonInstance;
+
+    /**
+     * @param beanName    name of bean
+     * @param beanType    type of bean
+     * @param beanFactory owning {@link BeanFactory}
+     * @param poolSize    maximum number of pooled instances of prototype, 0 to create instance on each retrieval
+     */
+    BeanProvider(String beanName, Class<V> beanType, BeanFactory beanFactory, int poolSize) {
+        this.beanName = beanName;
+        this.beanType = beanType;
+        this.beanFactory = beanFactory;
+        this.singleton = beanFactory.isSingleton(beanName);
+        this.prototype = !singleton && beanFactory.isPrototype(beanName);
+        this.pool = prototype && poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null;
+    }
+
+    /**
+     * @return name of bean
+     */
+    public String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * @return true if bean is singleton, so the same instance is returned by each retrieval
+     */
+    public boolean isSingleton() {
+        return singleton;
+    }
+
+    /**
+     * @return true if instances of prototype are pooled
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Method to get bean: singleton, instance of prototype, taken from pool or created, or instance of current scope
+     *
+     * @return bean
+     */
+    @Override
+    public V get() {
+        if (singleton) {
+            V instance = singletonInstance;
+            if (instance == null) {
+                instance = beanFactory.getBean(beanName, beanType);
+                singletonInstance = instance;
+            }
+            return instance;
+        }
+        if (pool != null) {
+            V pooledInstance = pool.poll();
+            if (pooledInstance != null) {
+                return pooledInstance;
+            }
+        }
+        return beanFactory.getBean(beanName, beanType);
+    }
+
+    /**
+     * Method to return instance of prototype, taken with {@link #get()}, to pool. Instance must not be used after release.
+     * If instances are not pooled or pool is full, instance of prototype is destroyed, otherwise method does nothing
+     *
+     * @param instance instance of bean
+     */
+    public void release(V instance) {
+        if (!prototype || instance == null) {
+            return;
+        }
+        if ((pool == null || !pool.offer(instance)) && beanFactory instanceof ConfigurableBeanFactory configurableBeanFactory) {
+            configurableBeanFactory.destroyBean(beanName, instance);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares type of annotation, with which beans collected by {@link MapCollector} are marked
+ * <p>
+ * {@link MapCollectorBeanFactoryPostProcessor} with several annotations reads declaration from collector class
+ * without instantiating collector and sets only beans with declared annotation as dependencies of collector.
+ * Collector marked with {@link IndexedMapCollector} doesn't need declaration, its <i>annotation</i> is used.
+ * {@link AnnotationMapCollector} with declaration checks, that it's constructed with the same annotation type
+ *
+ * @implSpec Annotated class should extend {@link MapCollector} with specific generic parameters:
+ * <pre>
+ * &#64;CollectedAnnotation(Handler.class)
+ * class HandlerMapCollector extends AnnotationMapCollector&lt;String, Handler&gt; {
+ *     HandlerMapCollector() {
+ *         super(Handler.class, "value");
+ *     }
+ * }
+ * </pre>
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface CollectedAnnotation {
+
+    /**
+     * @return type of annotation, which marks beans to collect
+     */
+    Class<? extends Annotation> value();
+}
@@ -0,0 +1,287 @@
+package org.invernes.map.collector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable nested index of entries of {@link CompositeKeyMapCollector}, one level per key dimension
+ * <p>
+ * Components are passed to lookup methods directly, so no key object is built. Primitive components are looked up
+ * without boxing in chained form:
+ * <pre>
+ * index.next(tenantType).next(messageType).get(version)
+ * </pre>
+ * Wildcard components are resolved when index is built: if component is not found on some level,
+ * lookup continues with entries of wildcard, so each level costs a single map lookup. If several keys match,
+ * the key with concrete component in the first differing dimension wins
+ * <p>
+ * Index of child collector, see {@link HierarchicalMapCollector}, is built over own entries only and put over index
+ * of ancestor collector: if own entries don't resolve value, including by wildcards, index of ancestor is looked up
+ *
+ * @param <V> value type of the map
+ */
+public final class CompositeKeyIndex<V> {
+
+    private static final CompositeKeyIndex<?> EMPTY = new CompositeKeyIndex<>(Collections.emptyMap(), null, 0);
+
+    private final Map<?, Object> entries;
+    private final Object fallback;
+    private final int dimensions;
+    private final CompositeKeyIndex<V> base;
+
+    private CompositeKeyIndex(Map<?, Object> entries, Object fallback, int dimensions) {
+        this(entries, fallback, dimensions, null);
+    }
+
+    private CompositeKeyIndex(Map<?, Object> entries, Object fallback, int dimensions, CompositeKeyIndex<V> base) {
+        this.entries = entries;
+        this.fallback = fallback;
+        this.dimensions = dimensions;
+        this.base = base;
+    }
+
+    /**
+     * Method to build index of entries with composite keys
+     *
+     * @param entries    entries with keys of the same size
+     * @param dimensions size of keys
+     * @param wildcards  wildcard component of each dimension or null if dimension has no wildcard
+     * @param <V>        value type of the map
+     * @return built index
+     */
+    static <V> CompositeKeyIndex<V> of(Map<? extends List<?>, V> entries, int dimensions, List<?> wildcards) {
+        Node root = new Node();
+        for (var entry : entries.entrySet()) {
+            Node node = root;
+            List<?> key = entry.getKey();
+            for (int dimension = 0; dimension < dimensions; dimension++) {
+                Object component = key.get(dimension);
+                if (component.equals(wildcards.get(dimension))) {
+                    node = node.wildcard == null ? (node.wildcard = new Node()) : node.wildcard;
+                } else {
+                    node = node.children.computeIfAbsent(component, c -> new Node());
+                }
+            }
+            node.value = entry.getValue();
+        }
+        CompositeKeyIndex<V> index = resolve(List.of(root), dimensions);
+        return index == null ? empty() : index;
+    }
+
+    /**
+     * Method to put index of own entries of child collector over index of ancestor collector.
+     * Indexes are not copied
+     *
+     * @param ancestorIndex index of ancestor collector
+     * @param ownIndex      index of own entries, which is looked up first
+     * @param <V>           value type of the map
+     * @return index of ancestor, if there are no own entries, own index, if ancestor index is empty, otherwise
+     * index, which looks up ancestor index, if own index doesn't resolve value
+     */
+    static <V> CompositeKeyIndex<V> overlay(CompositeKeyIndex<V> ancestorIndex, CompositeKeyIndex<V> ownIndex) {
+        if (ownIndex.dimensions == 0) {
+            return ancestorIndex;
+        }
+        if (ancestorIndex.dimensions == 0) {
+            return ownIndex;
+        }
+        return new CompositeKeyIndex<>(ownIndex.entries, ownIndex.fallback, ownIndex.dimensions, ancestorIndex);
+    }
+
+    /**
+     * @return number of key dimensions, resolved by this index, or 0 for empty index
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Method to get index of the next dimension by component of this dimension
+     *
+     * @param component component of key
+     * @return index of the next dimension, empty index if component is not found
+     */
+    public CompositeKeyIndex<V> next(int component) {
+        CompositeKeyIndex<V> next = toNext(entries instanceof IntKeyFrozenMap<?> intKeyEntries
+                ? intKeyEntries.get(component)
+                : entries.get(component));
+        return base == null ? next : overlay(base.next(component), next);
+    }
+
+    /**
+     * Method to get index of the next dimension by component of this dimension
+     *
+     * @param component component of key
+     * @return index of the next dimension, empty index if component is not found
+     */
+    public CompositeKeyIndex<V> next(long component) {
+        CompositeKeyIndex<V> next = toNext(entries instanceof LongKeyFrozenMap<?> longKeyEntries
+                ? longKeyEntries.get(component)
+                : entries.get(component));
+        return base == null ? next : overlay(base.next(component), next);
+    }
+
+    /**
+     * Method to get index of the next dimension by component of this dimension
+     *
+     * @param component component of key
+     * @return index of the next dimension, empty index if component is not found
+     */
+    public CompositeKeyIndex<V> next(Object component) {
+        CompositeKeyIndex<V> next = toNext(entries.get(component));
+        return base == null ? next : overlay(base.next(component), next);
+    }
+
+    /**
+     * Method to get value by component of the last dimension
+     *
+     * @param component component of key
+     * @return value or null if component is not found
+     */
+    public V get(int component) {
+        V value = toValue(entries instanceof IntKeyFrozenMap<?> intKeyEntries ? intKeyEntries.get(component) : entries.get(component));
+        return value != null || base == null ? value : base.get(component);
+    }
+
+    /**
+     * Method to get value by component of the last dimension
+     *
+     * @param component component of key
+     * @return value or null if component is not found
+     */
+    public V get(long component) {
+        V value = toValue(entries instanceof LongKeyFrozenMap<?> longKeyEntries ? longKeyEntries.get(component) : entries.get(component));
+        return value != null || base == null ? value : base.get(component);
+    }
+
+    /**
+     * Method to get value by component of the last dimension
+     *
+     * @param component component of key
+     * @return value or null if component is not found
+     */
+    public V get(Object component) {
+        V value = toValue(entries.get(component));
+        return value != null || base == null ? value : base.get(component);
+    }
+
+    /**
+     * @param first  component of the first dimension
+     * @param second component of the second dimension
+     * @return value or null if key is not found
+     */
+    public V get(Object first, Object second) {
+        return next(first).get(second);
+    }
+
+    /**
+     * @param first  component of the first dimension
+     * @param second component of the second dimension
+     * @param third  component of the third dimension
+     * @return value or null if key is not found
+     */
+    public V get(Object first, Object second, Object third) {
+        return next(first).next(second).get(third);
+    }
+
+    /**
+     * @param first  component of the first dimension
+     * @param second component of the second dimension
+     * @param third  component of the third dimension
+     * @return value or null if key is not found
+     */
+    public V get(int first, Object second, int third) {
+        return next(first).next(second).get(third);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompositeKeyIndex<V> toNext(Object found) {
+        if (dimensions == 1) {
+            throw new RuntimeException("Index of the last dimension has no next dimension");
+        }
+        Object next = found != null ? found : fallback;
+        return next != null ? (CompositeKeyIndex<V>) next : empty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V toValue(Object found) {
+        if (dimensions > 1) {
+            throw new RuntimeException(String.format("Index has %d more dimensions to resolve", dimensions - 1));
+        }
+        return (V) (found != null ? found : fallback);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> CompositeKeyIndex<V> empty() {
+        return (CompositeKeyIndex<V>) EMPTY;
+    }
+
+    /**
+     * Internal method to resolve level of index from nodes of the same level, in order of precedence.
+     * Entries of wildcard of each node follow entries of the node itself
+     *
+     * @param nodes      nodes, matched by components of previous dimensions
+     * @param dimensions number of remaining dimensions
+     * @return resolved level or null if nodes have no entries
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> CompositeKeyIndex<V> resolve(List<Node> nodes, int dimensions) {
+        Map<Object, Object> entries = new LinkedHashMap<>();
+        List<Node> wildcards = new ArrayList<>();
+        for (Node node : nodes) {
+            for (Object component : node.children.keySet()) {
+                entries.computeIfAbsent(component, c -> resolveComponent(nodes, c, dimensions));
+            }
+            if (node.wildcard != null) {
+                wildcards.add(node.wildcard);
+            }
+        }
+        Object fallback = wildcards.isEmpty() ? null : resolveNodes(wildcards, dimensions);
+        if (entries.isEmpty() && fallback == null) {
+            return null;
+        }
+        return new CompositeKeyIndex<>(FrozenMaps.freeze(new HashMap<>(entries)), fallback, dimensions);
+    }
+
+    private static Object resolveComponent(List<Node> nodes, Object component, int dimensions) {
+        List<Node> matchedNodes = new ArrayList<>();
+        for (Node node : nodes) {
+            Node child = node.children.get(component);
+            if (child != null) {
+                matchedNodes.add(child);
+            }
+            if (node.wildcard != null) {
+                matchedNodes.add(node.wildcard);
+            }
+        }
+        return resolveNodes(matchedNodes, dimensions);
+    }
+
+    /**
+     * Internal method to resolve entry of level from matched nodes of the next level
+     *
+     * @return value of the first node with value, if this level is the last one, otherwise index of the next level
+     */
+    private static Object resolveNodes(List<Node> matchedNodes, int dimensions) {
+        if (dimensions > 1) {
+            return resolve(matchedNodes, dimensions - 1);
+        }
+        for (Node node : matchedNodes) {
+            if (node.value != null) {
+                return node.value;
+            }
+        }
+        return null;
+    }
+
+    private static final class Node {
+
+        private final Map<Object, Node> children = new LinkedHashMap<>();
+        private Node wildcard;
+        private Object value;
+    }
+}
@@ -0,0 +1,190 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link MapCollector}, that collects beans with annotation of specified type by composite key, built from values
+ * of several attributes of the annotation, e.g. (tenant type, message type, version)
+ * <p>
+ * Keys of {@link #getMap()} are immutable lists of components in order of key attributes. Array-valued attribute puts
+ * bean by each of its values, combined with values of other attributes. Besides the map, entries are frozen into
+ * {@link CompositeKeyIndex}, returned by {@link #getCompositeIndex()}, which is looked up by components without
+ * building key object. Component equal to {@link #getWildcard(int)} of its dimension matches any component
+ * in lookups of the index
+ *
+ * @param <K> key type of the map, list of components
+ * @param <V> value type of the map
+ * @implSpec For correct usage extend this class with specific generic parameters:
+ * <pre>
+ * class HandlerMapCollector extends CompositeKeyMapCollector&lt;List&lt;Object&gt;, Handler&gt; {
+ *     HandlerMapCollector() {
+ *         super(Route.class, "tenantType", "messageType", "version");
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class CompositeKeyMapCollector<K extends List<?>, V> extends MapCollector<K, V> {
+
+    private final Class<? extends Annotation> annotationType;
+    private final String[] keyAttributes;
+    private final MethodHandle[] keyAttributeAccessors;
+
+    /**
+     * @param annotationType type of annotation, with which beans to collect are marked
+     * @param keyAttributes  names of annotation attributes, which contain components of key
+     * @throws RuntimeException if no key attributes are specified or annotation doesn't have attribute with specified name
+     */
+    protected CompositeKeyMapCollector(@NonNull Class<? extends Annotation> annotationType, @NonNull String... keyAttributes) {
+        if (keyAttributes.length == 0) {
+            throw new RuntimeException(String.format("No key attributes of annotation %s are specified", annotationType.getName()));
+        }
+        this.annotationType = annotationType;
+        this.keyAttributes = keyAttributes.clone();
+        this.keyAttributeAccessors = new MethodHandle[keyAttributes.length];
+        for (int i = 0; i < keyAttributes.length; i++) {
+            keyAttributeAccessors[i] = AnnotationMapCollector.getKeyAttributeAccessor(annotationType, keyAttributes[i]);
+        }
+    }
+
+    /**
+     * @return index of collected beans, which resolves key by components
+     * @throws RuntimeException if map is not populated yet or collector is marked with {@link LazyMapCollector}
+     */
+    @SuppressWarnings("unchecked")
+    public CompositeKeyIndex<V> getCompositeIndex() {
+        CompositeKeyIndex<V> currentCompositeIndex = (CompositeKeyIndex<V>) getBuiltIndex();
+        if (currentCompositeIndex == null) {
+            throw new RuntimeException(String.format("Composite index of collector %s is not built",
+                    this.getClass().getName()));
+        }
+        return currentCompositeIndex;
+    }
+
+    /**
+     * Internal method to get wildcard component of key dimension
+     *
+     * @param dimension index of key attribute
+     * @return component, which matches any component in lookups of {@link CompositeKeyIndex},
+     * or null if dimension has no wildcard
+     */
+    protected Object getWildcard(int dimension) {
+        return null;
+    }
+
+    /**
+     * Internal method to get names of beans to collect with their composite keys, extracted from annotations
+     * of bean definitions of type to collect
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return map of bean names with keys of the map as keys
+     * @throws RuntimeException if the same key is used by several beans
+     */
+    @Override
+    protected Map<K, String> getBeanNamesByKey(BeanFactory beanFactory) {
+        ListableBeanFactory listableBeanFactory = (ListableBeanFactory) beanFactory;
+        Map<K, String> beanNamesByKey = new LinkedHashMap<>();
+        for (String beanName : listableBeanFactory.getBeanNamesForType(getClassGenerics(this.getClass()))) {
+            Annotation annotationOnBean = listableBeanFactory.findAnnotationOnBean(beanName, annotationType, false);
+            if (annotationOnBean == null) {
+                continue;
+            }
+            for (K key : extractKeys(annotationOnBean)) {
+                String previousBeanName = beanNamesByKey.putIfAbsent(key, beanName);
+                if (previousBeanName != null) {
+                    throw new RuntimeException(String.format("Key %s of bean with name %s is already used by bean with name %s",
+                            key, beanName, previousBeanName));
+                }
+            }
+        }
+        return beanNamesByKey;
+    }
+
+    /**
+     * Internal method to get beans with annotation of type <i>annotationType</i>. Used only if
+     * {@link #getBeanNamesByKey(BeanFactory)} is overridden to return null
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return map of annotated beans with bean names as keys
+     */
+    @Override
+    protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+        return new HashMap<>(((ListableBeanFactory) beanFactory).getBeansWithAnnotation(annotationType));
+    }
+
+    /**
+     * Internal method to put bean into map by each composite key of its annotation
+     *
+     * @param beanName    name of bean to be put into map
+     * @param bean        bean
+     * @param beanFactory owning {@link BeanFactory}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+        Annotation annotationOnBean = ((ListableBeanFactory) beanFactory).findAnnotationOnBean(beanName, annotationType);
+        if (annotationOnBean == null) {
+            throw new RuntimeException(String.format("%s not found on bean with name %s", annotationType.getSimpleName(), beanName));
+        }
+        for (K key : extractKeys(annotationOnBean)) {
+            map.put(key, (V) bean);
+        }
+    }
+
+    /**
+     * Internal method to build {@link CompositeKeyIndex} of own entries. Index of collector marked with
+     * {@link HierarchicalMapCollector} is put over index of ancestor collector, which is not rebuilt
+     *
+     * @param ownEntries    frozen entries of own context
+     * @param ancestorIndex index of ancestor collector or null if there is no ancestor collector
+     * @return index of published map
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected CompositeKeyIndex<V> buildIndex(Map<K, V> ownEntries, Object ancestorIndex) {
+        Object[] wildcards = new Object[keyAttributes.length];
+        for (int dimension = 0; dimension < wildcards.length; dimension++) {
+            wildcards[dimension] = getWildcard(dimension);
+        }
+        CompositeKeyIndex<V> ownIndex = CompositeKeyIndex.of(ownEntries, keyAttributes.length, Arrays.asList(wildcards));
+        return ancestorIndex == null ? ownIndex : CompositeKeyIndex.overlay((CompositeKeyIndex<V>) ancestorIndex, ownIndex);
+    }
+
+    /**
+     * Internal method to extract composite keys from annotation of bean
+     *
+     * @param annotation annotation of bean
+     * @return combinations of values of key attributes
+     */
+    @SuppressWarnings("unchecked")
+    private List<K> extractKeys(Annotation annotation) {
+        List<List<Object>> keys = List.of(List.of());
+        for (int i = 0; i < keyAttributes.length; i++) {
+            Object[] components = AnnotationMapCollector.extractKeys(keyAttributeAccessors[i], annotation, keyAttributes[i]);
+            List<List<Object>> extendedKeys = new ArrayList<>(keys.size() * components.length);
+            for (List<Object> key : keys) {
+                for (Object component : components) {
+                    List<Object> extendedKey = new ArrayList<>(key);
+                    extendedKey.add(component);
+                    extendedKeys.add(extendedKey);
+                }
+            }
+            keys = extendedKeys;
+        }
+        List<K> immutableKeys = new ArrayList<>(keys.size());
+        for (List<Object> key : keys) {
+            immutableKeys.add((K) List.copyOf(key));
+        }
+        return immutableKeys;
+    }
+}
@@ -0,0 +1,112 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map with enum keys, backed by array of values indexed by {@link Enum#ordinal()}
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ * @see FrozenMaps
+ */
+public final class EnumKeyFrozenMap<K extends Enum<K>, V> extends AbstractMap<K, V> {
+
+    private final Class<K> keyType;
+    private final K[] keyUniverse;
+    private final Object[] values;
+    private final int size;
+
+    private EnumKeyFrozenMap(Class<K> keyType, Object[] values, int size) {
+        this.keyType = keyType;
+        this.keyUniverse = keyType.getEnumConstants();
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Method to freeze entries with non-null values into map
+     *
+     * @param keyType type of keys
+     * @param entries entries to freeze
+     * @param <K>     key type of the map
+     * @param <V>     value type of the map
+     * @return frozen map
+     */
+    static <K extends Enum<K>, V> EnumKeyFrozenMap<K, V> of(Class<K> keyType, Map<K, V> entries) {
+        Object[] values = new Object[keyType.getEnumConstants().length];
+        for (var entry : entries.entrySet()) {
+            values[entry.getKey().ordinal()] = entry.getValue();
+        }
+        return new EnumKeyFrozenMap<>(keyType, values, entries.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (!(key instanceof Enum<?> enumKey) || enumKey.getDeclaringClass() != keyType) {
+            return null;
+        }
+        return (V) values[enumKey.ordinal()];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+
+                    private int index = nextIndex(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<K, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<K, V> entry = new SimpleImmutableEntry<>(keyUniverse[index], (V) values[index]);
+                        index = nextIndex(index + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int nextIndex(int index) {
+        while (index < values.length && values[index] == null) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,123 @@
+package org.invernes.map.collector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Factory of immutable maps, specialized by key type, in which {@link MapCollector} freezes collected entries
+ * <p>
+ * Frozen map is chosen as follows:
+ * <p>
+ * 1. {@link IntKeyFrozenMap} if all keys are {@link Integer}
+ * <p>
+ * 2. {@link LongKeyFrozenMap} if all keys are {@link Long}
+ * <p>
+ * 3. {@link EnumKeyFrozenMap} if all keys are constants of the same enum
+ * <p>
+ * 4. {@link StringKeyFrozenMap} if all keys are {@link String} and minimal perfect hash function is found for them
+ * <p>
+ * 5. unmodifiable {@link HashMap} otherwise, e.g. if some key or value is null
+ * <p>
+ * Like unmodifiable {@link HashMap}, all frozen maps return null from {@link Map#get(Object)} and false from
+ * {@link Map#containsKey(Object)} for null key, instead of throwing {@link NullPointerException}
+ */
+final class FrozenMaps {
+
+    private FrozenMaps() {
+    }
+
+    /**
+     * Method to freeze entries into immutable map, specialized by key type
+     *
+     * @param entries entries to freeze
+     * @param <K>     key type of the map
+     * @param <V>     value type of the map
+     * @return immutable map with the same entries
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <K, V> Map<K, V> freeze(Map<K, V> entries) {
+        if (entries.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        if (entries.values().stream().anyMatch(Objects::isNull)) {
+            return Collections.unmodifiableMap(new HashMap<>(entries));
+        }
+        Class<?> keyType = getCommonKeyType(entries);
+        if (keyType == Integer.class) {
+            return (Map<K, V>) IntKeyFrozenMap.of((Map<Integer, V>) entries);
+        }
+        if (keyType == Long.class) {
+            return (Map<K, V>) LongKeyFrozenMap.of((Map<Long, V>) entries);
+        }
+        if (keyType != null && keyType.isEnum()) {
+            return (Map<K, V>) EnumKeyFrozenMap.of((Class) keyType, (Map) entries);
+        }
+        if (keyType == String.class) {
+            Map<String, V> stringKeyFrozenMap = StringKeyFrozenMap.of((Map<String, V>) entries);
+            if (stringKeyFrozenMap != null) {
+                return (Map<K, V>) stringKeyFrozenMap;
+            }
+        }
+        return Collections.unmodifiableMap(new HashMap<>(entries));
+    }
+
+    /**
+     * Internal method to get type of keys, common for all entries
+     *
+     * @param entries entries to freeze
+     * @return type of keys (declaring class for enum constants) or null if keys have different types
+     */
+    private static Class<?> getCommonKeyType(Map<?, ?> entries) {
+        Class<?> commonKeyType = null;
+        for (Object key : entries.keySet()) {
+            if (key == null) {
+                return null;
+            }
+            Class<?> keyType = key instanceof Enum<?> enumKey ? enumKey.getDeclaringClass() : key.getClass();
+            if (commonKeyType == null) {
+                commonKeyType = keyType;
+            } else if (commonKeyType != keyType) {
+                return null;
+            }
+        }
+        return commonKeyType;
+    }
+
+    /**
+     * Method to mix bits of hash, finalization step of MurmurHash3
+     *
+     * @param hash hash to mix
+     * @return mixed hash
+     */
+    static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Method to map hash to range [0, bound) with multiplication instead of division
+     *
+     * @param hash  hash to map
+     * @param bound upper bound of range
+     * @return index in range
+     */
+    static int reduce(int hash, int bound) {
+        return (int) ((Integer.toUnsignedLong(hash) * bound) >>> 32);
+    }
+
+    /**
+     * Method to get capacity of open addressing table with load factor not greater than 0.5
+     *
+     * @param size number of entries
+     * @return power of two capacity
+     */
+    static int tableCapacity(int size) {
+        return Integer.highestOneBit(Math.max(size, 1) * 4 - 1);
+    }
+}
@@ -0,0 +1,38 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector}, which in child application context also contains entries of collector
+ * of the same class in ancestor contexts, e.g. of shared parent context of tenant contexts
+ * <p>
+ * Child collector collects only beans of its own context. Map of ancestor collector is not copied: child map is
+ * {@link OverlayMap} of own entries over it, so hundreds of child contexts share entries of parent. Overlays of
+ * several levels of hierarchy are flattened into one, so lookup takes at most two lookups regardless of depth.
+ * Own entries shadow entries of ancestors with the same key. If child context has no own entries,
+ * map of ancestor collector is returned as is
+ * <p>
+ * Child collector sees map of ancestor collector, published at the moment of its population,
+ * so after {@link MapCollector#refresh()} of ancestor collector child collector should be refreshed too.
+ * Map of hierarchical collector with ancestor is not {@link SortedArrayMap} or {@link StringKeyFrozenMap}.
+ * Lookup structures, i.e. {@link CompositeKeyIndex} of {@link CompositeKeyMapCollector}, type hierarchy
+ * of {@link TypeKeyedMapCollector}, automaton of {@link PatternKeyedMapCollector} and counters of
+ * {@link MeteredMapCollector}, are built over own entries only, so child context doesn't rebuild them over entries
+ * of ancestor. If own structure doesn't resolve value, structure of ancestor collector is looked up, so own entries
+ * take precedence even over more specific entries of ancestor, e.g. own wildcard or supertype over ancestor's exact key
+ * <p>
+ * {@link MapCollectorBeanFactoryPostProcessor} allows child context without own annotated beans,
+ * if its collectors are hierarchical
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface HierarchicalMapCollector {
+
+}
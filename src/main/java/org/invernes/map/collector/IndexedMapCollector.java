@@ -0,0 +1,46 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector} whose key to bean name assignments should be generated at compile time
+ * by {@link org.invernes.map.collector.processor.MapCollectorIndexProcessor}
+ * <p>
+ * Processor reads attribute <i>keyAttribute</i> of annotation of type <i>annotation</i> on {@code @Bean} methods and
+ * on component classes, compiled together with the collector, and generates {@link MapCollectorIndex} for it.
+ * If generated index is present at runtime, {@link MapCollector} resolves beans by names from it
+ * and doesn't scan bean definitions for annotated beans. Indexed beans, which are not registered at runtime,
+ * e.g. conditional ones, are skipped. Beans of other modules are not in index: if they may be registered,
+ * enable <i>verifyCompleteness</i>
+ *
+ * @implSpec Annotated class should extend {@link MapCollector} with specific generic parameters:
+ * class SomeClassMapCollector extends MapCollector&lt;Integer, SomeClass&gt;
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface IndexedMapCollector {
+
+    /**
+     * @return type of annotation, which marks beans to collect
+     */
+    Class<? extends Annotation> annotation();
+
+    /**
+     * @return name of attribute of <i>annotation</i>, which defines keys of the bean.
+     * Attribute can be single-valued or array-valued
+     */
+    String keyAttribute();
+
+    /**
+     * @return true to check on each population, that all annotated beans of type to collect are in index.
+     * Check scans bean definitions, so it's disabled by default. If some beans are not in index, index is not used
+     * and beans are scanned
+     */
+    boolean verifyCompleteness() default false;
+}
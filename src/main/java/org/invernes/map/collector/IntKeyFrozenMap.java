@@ -0,0 +1,135 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map with {@link Integer} keys, backed by open addressing table of primitive keys
+ * <p>
+ * Lookup with {@link #get(int)} doesn't box key and doesn't allocate
+ *
+ * @param <V> value type of the map
+ * @see FrozenMaps
+ */
+public final class IntKeyFrozenMap<V> extends AbstractMap<Integer, V> {
+
+    private final int[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    private IntKeyFrozenMap(int[] keys, Object[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Method to freeze entries with non-null values into map
+     *
+     * @param entries entries to freeze
+     * @param <V>     value type of the map
+     * @return frozen map
+     */
+    static <V> IntKeyFrozenMap<V> of(Map<Integer, V> entries) {
+        int capacity = FrozenMaps.tableCapacity(entries.size());
+        int[] keys = new int[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (var entry : entries.entrySet()) {
+            int key = entry.getKey();
+            int index = FrozenMaps.mix(key) & mask;
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = entry.getValue();
+        }
+        return new IntKeyFrozenMap<>(keys, values, entries.size());
+    }
+
+    /**
+     * Method to get value by primitive key
+     *
+     * @param key key
+     * @return value or null if there is no value for key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int index = FrozenMaps.mix(key) & mask;
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer intKey ? get(intKey.intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<Integer, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<Integer, V>> iterator() {
+                return new Iterator<>() {
+
+                    private int index = nextIndex(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<Integer, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<Integer, V> entry = new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                        index = nextIndex(index + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int nextIndex(int index) {
+        while (index < values.length && values[index] == null) {
+            index++;
+        }
+        return index;
+    }
+}
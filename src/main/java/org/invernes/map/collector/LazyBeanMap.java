@@ -0,0 +1,78 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Unmodifiable map of {@link LazyMapCollector}, which values are resolved by suppliers on first access
+ * <p>
+ * Methods, which don't return values, such as {@link #containsKey(Object)}, {@link #keySet()} or {@link #size()},
+ * don't resolve values
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ */
+@RequiredArgsConstructor
+class LazyBeanMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, Supplier<V>> beanSuppliers;
+
+    @Override
+    public V get(Object key) {
+        Supplier<V> beanSupplier = beanSuppliers.get(key);
+        return beanSupplier == null ? null : beanSupplier.get();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return beanSuppliers.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return beanSuppliers.size();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return beanSuppliers.keySet();
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<K, V>> iterator() {
+                Iterator<Entry<K, Supplier<V>>> supplierIterator = beanSuppliers.entrySet().iterator();
+                return new Iterator<>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return supplierIterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        Entry<K, Supplier<V>> supplierEntry = supplierIterator.next();
+                        return new SimpleImmutableEntry<>(supplierEntry.getKey(), supplierEntry.getValue().get());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return beanSuppliers.size();
+            }
+        };
+    }
+}
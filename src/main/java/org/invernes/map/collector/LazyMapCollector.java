@@ -0,0 +1,33 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector}, which resolves collected beans on first access to map instead of at
+ * {@link MapCollector#setBeanFactory(org.springframework.beans.factory.BeanFactory) setBeanFactory}
+ * <p>
+ * Keys of lazy collector are resolved from bean definitions, without instantiating beans:
+ * from {@link MapCollectorIndex} of {@link IndexedMapCollector} or from overridden {@link MapCollector#getBeanNamesByKey}.
+ * Each value is resolved with {@link MapCollector#resolveBean} on first {@link java.util.Map#get(Object) get},
+ * which is safe under concurrent access.
+ * {@link MapCollectorBeanFactoryPostProcessor} doesn't set collected beans as dependencies of lazy collector
+ * <p>
+ * Lazy collector doesn't build lookup structures over beans, so it can't be combined with {@link SortedMapCollector},
+ * {@link TypeKeyedMapCollector}, {@link PatternKeyedMapCollector}, {@link ParallelMapCollector}
+ * or {@link CompositeKeyMapCollector}: such collector fails on {@link MapCollector#setBeanFactory setBeanFactory}
+ *
+ * @implNote Collected beans should be marked with {@link org.springframework.context.annotation.Lazy},
+ * otherwise they are instantiated by Spring at context refresh anyway
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface LazyMapCollector {
+
+}
@@ -0,0 +1,135 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map with {@link Long} keys, backed by open addressing table of primitive keys
+ * <p>
+ * Lookup with {@link #get(long)} doesn't box key and doesn't allocate
+ *
+ * @param <V> value type of the map
+ * @see FrozenMaps
+ */
+public final class LongKeyFrozenMap<V> extends AbstractMap<Long, V> {
+
+    private final long[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    private LongKeyFrozenMap(long[] keys, Object[] values, int size) {
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Method to freeze entries with non-null values into map
+     *
+     * @param entries entries to freeze
+     * @param <V>     value type of the map
+     * @return frozen map
+     */
+    static <V> LongKeyFrozenMap<V> of(Map<Long, V> entries) {
+        int capacity = FrozenMaps.tableCapacity(entries.size());
+        long[] keys = new long[capacity];
+        Object[] values = new Object[capacity];
+        int mask = capacity - 1;
+        for (var entry : entries.entrySet()) {
+            long key = entry.getKey();
+            int index = FrozenMaps.mix(Long.hashCode(key)) & mask;
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = entry.getValue();
+        }
+        return new LongKeyFrozenMap<>(keys, values, entries.size());
+    }
+
+    /**
+     * Method to get value by primitive key
+     *
+     * @param key key
+     * @return value or null if there is no value for key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = FrozenMaps.mix(Long.hashCode(key)) & mask;
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Long longKey ? get(longKey.longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<Long, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<Long, V>> iterator() {
+                return new Iterator<>() {
+
+                    private int index = nextIndex(0);
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<Long, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<Long, V> entry = new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                        index = nextIndex(index + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private int nextIndex(int index) {
+        while (index < values.length && values[index] == null) {
+            index++;
+        }
+        return index;
+    }
+}
@@ -2,16 +2,42 @@ package org.invernes.map.collector;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.BeanNameAware;
+import org.springframework.beans.factory.HierarchicalBeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.beans.factory.config.SingletonBeanRegistry;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.function.SingletonSupplier;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Class that collects annotatedBeans
@@ -22,42 +48,791 @@ import java.util.Map;
  * @implSpec For correct usage extend this class with specific generic parameters:
  * class SomeClassMapCollector extends MapCollector&lt;Integer, SomeClass&gt;
  */
+@Slf4j
 @RequiredArgsConstructor
-public abstract class MapCollector<K, V> implements BeanFactoryAware {
+public abstract class MapCollector<K, V> implements BeanNameAware, BeanFactoryAware, SmartInitializingSingleton {
+
+    private static final Map<Class<?>, ResolvableType> CLASS_GENERICS = new ConcurrentReferenceHashMap<>();
 
     protected final Map<K, V> map = new HashMap<>();
 
+    private final Object populationLock = new Object();
+
+    private final Map<K, V> refreshableMap = new RefreshableMap<>(() -> this.snapshot.frozenMap());
+
+    private volatile Snapshot<K, V> snapshot = Snapshot.unpopulated(Collections.unmodifiableMap(map));
+
+    private volatile Modes modes;
+
+    private String beanName;
+
+    private BeanFactory beanFactory;
+
+    private volatile boolean populationDeferred;
+
+    /**
+     * @param beanName name of collector bean in factory
+     */
+    @Override
+    public void setBeanName(@NonNull String beanName) {
+        this.beanName = beanName;
+    }
+
     /**
+     * @return name of collector bean in factory or null if collector is not a bean
+     */
+    String getBeanName() {
+        return beanName;
+    }
+
+    /**
+     * Population of map is recorded as {@link StartupStep} <i>map-collector.populate</i> of {@link ApplicationStartup}
+     * of bean factory
+     * <p>
+     * If collector is marked with {@link ParallelMapCollector} and is created by bean factory, which holds its singleton
+     * lock meanwhile, population is deferred to {@link #afterSingletonsInstantiated()} or the first access to map
+     * or structures built over it, whichever comes first, so beans are instantiated concurrently outside the lock
+     * <p>
+     * Modes of collector, e.g. {@link #isLazy()} or {@link #isRefreshable()}, are resolved once on the first call
+     *
      * @param beanFactory owning {@link BeanFactory} (never {@code null}).
      *                    The bean can immediately call methods on the factory.
      * @throws BeansException in case of initialization errors
      */
     @Override
     public void setBeanFactory(@NonNull BeanFactory beanFactory) throws BeansException {
-        var annotatedBeans = getAnnotatedBeans(beanFactory);
-        for (var annotatedBeanEntry : annotatedBeans.entrySet()) {
-            String beanName = annotatedBeanEntry.getKey();
-            Object bean = annotatedBeanEntry.getValue();
-            ResolvableType typeToCollect = getClassGenerics(this.getClass());
-            if (typeToCollect.isInstance(bean)) {
-                putMapEntries(beanName, bean, beanFactory);
+        synchronized (populationLock) {
+            this.beanFactory = beanFactory;
+            if (getModes().parallel() && holdsSingletonLock(beanFactory)) {
+                populationDeferred = true;
+                return;
+            }
+            populate(beanFactory);
+        }
+    }
+
+    /**
+     * Method to populate map of parallel collector, which population was deferred by {@link #setBeanFactory}.
+     * Called by bean factory after all non-lazy singletons are instantiated, when singleton lock is not held
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        populateIfDeferred();
+    }
+
+    /**
+     * Internal method to populate map, if population was deferred by {@link #setBeanFactory}.
+     * Called by each accessor of map and structures built over it
+     */
+    private void populateIfDeferred() {
+        if (!populationDeferred) {
+            return;
+        }
+        synchronized (populationLock) {
+            if (populationDeferred) {
+                populate(beanFactory);
+                populationDeferred = false;
+            }
+        }
+    }
+
+    private static boolean holdsSingletonLock(BeanFactory beanFactory) {
+        return beanFactory instanceof ConfigurableBeanFactory configurableBeanFactory
+                && Thread.holdsLock(configurableBeanFactory.getSingletonMutex());
+    }
+
+    /**
+     * Method to collect beans again from owning {@link BeanFactory} and publish new map, e.g. after beans were registered
+     * with {@link org.springframework.beans.factory.config.SingletonBeanRegistry#registerSingleton registerSingleton}
+     * or removed
+     * <p>
+     * New map and structures built over it, e.g. {@link #getSortedMap()}, are built aside and published together
+     * with a single volatile write, so readers never lock and never see partially built map or structures
+     * of another map. Concurrent refreshes are executed one by one
+     *
+     * @throws RuntimeException if collector class is not marked with {@link RefreshableMapCollector}
+     *                          or collector has no owning {@link BeanFactory} yet
+     */
+    public void refresh() {
+        if (!getModes().refreshable()) {
+            throw new RuntimeException(String.format("Collector %s is not refreshable: mark it with RefreshableMapCollector",
+                    this.getClass().getName()));
+        }
+        synchronized (populationLock) {
+            if (beanFactory == null) {
+                throw new RuntimeException(String.format("Collector %s can't be refreshed before setBeanFactory",
+                        this.getClass().getName()));
+            }
+            populate(beanFactory);
+        }
+    }
+
+    /**
+     * Internal method to collect beans into {@link #map} and publish frozen map
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     */
+    @SuppressWarnings("unchecked")
+    private void populate(BeanFactory beanFactory) {
+        map.clear();
+        ResolvableType typeToCollect = getClassGenerics(this.getClass());
+        StartupStep populateStep = getApplicationStartup(beanFactory)
+                .start(MapCollectorBeanFactoryPostProcessor.STARTUP_STEP_PREFIX + ".populate")
+                .tag("beanName", () -> String.valueOf(beanName))
+                .tag("valueType", typeToCollect::toString);
+        try {
+            Map<K, String> beanNamesByKey = getBeanNamesByKey(beanFactory);
+            if (beanNamesByKey != null) {
+                populateStep.tag("candidateCount", () -> String.valueOf(new HashSet<>(beanNamesByKey.values()).size()));
+            }
+            Modes currentModes = getModes();
+            Snapshot<K, V> ancestorSnapshot = getAncestorSnapshot(beanFactory);
+            if (currentModes.lazy()) {
+                if (beanNamesByKey == null) {
+                    throw new RuntimeException(String.format("Keys of lazy collector %s can't be resolved from bean definitions: "
+                            + "mark it with IndexedMapCollector or override getBeanNamesByKey", this.getClass().getName()));
+                }
+                Map<K, V> ownLazyMap = getLazyMap(beanNamesByKey, typeToCollect, beanFactory);
+                Map<K, V> lazyMap = shareAncestorEntries(ownLazyMap, ancestorSnapshot);
+                Map<K, V> meteredLazyMap = meter(lazyMap, ownLazyMap);
+                snapshot = new Snapshot<>(currentModes.refreshable() ? refreshableMap : meteredLazyMap, lazyMap, meteredLazyMap,
+                        null, null, null, null, null, null);
+                populateStep.tag("collectedCount", "0");
+                return;
             }
+            if (currentModes.parallel()) {
+                if (beanNamesByKey == null) {
+                    throw new RuntimeException(String.format("Keys of parallel collector %s can't be resolved from bean definitions: "
+                            + "mark it with IndexedMapCollector or override getBeanNamesByKey", this.getClass().getName()));
+                }
+                putNamedMapEntriesConcurrently(beanNamesByKey, typeToCollect, beanFactory);
+            } else if (beanNamesByKey != null) {
+                putNamedMapEntries(beanNamesByKey, typeToCollect, beanFactory);
+            } else {
+                var annotatedBeans = getAnnotatedBeans(beanFactory);
+                populateStep.tag("candidateCount", () -> String.valueOf(annotatedBeans.size()));
+                for (var annotatedBeanEntry : annotatedBeans.entrySet()) {
+                    String beanName = annotatedBeanEntry.getKey();
+                    Object bean = annotatedBeanEntry.getValue();
+                    if (isCollectable(bean, typeToCollect)) {
+                        putMapEntries(beanName, bean, beanFactory);
+                    }
+                }
+            }
+            Map<K, V> ownMap = freeze(map);
+            Map<K, V> collectedMap = shareAncestorEntries(ownMap, ancestorSnapshot);
+            SortedArrayMap<K, V> sortedMap = collectedMap instanceof SortedArrayMap<K, V> sortedArrayMap ? sortedArrayMap : null;
+            StringKeyFrozenMap<V> stringKeyMap = collectedMap instanceof StringKeyFrozenMap<?> stringKeyFrozenMap
+                    ? (StringKeyFrozenMap<V>) stringKeyFrozenMap
+                    : null;
+            TypeHierarchyResolver<V> typeHierarchyResolver = currentModes.typeKeyed()
+                    ? new TypeHierarchyResolver<>(ownMap, this.getClass().getName())
+                    : null;
+            PatternKeyedMapCollector patternKeyed = currentModes.patternKeyed();
+            PatternKeyAutomaton<V> patternKeyAutomaton = patternKeyed != null
+                    ? new PatternKeyAutomaton<>(ownMap, patternKeyed.separator(), this.getClass().getName())
+                    : null;
+            Object index = buildIndex(ownMap, ancestorSnapshot == null ? null : ancestorSnapshot.index());
+            Map<K, V> meteredMap = meter(collectedMap, ownMap);
+            snapshot = new Snapshot<>(currentModes.refreshable() ? refreshableMap : meteredMap, collectedMap, meteredMap,
+                    sortedMap, stringKeyMap, typeHierarchyResolver, patternKeyAutomaton, index, ancestorSnapshot);
+            populateStep.tag("collectedCount", () -> String.valueOf(new HashSet<>(collectedMap.values()).size()));
+        } finally {
+            populateStep.end();
         }
     }
 
+    /**
+     * Internal method to get snapshot of collector of the same class in ancestor context, see {@link HierarchicalMapCollector}
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return populated snapshot of ancestor collector or null, if collector is not hierarchical
+     * or there is no ancestor collector
+     */
+    @SuppressWarnings("unchecked")
+    private Snapshot<K, V> getAncestorSnapshot(BeanFactory beanFactory) {
+        if (!getModes().hierarchical()
+                || !(beanFactory instanceof HierarchicalBeanFactory hierarchicalBeanFactory)
+                || hierarchicalBeanFactory.getParentBeanFactory() == null) {
+            return null;
+        }
+        MapCollector<?, ?> ancestorCollector = hierarchicalBeanFactory.getParentBeanFactory()
+                .getBeanProvider(this.getClass())
+                .getIfUnique();
+        if (ancestorCollector == null || ancestorCollector.getClass() != this.getClass()) {
+            return null;
+        }
+        ancestorCollector.populateIfDeferred();
+        Snapshot<K, V> ancestorSnapshot = (Snapshot<K, V>) ancestorCollector.snapshot;
+        return ancestorSnapshot.sharedMap() == null ? null : ancestorSnapshot;
+    }
+
+    /**
+     * Internal method to put collected entries over map of collector of the same class in ancestor context
+     *
+     * @param ownEntries       frozen or lazy map of beans of own context
+     * @param ancestorSnapshot snapshot of ancestor collector or null
+     * @return {@link OverlayMap} over map of ancestor collector or own entries, if there is no ancestor collector
+     */
+    private Map<K, V> shareAncestorEntries(Map<K, V> ownEntries, Snapshot<K, V> ancestorSnapshot) {
+        return ancestorSnapshot == null ? ownEntries : OverlayMap.of(ancestorSnapshot.sharedMap(), ownEntries);
+    }
+
+    /**
+     * @return immutable map of collected beans. After collection is finished, map is frozen into
+     * structure specialized by key type, see {@link #freeze(Map)}. Collector marked with {@link RefreshableMapCollector}
+     * returns view, which always reads the latest map published by {@link #refresh()}
+     */
     public Map<K, V> getMap() {
-        return Collections.unmodifiableMap(map);
+        populateIfDeferred();
+        return snapshot.publishedMap();
+    }
+
+    /**
+     * @return sorted map of collector marked with {@link SortedMapCollector}, which offers floor, ceiling and range
+     * lookups by binary search. Lookups in returned map are not counted by {@link MeteredMapCollector}.
+     * For collector marked with {@link RefreshableMapCollector} the map published by the latest {@link #refresh()}
+     * is returned
+     * @throws RuntimeException if collector is not sorted or map is not populated yet
+     */
+    public SortedArrayMap<K, V> getSortedMap() {
+        populateIfDeferred();
+        SortedArrayMap<K, V> currentSortedMap = snapshot.sortedMap();
+        if (currentSortedMap == null) {
+            throw new RuntimeException(String.format("Collector %s has no sorted map: mark it with SortedMapCollector",
+                    this.getClass().getName()));
+        }
+        return currentSortedMap;
     }
 
     /**
-     * Internal method to get generic parameter of specified class
+     * @return map of collector with {@link String} keys, which looks up beans by {@link CharSequence} and by UTF-8
+     * encoded bytes without allocation. Lookups in returned map are not counted by {@link MeteredMapCollector}.
+     * For collector marked with {@link RefreshableMapCollector} the map published by the latest {@link #refresh()}
+     * is returned
+     * @throws RuntimeException if keys are not {@link String}, some values are null or map is not populated yet
+     */
+    public StringKeyFrozenMap<V> getStringKeyMap() {
+        populateIfDeferred();
+        StringKeyFrozenMap<V> currentStringKeyMap = snapshot.stringKeyMap();
+        if (currentStringKeyMap == null) {
+            throw new RuntimeException(String.format("Collector %s has no string key map: keys are not frozen by perfect hash",
+                    this.getClass().getName()));
+        }
+        return currentStringKeyMap;
+    }
+
+    /**
+     * Method to group batch of items by beans, to which they are dispatched, with a single pass over the batch.
+     * Items are looked up in {@link #getMap()}
+     *
+     * @param items        items to dispatch
+     * @param keyExtractor function, which extracts key of the map from item
+     * @param <T>          type of items
+     * @return items grouped by beans and items, which keys are not found
+     */
+    public <T> BatchDispatch<K, V, T> dispatch(@NonNull Iterable<? extends T> items,
+                                               @NonNull Function<? super T, ? extends K> keyExtractor) {
+        return BatchDispatch.of(getMap(), items, keyExtractor);
+    }
+
+    /**
+     * Method to get bean by the most specific registered supertype of specified class,
+     * see {@link TypeKeyedMapCollector}. Lookups are not counted by {@link MeteredMapCollector}
+     *
+     * @param type class of object to dispatch
+     * @return bean or null if no supertype of class is registered
+     * @throws RuntimeException if collector is not type-keyed or map is not populated yet
+     */
+    public V getByType(@NonNull Class<?> type) {
+        populateIfDeferred();
+        Snapshot<K, V> currentSnapshot = snapshot;
+        if (currentSnapshot.typeHierarchyResolver() == null) {
+            throw new RuntimeException(String.format("Collector %s has no type hierarchy resolver: mark it with TypeKeyedMapCollector",
+                    this.getClass().getName()));
+        }
+        for (Snapshot<K, V> levelSnapshot = currentSnapshot; levelSnapshot != null; levelSnapshot = levelSnapshot.ancestorSnapshot()) {
+            V bean = levelSnapshot.typeHierarchyResolver().resolve(type);
+            if (bean != null) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to get bean by pattern with the highest precedence, which matches specified key,
+     * see {@link PatternKeyedMapCollector}. Lookups are not counted by {@link MeteredMapCollector}
+     *
+     * @param key key to match, e.g. name of topic
+     * @return bean or null if no pattern matches key
+     * @throws RuntimeException if collector is not pattern-keyed or map is not populated yet
+     */
+    public V getMatching(@NonNull CharSequence key) {
+        populateIfDeferred();
+        Snapshot<K, V> currentSnapshot = snapshot;
+        if (currentSnapshot.patternKeyAutomaton() == null) {
+            throw new RuntimeException(String.format("Collector %s has no pattern automaton: mark it with PatternKeyedMapCollector",
+                    this.getClass().getName()));
+        }
+        for (Snapshot<K, V> levelSnapshot = currentSnapshot; levelSnapshot != null; levelSnapshot = levelSnapshot.ancestorSnapshot()) {
+            V bean = levelSnapshot.patternKeyAutomaton().match(key);
+            if (bean != null) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return lookup metrics of map of collector marked with {@link MeteredMapCollector}
+     * or null if collector is not metered or map is not populated yet
+     */
+    @SuppressWarnings("unchecked")
+    public MapLookupMetrics<K> getLookupMetrics() {
+        populateIfDeferred();
+        return snapshot.frozenMap() instanceof MapLookupMetrics<?> lookupMetrics ? (MapLookupMetrics<K>) lookupMetrics : null;
+    }
+
+    /**
+     * Internal method to get settings of matching keys against patterns
+     *
+     * @return annotation {@link PatternKeyedMapCollector} of collector class or null if collector is not pattern-keyed
+     */
+    protected PatternKeyedMapCollector getPatternKeyed() {
+        return AnnotatedElementUtils.findMergedAnnotation(this.getClass(), PatternKeyedMapCollector.class);
+    }
+
+    /**
+     * Internal method to get startup, in which population of map is recorded
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return startup of bean factory or no-op startup if bean factory is not configurable
+     */
+    private ApplicationStartup getApplicationStartup(BeanFactory beanFactory) {
+        if (beanFactory instanceof ConfigurableBeanFactory configurableBeanFactory) {
+            return configurableBeanFactory.getApplicationStartup();
+        }
+        return ApplicationStartup.DEFAULT;
+    }
+
+    /**
+     * Internal method to get generic parameter of specified class. Resolved type is cached per class
      *
      * @param clazz specified class
      * @return {@link ResolvableType} of class generic
      */
     protected ResolvableType getClassGenerics(Class<?> clazz) {
-        Type classTypeArgument = ((ParameterizedType) clazz.getGenericSuperclass()).getActualTypeArguments()[1];
-        return ResolvableType.forType(classTypeArgument);
+        return CLASS_GENERICS.computeIfAbsent(clazz, collectorClass -> {
+            Type classTypeArgument = ((ParameterizedType) collectorClass.getGenericSuperclass()).getActualTypeArguments()[1];
+            return ResolvableType.forType(classTypeArgument);
+        });
+    }
+
+    /**
+     * Internal method to get index generated at compile time for collector class
+     *
+     * @return generated {@link MapCollectorIndex} or null if collector class is not marked
+     * with {@link IndexedMapCollector} or index was not generated
+     */
+    protected MapCollectorIndex<K> getIndex() {
+        if (!AnnotatedElementUtils.hasAnnotation(this.getClass(), IndexedMapCollector.class)) {
+            return null;
+        }
+        return MapCollectorIndex.load(this.getClass());
+    }
+
+    /**
+     * Internal method to get names of beans to collect with their keys, resolved from bean definitions without
+     * instantiating beans. By default names are taken from generated {@link MapCollectorIndex}
+     * <p>
+     * Index covers only beans compiled together with collector, including conditional ones, so entries of beans,
+     * which are not registered in bean factory, are skipped. If {@link IndexedMapCollector#verifyCompleteness()}
+     * is enabled and bean factory has annotated beans of type to collect, which are not in index, e.g. from other
+     * modules, index is not used
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return map of bean names with keys of the map as keys or null if keys can't be resolved from bean definitions,
+     * in that case beans are collected with {@link #getAnnotatedBeans} and {@link #putMapEntries}
+     */
+    protected Map<K, String> getBeanNamesByKey(BeanFactory beanFactory) {
+        MapCollectorIndex<K> index = getIndex();
+        if (index == null) {
+            return null;
+        }
+        if (!(beanFactory instanceof ListableBeanFactory listableBeanFactory)) {
+            return index.getBeanNamesByKey();
+        }
+        Map<K, String> beanNamesByKey = new LinkedHashMap<>();
+        for (var indexEntry : index.getBeanNamesByKey().entrySet()) {
+            String indexedBeanName = indexEntry.getValue();
+            if (listableBeanFactory.containsBeanDefinition(indexedBeanName)
+                    || (beanFactory instanceof SingletonBeanRegistry singletonBeanRegistry
+                    && singletonBeanRegistry.containsSingleton(indexedBeanName))) {
+                beanNamesByKey.put(indexEntry.getKey(), indexedBeanName);
+            } else {
+                log.debug("Bean with name {} from index of collector {} is not registered, skipped",
+                        indexedBeanName, this.getClass().getName());
+            }
+        }
+        IndexedMapCollector indexedMapCollector = AnnotatedElementUtils.findMergedAnnotation(this.getClass(), IndexedMapCollector.class);
+        if (indexedMapCollector == null || !indexedMapCollector.verifyCompleteness()) {
+            return beanNamesByKey;
+        }
+        Set<String> indexedBeanNames = new HashSet<>(beanNamesByKey.values());
+        for (String beanName : listableBeanFactory.getBeanNamesForType(getClassGenerics(this.getClass()), true, false)) {
+            if (!indexedBeanNames.contains(beanName)
+                    && listableBeanFactory.findAnnotationOnBean(beanName, indexedMapCollector.annotation(), false) != null) {
+                log.warn("Bean with name {} is not in index of collector {}, beans are scanned instead",
+                        beanName, this.getClass().getName());
+                return null;
+            }
+        }
+        return beanNamesByKey;
+    }
+
+    /**
+     * Internal method to get modes of collector, which are resolved by hooks like {@link #isLazy()} on the first call
+     *
+     * @return resolved modes of collector
+     * @throws RuntimeException if collector is lazy and also sorted, type-keyed, pattern-keyed, parallel
+     *                          or {@link CompositeKeyMapCollector}
+     */
+    Modes getModes() {
+        Modes currentModes = modes;
+        if (currentModes == null) {
+            currentModes = new Modes(isLazy(), isRefreshable(), isHierarchical(), isSorted(), isTypeKeyed(), isParallel(),
+                    isMetered(), getPatternKeyed());
+            checkModes(currentModes);
+            modes = currentModes;
+        }
+        return currentModes;
+    }
+
+    /**
+     * Internal method to check, that modes of collector can be combined. Lazy collector doesn't instantiate beans
+     * on population, so it can't instantiate them concurrently or build lookup structures over them
+     *
+     * @param resolvedModes resolved modes of collector
+     * @throws RuntimeException if collector is lazy and also sorted, type-keyed, pattern-keyed, parallel
+     *                          or {@link CompositeKeyMapCollector}
+     */
+    private void checkModes(Modes resolvedModes) {
+        if (!resolvedModes.lazy()) {
+            return;
+        }
+        List<String> incompatibleModes = new ArrayList<>();
+        if (resolvedModes.sorted()) {
+            incompatibleModes.add(SortedMapCollector.class.getSimpleName());
+        }
+        if (resolvedModes.typeKeyed()) {
+            incompatibleModes.add(TypeKeyedMapCollector.class.getSimpleName());
+        }
+        if (resolvedModes.patternKeyed() != null) {
+            incompatibleModes.add(PatternKeyedMapCollector.class.getSimpleName());
+        }
+        if (resolvedModes.parallel()) {
+            incompatibleModes.add(ParallelMapCollector.class.getSimpleName());
+        }
+        if (this instanceof CompositeKeyMapCollector<?, ?>) {
+            incompatibleModes.add(CompositeKeyMapCollector.class.getSimpleName());
+        }
+        if (!incompatibleModes.isEmpty()) {
+            throw new RuntimeException(String.format("Lazy collector %s can't be combined with %s",
+                    this.getClass().getName(), String.join(", ", incompatibleModes)));
+        }
+    }
+
+    /**
+     * Internal method to check if collector resolves beans on first access to map
+     *
+     * @return true if collector class is marked with {@link LazyMapCollector}
+     */
+    protected boolean isLazy() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), LazyMapCollector.class);
+    }
+
+    /**
+     * Internal method to check if collector can be refreshed with {@link #refresh()}
+     *
+     * @return true if collector class is marked with {@link RefreshableMapCollector}
+     */
+    protected boolean isRefreshable() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), RefreshableMapCollector.class);
+    }
+
+    /**
+     * Internal method to check if collector shares entries of collector of the same class in ancestor context
+     *
+     * @return true if collector class is marked with {@link HierarchicalMapCollector}
+     */
+    protected boolean isHierarchical() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), HierarchicalMapCollector.class);
+    }
+
+    /**
+     * Internal method to check if collector freezes entries into {@link SortedArrayMap}
+     *
+     * @return true if collector class is marked with {@link SortedMapCollector}
+     */
+    protected boolean isSorted() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), SortedMapCollector.class);
+    }
+
+    /**
+     * Internal method to check if beans are also found by subclasses and implementations of their keys
+     *
+     * @return true if collector class is marked with {@link TypeKeyedMapCollector}
+     */
+    protected boolean isTypeKeyed() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), TypeKeyedMapCollector.class);
+    }
+
+    /**
+     * Internal method to get comparator, by which keys of sorted collector are ordered
+     *
+     * @return comparator or null for natural ordering of keys
+     */
+    protected Comparator<? super K> getKeyComparator() {
+        return null;
+    }
+
+    /**
+     * Internal method to check if collector instantiates beans concurrently
+     *
+     * @return true if collector class is marked with {@link ParallelMapCollector}
+     */
+    protected boolean isParallel() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), ParallelMapCollector.class);
+    }
+
+    /**
+     * Internal method to check if collector counts lookups in its map
+     *
+     * @return true if collector class is marked with {@link MeteredMapCollector}
+     */
+    protected boolean isMetered() {
+        return AnnotatedElementUtils.hasAnnotation(this.getClass(), MeteredMapCollector.class);
+    }
+
+    /**
+     * Internal method to get sink, to which lookup metrics of metered collector are passed
+     *
+     * @return sink or null if metrics are available only with {@link #getLookupMetrics()}
+     */
+    protected MapLookupMetricsSink getLookupMetricsSink() {
+        return null;
+    }
+
+    /**
+     * Internal method to get executor, with which parallel collector instantiates beans.
+     * Executor is not shut down by collector
+     *
+     * @return executor or null to instantiate beans with temporary pool, bounded by number of available processors
+     */
+    protected Executor getInstantiationExecutor() {
+        return null;
+    }
+
+    /**
+     * Internal method to resolve value of the map by name of bean, used if names of beans are resolved
+     * with {@link #getBeanNamesByKey(BeanFactory)}
+     *
+     * @param beanName    name of bean to collect
+     * @param beanType    type of beans to collect
+     * @param beanFactory owning {@link BeanFactory}
+     * @return value to put into map, by default bean itself
+     */
+    protected Object resolveBean(String beanName, Class<?> beanType, BeanFactory beanFactory) {
+        return beanFactory.getBean(beanName, beanType);
+    }
+
+    /**
+     * Internal method to check if bean found by {@link #getAnnotatedBeans(BeanFactory)} is put into map
+     *
+     * @param bean          annotated bean
+     * @param typeToCollect type of beans to collect
+     * @return true if bean is instance of type to collect
+     */
+    protected boolean isCollectable(Object bean, ResolvableType typeToCollect) {
+        return typeToCollect.isInstance(bean);
+    }
+
+    /**
+     * Internal method to put beans resolved by names into map. Bean definitions are not scanned for annotations
+     *
+     * @param beanNamesByKey names of beans to collect with their keys
+     * @param typeToCollect  type of beans to collect
+     * @param beanFactory    owning {@link BeanFactory}
+     */
+    @SuppressWarnings("unchecked")
+    private void putNamedMapEntries(Map<K, String> beanNamesByKey, ResolvableType typeToCollect, BeanFactory beanFactory) {
+        Class<?> beanType = typeToCollect.toClass();
+        for (var beanNameEntry : beanNamesByKey.entrySet()) {
+            map.put(beanNameEntry.getKey(), (V) resolveBean(beanNameEntry.getValue(), beanType, beanFactory));
+        }
+    }
+
+    /**
+     * Internal method to put beans resolved by names into map, instantiating them concurrently.
+     * Entries are put after all beans are instantiated
+     *
+     * @param beanNamesByKey names of beans to collect with their keys
+     * @param typeToCollect  type of beans to collect
+     * @param beanFactory    owning {@link BeanFactory}
+     * @throws RuntimeException failure of the first bean in key order, with failures of other beans as suppressed.
+     *                          Keys are ordered naturally if they are comparable, otherwise by their string representation
+     */
+    @SuppressWarnings("unchecked")
+    private void putNamedMapEntriesConcurrently(Map<K, String> beanNamesByKey,
+                                                ResolvableType typeToCollect,
+                                                BeanFactory beanFactory) {
+        if (beanNamesByKey.isEmpty()) {
+            return;
+        }
+        if (holdsSingletonLock(beanFactory)) {
+            putNamedMapEntries(beanNamesByKey, typeToCollect, beanFactory);
+            return;
+        }
+        Class<?> beanType = typeToCollect.toClass();
+        Executor executor = getInstantiationExecutor();
+        ExecutorService temporaryExecutor = null;
+        if (executor == null) {
+            int poolSize = Math.min(beanNamesByKey.size(), Runtime.getRuntime().availableProcessors());
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(this.getClass().getSimpleName() + "-");
+            threadFactory.setDaemon(true);
+            temporaryExecutor = Executors.newFixedThreadPool(poolSize, threadFactory);
+            executor = temporaryExecutor;
+        }
+        try {
+            Map<K, CompletableFuture<Object>> beanFutures = new LinkedHashMap<>();
+            List<Map.Entry<K, String>> beanNameEntries = new ArrayList<>(beanNamesByKey.entrySet());
+            beanNameEntries.sort(Map.Entry.comparingByKey(getKeyOrder(beanNamesByKey.keySet())));
+            for (var beanNameEntry : beanNameEntries) {
+                String beanName = beanNameEntry.getValue();
+                beanFutures.put(beanNameEntry.getKey(),
+                        CompletableFuture.supplyAsync(() -> resolveBean(beanName, beanType, beanFactory), executor));
+            }
+            RuntimeException failure = null;
+            for (var beanFutureEntry : beanFutures.entrySet()) {
+                try {
+                    map.put(beanFutureEntry.getKey(), (V) beanFutureEntry.getValue().join());
+                } catch (CompletionException e) {
+                    RuntimeException beanFailure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                    if (failure == null) {
+                        failure = beanFailure;
+                    } else {
+                        failure.addSuppressed(beanFailure);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            if (temporaryExecutor != null) {
+                temporaryExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Internal method to get deterministic order of keys, in which failures of parallel collector are reported
+     *
+     * @param keys keys of the map
+     * @return natural order if all keys are comparable with each other, otherwise order of string representations
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K> Comparator<K> getKeyOrder(Set<K> keys) {
+        Class<?> commonKeyType = null;
+        for (K key : keys) {
+            Class<?> keyType = key instanceof Enum<?> enumKey ? enumKey.getDeclaringClass() : key.getClass();
+            if (!(key instanceof Comparable<?>) || (commonKeyType != null && commonKeyType != keyType)) {
+                return Comparator.comparing(String::valueOf);
+            }
+            commonKeyType = keyType;
+        }
+        return (Comparator<K>) Comparator.naturalOrder();
+    }
+
+    /**
+     * Internal method to build lookup structure of subclass over frozen entries. Collector marked with
+     * {@link HierarchicalMapCollector} passes only entries of own context and structure of ancestor collector,
+     * so structure shouldn't be rebuilt over entries of ancestor. Not called for collector marked with {@link LazyMapCollector}
+     *
+     * @param ownEntries    frozen entries of own context
+     * @param ancestorIndex structure built by ancestor collector or null if there is no ancestor collector
+     * @return structure, published together with map and returned by {@link #getBuiltIndex()}, or null
+     */
+    protected Object buildIndex(Map<K, V> ownEntries, Object ancestorIndex) {
+        return null;
+    }
+
+    /**
+     * Internal method to get lookup structure of subclass, built over the latest published map
+     *
+     * @return structure built by {@link #buildIndex(Map, Object)} or null if map is not populated yet
+     */
+    protected Object getBuiltIndex() {
+        populateIfDeferred();
+        return snapshot.index();
+    }
+
+    /**
+     * Internal method to freeze collected entries into immutable map. By default entries are frozen into map,
+     * specialized by key type: {@link IntKeyFrozenMap}, {@link LongKeyFrozenMap}, {@link EnumKeyFrozenMap}
+     * or {@link StringKeyFrozenMap}. Entries of collector marked with {@link SortedMapCollector} are frozen
+     * into {@link SortedArrayMap}
+     * <p>
+     * Returned map should not be a view of <i>entries</i>, because {@link #refresh()} reuses them
+     *
+     * @param entries collected entries
+     * @return immutable map, returned by {@link #getMap()}
+     */
+    protected Map<K, V> freeze(Map<K, V> entries) {
+        if (getModes().sorted()) {
+            return SortedArrayMap.of(entries, getKeyComparator());
+        }
+        return FrozenMaps.freeze(entries);
+    }
+
+    /**
+     * Internal method to instrument map of metered collector
+     *
+     * @param collectedMap frozen or lazy map
+     * @param ownEntries   entries of own context, which counters are created for in advance
+     * @return {@link MeteredMap} over specified map, if collector is metered, otherwise specified map itself
+     */
+    private Map<K, V> meter(Map<K, V> collectedMap, Map<K, V> ownEntries) {
+        if (!getModes().metered()) {
+            return collectedMap;
+        }
+        MeteredMap<K, V> meteredMap = new MeteredMap<>(collectedMap, ownEntries);
+        MapLookupMetricsSink lookupMetricsSink = getLookupMetricsSink();
+        if (lookupMetricsSink != null) {
+            lookupMetricsSink.bind(beanName != null ? beanName : this.getClass().getName(), meteredMap);
+        }
+        return meteredMap;
+    }
+
+    /**
+     * Internal method to create map of lazily resolved beans. Each bean is resolved by name with
+     * {@link #resolveBean(String, Class, BeanFactory)} on first access to its key
+     *
+     * @param beanNamesByKey names of beans to collect with their keys
+     * @param typeToCollect  type of beans to collect
+     * @param beanFactory    owning {@link BeanFactory}
+     * @return map of lazily resolved beans
+     */
+    @SuppressWarnings("unchecked")
+    private Map<K, V> getLazyMap(Map<K, String> beanNamesByKey, ResolvableType typeToCollect, BeanFactory beanFactory) {
+        Class<?> beanType = typeToCollect.toClass();
+        Map<K, Supplier<V>> beanSuppliers = new LinkedHashMap<>();
+        for (var beanNameEntry : beanNamesByKey.entrySet()) {
+            String beanName = beanNameEntry.getValue();
+            beanSuppliers.put(beanNameEntry.getKey(), SingletonSupplier.of(() -> (V) resolveBean(beanName, beanType, beanFactory)));
+        }
+        return new LazyBeanMap<>(FrozenMaps.freeze(beanSuppliers));
     }
 
     /**
@@ -76,4 +851,42 @@ public abstract class MapCollector<K, V> implements BeanFactoryAware {
      * @param beanFactory owning {@link BeanFactory}
      */
     protected abstract void putMapEntries(String beanName, Object bean, BeanFactory beanFactory);
-}
\ No newline at end of file
+
+    /**
+     * Modes of collector, resolved once from annotations of collector class, so they are not looked up on every
+     * population or access to map
+     */
+    record Modes(boolean lazy, boolean refreshable, boolean hierarchical, boolean sorted, boolean typeKeyed,
+                 boolean parallel, boolean metered, PatternKeyedMapCollector patternKeyed) {
+
+    }
+
+    /**
+     * Published map with structures built over it by one population. Snapshot is replaced as a whole,
+     * so readers never combine map and structures of different populations
+     *
+     * @param publishedMap          map returned by {@link #getMap()}
+     * @param sharedMap             map without instrumentation, shared with descendant collectors
+     * @param frozenMap             map read by view of refreshable collector, instrumented if collector is metered
+     * @param sortedMap             map of sorted collector or null
+     * @param stringKeyMap          map with {@link String} keys, frozen by perfect hash, or null
+     * @param typeHierarchyResolver resolver of type-keyed collector or null
+     * @param patternKeyAutomaton   automaton of pattern-keyed collector or null
+     * @param index                 structure built by {@link #buildIndex(Map, Object)} or null
+     * @param ancestorSnapshot      snapshot of ancestor collector, which structures are looked up, if own structures
+     *                              don't find value, or null
+     */
+    private record Snapshot<K, V>(Map<K, V> publishedMap, Map<K, V> sharedMap, Map<K, V> frozenMap,
+                                  SortedArrayMap<K, V> sortedMap, StringKeyFrozenMap<V> stringKeyMap,
+                                  TypeHierarchyResolver<V> typeHierarchyResolver, PatternKeyAutomaton<V> patternKeyAutomaton,
+                                  Object index, Snapshot<K, V> ancestorSnapshot) {
+
+        /**
+         * @param publishedMap view of map, which is being collected
+         * @return snapshot of collector, which map is not populated yet
+         */
+        static <K, V> Snapshot<K, V> unpopulated(Map<K, V> publishedMap) {
+            return new Snapshot<>(publishedMap, null, null, null, null, null, null, null, null);
+        }
+    }
+}
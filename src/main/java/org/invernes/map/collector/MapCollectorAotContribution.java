@@ -0,0 +1,237 @@
+package org.invernes.map.collector;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.javapoet.AnnotationSpec;
+import org.springframework.javapoet.ClassName;
+import org.springframework.javapoet.CodeBlock;
+import org.springframework.javapoet.FieldSpec;
+import org.springframework.javapoet.JavaFile;
+import org.springframework.javapoet.MethodSpec;
+import org.springframework.javapoet.ParameterizedTypeName;
+import org.springframework.javapoet.TypeName;
+import org.springframework.javapoet.TypeSpec;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+
+import javax.annotation.processing.Generated;
+import javax.lang.model.element.Modifier;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contribution of {@link MapCollectorBeanFactoryPostProcessor} to AOT processing of bean factory
+ * <p>
+ * Dependencies of {@link MapCollector} beans, set by post-processor at build time, are kept in generated bean definitions,
+ * and post-processor itself is excluded from them, so AOT-optimized startups don't scan bean definitions.
+ * Contribution additionally:
+ * <p>
+ * 1. Generates {@link MapCollectorIndex} for each {@link IndexedMapCollector}, for which there is no index generated at compile time
+ * <p>
+ * 2. Registers {@link org.springframework.aot.hint.RuntimeHints} needed to load indexes, resolve collectors' generics
+ * and read collect annotations on beans in native image
+ */
+@Slf4j
+@RequiredArgsConstructor
+class MapCollectorAotContribution implements BeanFactoryInitializationAotContribution {
+
+    private final List<GeneratedIndex> indexesToGenerate;
+    private final Set<String> indexClassNames;
+    private final Set<Class<?>> typesToRegister;
+    private final Set<Method> methodsToIntrospect;
+
+    /**
+     * Method to resolve everything, needed for contribution, from bean factory at build time
+     *
+     * @param annotationClasses types of annotations, which mark beans to collect
+     * @param mapCollectorNames names of {@link MapCollector} beans
+     * @param beanFactory       beanFactory, provided by Spring
+     * @return contribution
+     */
+    static MapCollectorAotContribution create(Collection<Class<? extends Annotation>> annotationClasses,
+                                              String[] mapCollectorNames,
+                                              ConfigurableListableBeanFactory beanFactory) {
+        List<GeneratedIndex> indexesToGenerate = new ArrayList<>();
+        Set<String> indexClassNames = new LinkedHashSet<>();
+        Set<Class<?>> typesToRegister = new LinkedHashSet<>();
+        Set<Method> methodsToIntrospect = new LinkedHashSet<>();
+        typesToRegister.addAll(annotationClasses);
+        for (String mapCollectorName : mapCollectorNames) {
+            Class<?> collectorClass = ClassUtils.getUserClass(beanFactory.getType(mapCollectorName));
+            typesToRegister.add(collectorClass);
+            IndexedMapCollector indexedMapCollector = AnnotatedElementUtils.findMergedAnnotation(collectorClass, IndexedMapCollector.class);
+            if (indexedMapCollector != null) {
+                String indexClassName = MapCollectorIndex.getIndexClassName(collectorClass.getName());
+                indexClassNames.add(indexClassName);
+                if (!ClassUtils.isPresent(indexClassName, collectorClass.getClassLoader())) {
+                    indexesToGenerate.add(resolveIndex(collectorClass, indexClassName, indexedMapCollector, beanFactory));
+                }
+                continue;
+            }
+            BeanDefinition collectorDefinition = beanFactory.getBeanDefinition(mapCollectorName);
+            String[] collectedBeanNames = collectorDefinition.getDependsOn();
+            if (collectedBeanNames == null) {
+                continue;
+            }
+            for (String collectedBeanName : collectedBeanNames) {
+                Class<?> collectedBeanType = beanFactory.getType(collectedBeanName);
+                if (collectedBeanType != null) {
+                    typesToRegister.add(ClassUtils.getUserClass(collectedBeanType));
+                }
+                if (beanFactory.getMergedBeanDefinition(collectedBeanName) instanceof RootBeanDefinition rootBeanDefinition
+                        && rootBeanDefinition.getResolvedFactoryMethod() != null) {
+                    methodsToIntrospect.add(rootBeanDefinition.getResolvedFactoryMethod());
+                }
+            }
+        }
+        log.debug("{} indexes of MapCollector to generate, {} indexes to register", indexesToGenerate.size(), indexClassNames.size());
+        return new MapCollectorAotContribution(indexesToGenerate, indexClassNames, typesToRegister, methodsToIntrospect);
+    }
+
+    @Override
+    public void applyTo(GenerationContext generationContext, BeanFactoryInitializationCode beanFactoryInitializationCode) {
+        for (GeneratedIndex index : indexesToGenerate) {
+            generationContext.getGeneratedFiles().addSourceFile(index.toJavaFile());
+        }
+        ReflectionHints reflectionHints = generationContext.getRuntimeHints().reflection();
+        for (String indexClassName : indexClassNames) {
+            reflectionHints.registerType(TypeReference.of(indexClassName), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        for (Class<?> type : typesToRegister) {
+            reflectionHints.registerType(type);
+        }
+        for (Method method : methodsToIntrospect) {
+            reflectionHints.registerMethod(method, ExecutableMode.INTROSPECT);
+        }
+    }
+
+    /**
+     * Internal method to resolve key to bean name assignments of collector from bean definitions
+     *
+     * @param collectorClass      class of collector
+     * @param indexClassName      name of index class to generate
+     * @param indexedMapCollector {@link IndexedMapCollector} on collector class
+     * @param beanFactory         beanFactory, provided by Spring
+     * @return index to generate
+     */
+    private static GeneratedIndex resolveIndex(Class<?> collectorClass,
+                                               String indexClassName,
+                                               IndexedMapCollector indexedMapCollector,
+                                               ConfigurableListableBeanFactory beanFactory) {
+        Type[] collectorGenerics = ((ParameterizedType) collectorClass.getGenericSuperclass()).getActualTypeArguments();
+        ResolvableType typeToCollect = ResolvableType.forType(collectorGenerics[1]);
+        Class<? extends Annotation> collectAnnotation = indexedMapCollector.annotation();
+        Map<Object, String> beanNamesByKey = new LinkedHashMap<>();
+        for (String annotatedBeanName : beanFactory.getBeanNamesForAnnotation(collectAnnotation)) {
+            if (!beanFactory.isTypeMatch(annotatedBeanName, typeToCollect)) {
+                continue;
+            }
+            Annotation annotationOnBean = beanFactory.findAnnotationOnBean(annotatedBeanName, collectAnnotation);
+            Object keys = AnnotationUtils.getValue(annotationOnBean, indexedMapCollector.keyAttribute());
+            for (Object key : ObjectUtils.isArray(keys) ? ObjectUtils.toObjectArray(keys) : new Object[]{keys}) {
+                String previousBeanName = beanNamesByKey.put(key, annotatedBeanName);
+                if (previousBeanName != null) {
+                    throw new RuntimeException(String.format("Key %s of bean with name %s is already used by bean with name %s",
+                            key, annotatedBeanName, previousBeanName));
+                }
+            }
+        }
+        return new GeneratedIndex(ClassName.bestGuess(indexClassName), TypeName.get(collectorGenerics[0]), beanNamesByKey);
+    }
+
+    /**
+     * Index of collector to generate
+     *
+     * @param className      name of index class
+     * @param keyType        key type of the collector
+     * @param beanNamesByKey bean names with keys of the collector as keys
+     */
+    private record GeneratedIndex(ClassName className, TypeName keyType, Map<Object, String> beanNamesByKey) {
+
+        /**
+         * Method to generate source file of index
+         *
+         * @return source file of index
+         */
+        JavaFile toJavaFile() {
+            TypeName mapType = ParameterizedTypeName.get(ClassName.get(Map.class), keyType, ClassName.get(String.class));
+            CodeBlock.Builder entries = CodeBlock.builder().add("$T.ofEntries(", Map.class).indent();
+            String separator = "\n";
+            for (var beanNameEntry : beanNamesByKey.entrySet()) {
+                entries.add(separator).add("$T.entry($L, $S)", Map.class, toKeyCode(beanNameEntry.getKey()), beanNameEntry.getValue());
+                separator = ",\n";
+            }
+            entries.unindent().add(")");
+            TypeSpec indexType = TypeSpec.classBuilder(className)
+                    .addAnnotation(AnnotationSpec.builder(Generated.class)
+                            .addMember("value", "$S", MapCollectorBeanFactoryPostProcessor.class.getName())
+                            .build())
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                    .addSuperinterface(ParameterizedTypeName.get(ClassName.get(MapCollectorIndex.class), keyType))
+                    .addField(FieldSpec.builder(mapType, "BEAN_NAMES_BY_KEY", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                            .initializer(entries.build())
+                            .build())
+                    .addMethod(MethodSpec.methodBuilder("getBeanNamesByKey")
+                            .addAnnotation(Override.class)
+                            .addModifiers(Modifier.PUBLIC)
+                            .returns(mapType)
+                            .addStatement("return BEAN_NAMES_BY_KEY")
+                            .build())
+                    .build();
+            return JavaFile.builder(className.packageName(), indexType).build();
+        }
+
+        /**
+         * Internal method to convert key to Java expression
+         *
+         * @param key key of the collector
+         * @return code, which evaluates to key
+         */
+        private static CodeBlock toKeyCode(Object key) {
+            if (key instanceof String) {
+                return CodeBlock.of("$S", key);
+            }
+            if (key instanceof Integer || key instanceof Boolean) {
+                return CodeBlock.of("$L", key);
+            }
+            if (key instanceof Long) {
+                return CodeBlock.of("$LL", key);
+            }
+            if (key instanceof Short || key instanceof Byte) {
+                return CodeBlock.of("($T) $L", TypeName.get(ClassUtils.resolvePrimitiveIfNecessary(key.getClass())).unbox(), key);
+            }
+            if (key instanceof Character character) {
+                return CodeBlock.of("(char) $L", (int) character);
+            }
+            if (key instanceof Enum<?> enumKey) {
+                return CodeBlock.of("$T.$L", enumKey.getDeclaringClass(), enumKey.name());
+            }
+            if (key instanceof Class<?> classKey) {
+                return CodeBlock.of("$T.class", classKey);
+            }
+            throw new RuntimeException(String.format("Unsupported type of key %s: %s", key, key.getClass().getName()));
+        }
+    }
+}
@@ -1,34 +1,110 @@
 package org.invernes.map.collector;
 
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Class implementing {@link BeanFactoryPostProcessor}, that searches for beans of type {@link MapCollector} in context and set
- * dependencies on beans with annotation of type <i>annotationClass</i> and with type of {@link MapCollector} generic types
+ * dependencies on beans with annotation of one of types <i>annotationClasses</i> and with type of {@link MapCollector}
+ * generic types
+ * <p>
+ * Single post-processor serves collectors of several annotations: bean definitions are scanned for all annotations
+ * in one pass, shared by all collectors. Collector depends on beans with annotation, declared on its class by
+ * {@link IndexedMapCollector} or {@link CollectedAnnotation}. Collector without declaration depends on beans with
+ * any of the annotations, because its annotation can't be known without instantiating it
  * <p>
  * You simply need to add an instance of that class to context, Spring automatically calls method
  * {@link BeanFactoryPostProcessor#postProcessBeanFactory(ConfigurableListableBeanFactory) postProcessBeanFactory}
+ * <p>
+ * During AOT processing dependencies are resolved at build time and kept in generated bean definitions.
+ * As {@link BeanFactoryInitializationAotProcessor}, post-processor is excluded from generated bean definitions,
+ * so AOT-optimized and native startups skip runtime scanning
+ * <p>
+ * Phases of post-processing are recorded as {@link StartupStep} of {@link ApplicationStartup} of bean factory:
+ * <i>map-collector.factory-method</i>, <i>map-collector.annotation-scan</i>, <i>map-collector.type-scan</i>
+ * and <i>map-collector.dependencies</i>, nested into <i>map-collector.post-process</i>
+ * <p>
+ * With {@link MapCollectorScanCache} dependencies, resolved on previous start of the same class path
+ * and bean definitions, are set without scanning
  */
 @Slf4j
-@RequiredArgsConstructor
-public class MapCollectorBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
+public class MapCollectorBeanFactoryPostProcessor implements BeanFactoryPostProcessor, BeanFactoryInitializationAotProcessor {
+
+    /**
+     * Prefix of names of {@link StartupStep}, recorded by post-processor and {@link MapCollector}
+     */
+    public static final String STARTUP_STEP_PREFIX = "map-collector";
+
+    private final List<Class<? extends Annotation>> annotationClasses;
+
+    private final MapCollectorScanCache scanCache;
+
+    /**
+     * @param annotationClass annotation, with which beans to collect are marked
+     */
+    public MapCollectorBeanFactoryPostProcessor(@NonNull Class<? extends Annotation> annotationClass) {
+        this(List.of(annotationClass), null);
+    }
+
+    /**
+     * @param annotationClass annotation, with which beans to collect are marked
+     * @param scanCache       cache of scan results or null to scan on each start. Cache is registered in bean factory
+     *                        with name {@link MapCollectorScanCache#BEAN_NAME}, so collectors also use it
+     */
+    public MapCollectorBeanFactoryPostProcessor(@NonNull Class<? extends Annotation> annotationClass,
+                                                MapCollectorScanCache scanCache) {
+        this(List.of(annotationClass), scanCache);
+    }
+
+    /**
+     * @param annotationClasses annotations, with which beans to collect are marked
+     */
+    public MapCollectorBeanFactoryPostProcessor(@NonNull Collection<Class<? extends Annotation>> annotationClasses) {
+        this(annotationClasses, null);
+    }
 
-    private final Class<? extends Annotation> annotationClass;
+    /**
+     * @param annotationClasses annotations, with which beans to collect are marked
+     * @param scanCache         cache of scan results or null to scan on each start
+     * @throws RuntimeException if no annotations are specified
+     */
+    public MapCollectorBeanFactoryPostProcessor(@NonNull Collection<Class<? extends Annotation>> annotationClasses,
+                                                MapCollectorScanCache scanCache) {
+        if (annotationClasses.isEmpty()) {
+            throw new RuntimeException("No annotations of beans to collect are specified");
+        }
+        this.annotationClasses = List.copyOf(new LinkedHashSet<>(annotationClasses));
+        this.scanCache = scanCache;
+    }
 
     /**
      * Method called by Spring after creating all {@link BeanDefinition}, in which for each {@link MapCollector}
@@ -40,33 +116,128 @@ public class MapCollectorBeanFactoryPostProcessor implements BeanFactoryPostProc
      * 2. {@link MapCollectorBeanFactoryPostProcessor} defines generic of the return type of found factory method
      * <p>
      * 3. {@link MapCollectorBeanFactoryPostProcessor} searches for beans with type defined in p.2
-     * and with annotation of type <i>annotationClass</i> are found
+     * and with annotation of one of types <i>annotationClasses</i> are found
      * <p>
-     * 4. Each bean found in p.3 is set as dependency of {@link MapCollector}
+     * 4. Each bean found in p.3 is set as dependency of {@link MapCollector}, unless it's marked with {@link LazyMapCollector}
+     * or {@link ParallelMapCollector} or it's {@link ProviderMapCollector} or {@link MethodMapCollector}
+     * <p>
+     * Beans with annotations of types <i>annotationClasses</i> are searched once for all {@link MapCollector} beans,
+     * beans of the same type are searched once for all collectors of that type
      *
      * @param beanFactory beanFactory, provided by Spring
      * @throws RuntimeException if context doesn't contain beans of type {@link MapCollector},
      *                          if there are no fabric methods with which {@link MapCollector} are created,
-     *                          if there are no beans with annotation of type <i>annotationClass</i> found
+     *                          if there are no beans with annotations of types <i>annotationClasses</i> found,
+     *                          unless collector is marked with {@link HierarchicalMapCollector} and context has parent,
+     *                          which provides entries of ancestor collector
      */
     @Override
     public void postProcessBeanFactory(@NonNull ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        ApplicationStartup applicationStartup = beanFactory.getApplicationStartup();
         String[] mapCollectorNames = beanFactory.getBeanNamesForType(MapCollector.class);
         if (mapCollectorNames.length == 0) {
             throw new RuntimeException("No beans of type MapCollector found, but MapCollectorBeanFactoryPostProcessor is still used");
         }
         log.debug("{} beans of MapCollector type found", mapCollectorNames.length);
-        for (String mapCollectorName : mapCollectorNames) {
-            log.debug("Resolving dependencies for bean with name {}", mapCollectorName);
-            Method factoryMethodForMapCollector = getFactoryMethodForBeanName(mapCollectorName, beanFactory);
-            if (factoryMethodForMapCollector == null) {
-                throw new RuntimeException(String.format("No factory method for bean with name %s found", mapCollectorName));
+        StartupStep postProcessStep = applicationStartup.start(STARTUP_STEP_PREFIX + ".post-process")
+                .tag("annotation", this::getAnnotationNames)
+                .tag("collectorCount", () -> String.valueOf(mapCollectorNames.length));
+        try {
+            if (scanCache != null) {
+                scanCache.load(annotationClasses, beanFactory);
+                registerScanCache(beanFactory);
+            }
+            Map<Class<? extends Annotation>, Set<String>> annotatedBeanNames = null;
+            Map<ResolvableType, String[]> beanNamesByType = new HashMap<>();
+            for (String mapCollectorName : mapCollectorNames) {
+                String[] cachedDependencies = scanCache == null ? null : scanCache.getDependencies(mapCollectorName);
+                if (cachedDependencies != null) {
+                    log.debug("Dependencies for bean with name {} are taken from scan cache", mapCollectorName);
+                    appendDependsOn(beanFactory.getBeanDefinition(mapCollectorName), Arrays.asList(cachedDependencies));
+                    continue;
+                }
+                log.debug("Resolving dependencies for bean with name {}", mapCollectorName);
+                StartupStep factoryMethodStep = applicationStartup.start(STARTUP_STEP_PREFIX + ".factory-method")
+                        .tag("beanName", mapCollectorName);
+                Method factoryMethodForMapCollector;
+                try {
+                    factoryMethodForMapCollector = getFactoryMethodForBeanName(mapCollectorName, beanFactory);
+                    if (factoryMethodForMapCollector == null) {
+                        throw new RuntimeException(String.format("No factory method for bean with name %s found", mapCollectorName));
+                    }
+                    factoryMethodStep.tag("factoryMethod", factoryMethodForMapCollector::toGenericString);
+                } finally {
+                    factoryMethodStep.end();
+                }
+                log.debug("Found factoryMethod for bean with name {}: {}", mapCollectorName, factoryMethodForMapCollector.getName());
+                Class<?> mapCollectorType = factoryMethodForMapCollector.getReturnType();
+                if (AnnotatedElementUtils.hasAnnotation(mapCollectorType, LazyMapCollector.class)) {
+                    log.debug("Bean with name {} is lazy collector, dependencies are not set", mapCollectorName);
+                    continue;
+                }
+                if (AnnotatedElementUtils.hasAnnotation(mapCollectorType, ParallelMapCollector.class)) {
+                    log.debug("Bean with name {} is parallel collector, dependencies are not set", mapCollectorName);
+                    continue;
+                }
+                if (ProviderMapCollector.class.isAssignableFrom(mapCollectorType)) {
+                    log.debug("Bean with name {} is provider collector, dependencies are not set", mapCollectorName);
+                    continue;
+                }
+                if (MethodMapCollector.class.isAssignableFrom(mapCollectorType)) {
+                    log.debug("Bean with name {} is method collector, dependencies are not set", mapCollectorName);
+                    continue;
+                }
+                ResolvableType typeToCollect = getGenericReturnTypeOfMethod(factoryMethodForMapCollector);
+                log.debug("Resolved return type of factoryMethod for bean with name {}: {}", mapCollectorName, typeToCollect);
+                if (annotatedBeanNames == null) {
+                    annotatedBeanNames = getAnnotatedBeanNames(beanFactory, applicationStartup);
+                }
+                if (annotatedBeanNames.values().stream().allMatch(Set::isEmpty)
+                        && !(AnnotatedElementUtils.hasAnnotation(mapCollectorType, HierarchicalMapCollector.class)
+                        && beanFactory.getParentBeanFactory() != null)) {
+                    throw new RuntimeException(String.format("No beans with annotation of type %s found", getAnnotationNames()));
+                }
+                setDependsOn(mapCollectorName, typeToCollect, getCollectedAnnotatedBeanNames(mapCollectorName, mapCollectorType, annotatedBeanNames),
+                        beanNamesByType, beanFactory, applicationStartup);
             }
-            log.debug("Found factoryMethod for bean with name {}: {}", mapCollectorName, factoryMethodForMapCollector.getName());
-            ResolvableType typeToCollect = getGenericReturnTypeOfMethod(factoryMethodForMapCollector);
-            log.debug("Resolved return type of factoryMethod for bean with name {}: {}", mapCollectorName, typeToCollect);
-            setDependsOn(mapCollectorName, typeToCollect, beanFactory);
+        } finally {
+            postProcessStep.end();
+        }
+    }
+
+    /**
+     * Method called by Spring during AOT processing, after {@link #postProcessBeanFactory(ConfigurableListableBeanFactory)}
+     * has set dependencies of {@link MapCollector} beans
+     *
+     * @param beanFactory beanFactory, provided by Spring
+     * @return contribution, which generates indexes of {@link IndexedMapCollector} beans and registers runtime hints,
+     * or null if context doesn't contain beans of type {@link MapCollector}
+     */
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(@NonNull ConfigurableListableBeanFactory beanFactory) {
+        String[] mapCollectorNames = beanFactory.getBeanNamesForType(MapCollector.class);
+        if (mapCollectorNames.length == 0) {
+            return null;
         }
+        return MapCollectorAotContribution.create(annotationClasses, mapCollectorNames, beanFactory);
+    }
+
+    /**
+     * Internal method to register scan cache in bean factory, so that collectors use it and it's written
+     * after all singletons are instantiated
+     *
+     * @param beanFactory beanFactory, provided by Spring
+     */
+    private void registerScanCache(ConfigurableListableBeanFactory beanFactory) {
+        if (beanFactory.containsBeanDefinition(MapCollectorScanCache.BEAN_NAME)) {
+            return;
+        }
+        if (!(beanFactory instanceof BeanDefinitionRegistry beanDefinitionRegistry)) {
+            throw new RuntimeException("Scan cache can't be registered: bean factory is not BeanDefinitionRegistry");
+        }
+        RootBeanDefinition scanCacheDefinition = new RootBeanDefinition(MapCollectorScanCache.class, () -> scanCache);
+        scanCacheDefinition.setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+        beanDefinitionRegistry.registerBeanDefinition(MapCollectorScanCache.BEAN_NAME, scanCacheDefinition);
     }
 
     /**
@@ -107,31 +278,149 @@ public class MapCollectorBeanFactoryPostProcessor implements BeanFactoryPostProc
         return ResolvableType.forType(methodReturnTypeArgument);
     }
 
+    /**
+     * Internal method to get names of beans with annotations of types <i>annotationClasses</i>. Single annotation
+     * is searched with {@link ConfigurableListableBeanFactory#getBeanNamesForAnnotation(Class)}, several annotations
+     * are searched in one pass over bean definitions and singletons
+     *
+     * @param beanFactory        beanFactory, provided by Spring
+     * @param applicationStartup startup, in which annotation scan step is recorded
+     * @return names of annotated beans by annotation, may be empty for each annotation
+     */
+    private Map<Class<? extends Annotation>, Set<String>> getAnnotatedBeanNames(ConfigurableListableBeanFactory beanFactory,
+                                                                                ApplicationStartup applicationStartup) {
+        StartupStep annotationScanStep = applicationStartup.start(STARTUP_STEP_PREFIX + ".annotation-scan")
+                .tag("annotation", this::getAnnotationNames);
+        try {
+            Map<Class<? extends Annotation>, Set<String>> annotatedBeanNames = new LinkedHashMap<>();
+            if (annotationClasses.size() == 1) {
+                Class<? extends Annotation> annotationClass = annotationClasses.get(0);
+                annotatedBeanNames.put(annotationClass, new HashSet<>(Arrays.asList(beanFactory.getBeanNamesForAnnotation(annotationClass))));
+            } else {
+                for (Class<? extends Annotation> annotationClass : annotationClasses) {
+                    annotatedBeanNames.put(annotationClass, new HashSet<>());
+                }
+                Set<String> beanNames = new LinkedHashSet<>();
+                for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                    if (!beanFactory.getBeanDefinition(beanName).isAbstract()) {
+                        beanNames.add(beanName);
+                    }
+                }
+                beanNames.addAll(Arrays.asList(beanFactory.getSingletonNames()));
+                for (String beanName : beanNames) {
+                    for (Class<? extends Annotation> annotationClass : annotationClasses) {
+                        if (beanFactory.findAnnotationOnBean(beanName, annotationClass, false) != null) {
+                            annotatedBeanNames.get(annotationClass).add(beanName);
+                        }
+                    }
+                }
+            }
+            int candidateCount = annotatedBeanNames.values().stream().mapToInt(Set::size).sum();
+            annotationScanStep.tag("candidateCount", () -> String.valueOf(candidateCount));
+            return annotatedBeanNames;
+        } finally {
+            annotationScanStep.end();
+        }
+    }
+
+    /**
+     * Internal method to get names of annotated beans, which can be collected by collector
+     *
+     * @param mapCollectorName   name of collector bean
+     * @param mapCollectorType   class of collector
+     * @param annotatedBeanNames names of annotated beans by annotation
+     * @return names of beans with annotation, declared on collector class by {@link IndexedMapCollector}
+     * or {@link CollectedAnnotation}. As a last resort, if collector has no declaration or declared annotation
+     * is not one of annotations of post-processor, names of beans with any of annotations
+     */
+    private Set<String> getCollectedAnnotatedBeanNames(String mapCollectorName,
+                                                       Class<?> mapCollectorType,
+                                                       Map<Class<? extends Annotation>, Set<String>> annotatedBeanNames) {
+        Class<? extends Annotation> declaredAnnotation = getDeclaredAnnotation(mapCollectorType);
+        if (declaredAnnotation != null && annotatedBeanNames.containsKey(declaredAnnotation)) {
+            return annotatedBeanNames.get(declaredAnnotation);
+        }
+        if (declaredAnnotation != null) {
+            log.warn("Annotation {} of bean with name {} is not one of annotations {}, beans with any of annotations "
+                    + "are set as dependencies", declaredAnnotation.getName(), mapCollectorName, getAnnotationNames());
+        }
+        if (annotatedBeanNames.size() == 1) {
+            return annotatedBeanNames.values().iterator().next();
+        }
+        log.debug("Beans with any of annotations are set as dependencies of bean with name {}", mapCollectorName);
+        Set<String> allAnnotatedBeanNames = new HashSet<>();
+        annotatedBeanNames.values().forEach(allAnnotatedBeanNames::addAll);
+        return allAnnotatedBeanNames;
+    }
+
+    /**
+     * Internal method to get annotation of beans to collect, declared on collector class
+     *
+     * @param mapCollectorType class of collector
+     * @return annotation of {@link IndexedMapCollector} or {@link CollectedAnnotation} or null if there is no declaration
+     */
+    private static Class<? extends Annotation> getDeclaredAnnotation(Class<?> mapCollectorType) {
+        IndexedMapCollector indexedMapCollector = AnnotatedElementUtils.findMergedAnnotation(mapCollectorType, IndexedMapCollector.class);
+        if (indexedMapCollector != null) {
+            return indexedMapCollector.annotation();
+        }
+        CollectedAnnotation collectedAnnotation = AnnotatedElementUtils.findMergedAnnotation(mapCollectorType, CollectedAnnotation.class);
+        return collectedAnnotation == null ? null : collectedAnnotation.value();
+    }
+
+    private String getAnnotationNames() {
+        return annotationClasses.stream().map(Class::getName).collect(Collectors.joining(", "));
+    }
+
     /**
      * Internal method to set dependencies for bean with name <i>beanName</i>
+     * <p>
+     * Dependencies are appended to already existing dependencies of bean with a single call of
+     * {@link BeanDefinition#setDependsOn(String...)}
      *
-     * @param beanName       name of bean
-     * @param dependencyType type of bean to be set as dependency for bean with name <i>beanName</i>
-     * @param beanFactory    beanFactory, provided by Spring
+     * @param beanName           name of bean
+     * @param dependencyType     type of bean to be set as dependency for bean with name <i>beanName</i>
+     * @param annotatedBeanNames names of annotated beans, which can be collected by collector
+     * @param beanNamesByType    names of beans by type, already found for other collectors
+     * @param beanFactory        beanFactory, provided by Spring
+     * @param applicationStartup startup, in which type scan and dependency assignment steps are recorded
      */
     private void setDependsOn(String beanName,
                               ResolvableType dependencyType,
-                              ConfigurableListableBeanFactory beanFactory) {
-        String[] annotatedBeanNames = beanFactory.getBeanNamesForAnnotation(annotationClass);
-        if (annotatedBeanNames.length == 0) {
-            throw new RuntimeException(String.format("No beans with annotation of type %s found", annotationClass.getName()));
+                              Set<String> annotatedBeanNames,
+                              Map<ResolvableType, String[]> beanNamesByType,
+                              ConfigurableListableBeanFactory beanFactory,
+                              ApplicationStartup applicationStartup) {
+        StartupStep typeScanStep = applicationStartup.start(STARTUP_STEP_PREFIX + ".type-scan")
+                .tag("beanName", beanName)
+                .tag("valueType", dependencyType::toString);
+        String[] beanNamesToCollect;
+        try {
+            beanNamesToCollect = beanNamesByType.computeIfAbsent(dependencyType, beanFactory::getBeanNamesForType);
+            typeScanStep.tag("candidateCount", () -> String.valueOf(beanNamesToCollect.length));
+        } finally {
+            typeScanStep.end();
         }
-        String[] beanNamesToCollect = beanFactory.getBeanNamesForType(dependencyType);
+        StartupStep dependenciesStep = applicationStartup.start(STARTUP_STEP_PREFIX + ".dependencies")
+                .tag("beanName", beanName)
+                .tag("valueType", dependencyType::toString);
         List<String> actuallySetDependencies = new ArrayList<>();
         List<String> notSetDependencies = new ArrayList<>();
-        BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
-        for (String beanNameToCollect : beanNamesToCollect) {
-            if (contains(annotatedBeanNames, beanNameToCollect)) {
-                beanDefinition.setDependsOn(beanNameToCollect);
-                actuallySetDependencies.add(beanNameToCollect);
-            } else {
-                notSetDependencies.add(beanNameToCollect);
+        try {
+            for (String beanNameToCollect : beanNamesToCollect) {
+                if (annotatedBeanNames.contains(beanNameToCollect)) {
+                    actuallySetDependencies.add(beanNameToCollect);
+                } else {
+                    notSetDependencies.add(beanNameToCollect);
+                }
             }
+            appendDependsOn(beanFactory.getBeanDefinition(beanName), actuallySetDependencies);
+            if (scanCache != null) {
+                scanCache.putDependencies(beanName, actuallySetDependencies.toArray(String[]::new));
+            }
+            dependenciesStep.tag("dependencyCount", () -> String.valueOf(actuallySetDependencies.size()));
+        } finally {
+            dependenciesStep.end();
         }
         log.info("Following dependencies (count: {}) were set for bean with name {}: {}",
                 actuallySetDependencies.size(), beanName, String.join(", ", actuallySetDependencies));
@@ -142,12 +431,22 @@ public class MapCollectorBeanFactoryPostProcessor implements BeanFactoryPostProc
         }
     }
 
-    private <T> boolean contains(T[] array, T target) {
-        for (T value : array) {
-            if (value.equals(target)) {
-                return true;
-            }
+    /**
+     * Internal method to append dependencies to already existing dependencies of bean with a single call of
+     * {@link BeanDefinition#setDependsOn(String...)}
+     *
+     * @param beanDefinition definition of bean
+     * @param dependencies   names of beans to be set as dependencies
+     */
+    private void appendDependsOn(BeanDefinition beanDefinition, List<String> dependencies) {
+        if (dependencies.isEmpty()) {
+            return;
+        }
+        Set<String> dependsOn = new LinkedHashSet<>();
+        if (beanDefinition.getDependsOn() != null) {
+            dependsOn.addAll(Arrays.asList(beanDefinition.getDependsOn()));
         }
-        return false;
+        dependsOn.addAll(dependencies);
+        beanDefinition.setDependsOn(dependsOn.toArray(String[]::new));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package org.invernes.map.collector;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+
+/**
+ * Key to bean name assignments of {@link MapCollector}, generated at compile time
+ * by {@link org.invernes.map.collector.processor.MapCollectorIndexProcessor}
+ *
+ * @param <K> key type of the map
+ * @see IndexedMapCollector
+ */
+public interface MapCollectorIndex<K> {
+
+    /**
+     * Suffix of the name of generated index class
+     */
+    String CLASS_NAME_SUFFIX = "__MapCollectorIndex";
+
+    /**
+     * @return map of bean names with keys of the collector as keys
+     */
+    Map<K, String> getBeanNamesByKey();
+
+    /**
+     * Method to get name of index class generated for specified collector class
+     * <p>
+     * Example: index class for org.example.Config$SomeClassMapCollector is org.example.Config_SomeClassMapCollector__MapCollectorIndex
+     *
+     * @param collectorClassName binary name of collector class
+     * @return fully qualified name of index class
+     */
+    static String getIndexClassName(String collectorClassName) {
+        String packageName = ClassUtils.getPackageName(collectorClassName);
+        String simpleName = collectorClassName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1);
+        return (packageName.isEmpty() ? "" : packageName + ".") + simpleName.replace('$', '_') + CLASS_NAME_SUFFIX;
+    }
+
+    /**
+     * Method to load index generated for specified collector class
+     *
+     * @param collectorClass class of collector
+     * @param <K>            key type of the map
+     * @return generated index or null if there is no index for collector class
+     */
+    @SuppressWarnings("unchecked")
+    static <K> MapCollectorIndex<K> load(Class<?> collectorClass) {
+        Class<?> userClass = ClassUtils.getUserClass(collectorClass);
+        String indexClassName = getIndexClassName(userClass.getName());
+        ClassLoader classLoader = userClass.getClassLoader();
+        if (!ClassUtils.isPresent(indexClassName, classLoader)) {
+            return null;
+        }
+        Class<?> indexClass = ClassUtils.resolveClassName(indexClassName, classLoader);
+        return (MapCollectorIndex<K>) BeanUtils.instantiateClass(indexClass);
+    }
+}
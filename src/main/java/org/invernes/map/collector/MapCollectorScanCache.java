@@ -0,0 +1,419 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.aot.BeanRegistrationExcludeFilter;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.RegisteredBean;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of scan results of {@link MapCollectorBeanFactoryPostProcessor} and {@link AnnotationMapCollector}:
+ * dependencies of collectors and names of beans by key of each collector
+ * <p>
+ * Cache is opt-in: pass it to {@link MapCollectorBeanFactoryPostProcessor#MapCollectorBeanFactoryPostProcessor(Class, MapCollectorScanCache)}.
+ * Cached results are valid for fingerprint of class path and bean definitions, computed on each start.
+ * If file is missing, damaged or has another fingerprint, beans are scanned as usual and file is rewritten
+ * after all singletons are instantiated. Otherwise scans are skipped
+ * <p>
+ * File is compact binary, read with memory-mapped I/O. Keys of types {@link String}, {@link Integer}, {@link Long},
+ * enums and {@link Class} are cached, collectors with keys of other types are scanned on each start.
+ * Collectors marked with {@link RefreshableMapCollector} are never cached
+ * <p>
+ * Computing fingerprint walks every directory of class path and reads attributes of each file in it, while jar is
+ * identified by its own attributes. Cache pays off when class path consists mostly of jars, e.g. packaged application,
+ * and may be slower than scan for large exploded class path directories
+ * <p>
+ * Cache isn't used by AOT-optimized startups: it's excluded from generated bean definitions, as dependencies
+ * of collectors are already resolved at build time
+ */
+@Slf4j
+public class MapCollectorScanCache implements SmartInitializingSingleton {
+
+    /**
+     * Name, with which cache is registered in bean factory by post-processor
+     */
+    public static final String BEAN_NAME = "org.invernes.map.collector.mapCollectorScanCache";
+
+    private static final int MAGIC = 0x4D435343;
+    private static final int VERSION = 1;
+    private static final int FINGERPRINT_LENGTH = 32;
+
+    private static final byte STRING_KEY = 0;
+    private static final byte INTEGER_KEY = 1;
+    private static final byte LONG_KEY = 2;
+    private static final byte ENUM_KEY = 3;
+    private static final byte CLASS_KEY = 4;
+
+    private final Path path;
+
+    private final Map<String, String[]> dependenciesByCollector = new ConcurrentHashMap<>();
+    private final Map<String, Map<Object, String>> beanNamesByKeyByCollector = new ConcurrentHashMap<>();
+
+    private volatile byte[] fingerprint;
+    private volatile boolean warm;
+    private volatile boolean dirty;
+    private ClassLoader classLoader;
+
+    /**
+     * @param path path of cache file. Directories of the path are created on write
+     */
+    public MapCollectorScanCache(@NonNull Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return true if cached results were read from file with fingerprint of current class path and bean definitions
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Internal method to get cache, registered in bean factory
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return cache or null if post-processor is used without cache
+     */
+    static MapCollectorScanCache find(BeanFactory beanFactory) {
+        return beanFactory.containsBean(BEAN_NAME) ? beanFactory.getBean(BEAN_NAME, MapCollectorScanCache.class) : null;
+    }
+
+    /**
+     * Internal method to read cache file, if it has fingerprint of current class path and bean definitions
+     *
+     * @param annotationClasses annotations, with which post-processor scans beans
+     * @param beanFactory       bean factory, being post-processed
+     */
+    void load(Collection<? extends Class<?>> annotationClasses, ConfigurableListableBeanFactory beanFactory) {
+        classLoader = beanFactory.getBeanClassLoader() != null ? beanFactory.getBeanClassLoader() : ClassUtils.getDefaultClassLoader();
+        fingerprint = computeFingerprint(annotationClasses, beanFactory);
+        dependenciesByCollector.clear();
+        beanNamesByKeyByCollector.clear();
+        warm = false;
+        dirty = true;
+        if (!Files.isRegularFile(path)) {
+            log.debug("Scan cache {} not found", path);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            warm = read(buffer);
+            dirty = !warm;
+        } catch (IOException | ClassNotFoundException | RuntimeException | LinkageError e) {
+            log.debug("Scan cache {} can't be read, beans are scanned", path, e);
+            dependenciesByCollector.clear();
+            beanNamesByKeyByCollector.clear();
+        }
+        log.debug("Scan cache {} is {}", path, warm ? "warm" : "stale");
+    }
+
+    /**
+     * @param collectorName name of collector bean
+     * @return cached dependencies of collector or null if they are not cached
+     */
+    String[] getDependencies(String collectorName) {
+        return warm ? dependenciesByCollector.get(collectorName) : null;
+    }
+
+    /**
+     * @param collectorName name of collector bean
+     * @param dependencies  resolved dependencies of collector
+     */
+    void putDependencies(String collectorName, String[] dependencies) {
+        if (fingerprint != null) {
+            dependenciesByCollector.put(collectorName, dependencies.clone());
+            dirty = true;
+        }
+    }
+
+    /**
+     * @param collectorName name of collector bean
+     * @param <K>           key type of the map
+     * @return cached names of beans by key or null if they are not cached
+     */
+    @SuppressWarnings("unchecked")
+    <K> Map<K, String> getBeanNamesByKey(String collectorName) {
+        return warm ? (Map<K, String>) beanNamesByKeyByCollector.get(collectorName) : null;
+    }
+
+    /**
+     * @param collectorName  name of collector bean
+     * @param beanNamesByKey resolved names of beans by key. Not cached, if some key has unsupported type
+     */
+    void putBeanNamesByKey(String collectorName, Map<?, String> beanNamesByKey) {
+        if (fingerprint == null) {
+            return;
+        }
+        for (Object key : beanNamesByKey.keySet()) {
+            if (getKeyTag(key) < 0) {
+                log.debug("Names of beans of collector {} are not cached: key {} has unsupported type", collectorName, key);
+                return;
+            }
+        }
+        beanNamesByKeyByCollector.put(collectorName, Collections.unmodifiableMap(new LinkedHashMap<>(beanNamesByKey)));
+        dirty = true;
+    }
+
+    /**
+     * Method called by Spring after all singletons are instantiated, in which changed results are written to file.
+     * Cache is an optimization, so failure to write file is logged and doesn't fail startup
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!dirty || fingerprint == null) {
+            return;
+        }
+        try {
+            write();
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Failed to write scan cache {}, beans will be scanned on next start", path, e);
+        }
+    }
+
+    /**
+     * Internal method to read cached results from buffer
+     *
+     * @param buffer content of cache file
+     * @return true if file has current fingerprint and results were read
+     */
+    private boolean read(ByteBuffer buffer) throws ClassNotFoundException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return false;
+            }
+            byte[] cachedFingerprint = new byte[FINGERPRINT_LENGTH];
+            buffer.get(cachedFingerprint);
+            if (!Arrays.equals(cachedFingerprint, fingerprint)) {
+                return false;
+            }
+            int collectorCount = buffer.getInt();
+            for (int i = 0; i < collectorCount; i++) {
+                String collectorName = readString(buffer);
+                String[] dependencies = new String[buffer.getInt()];
+                for (int j = 0; j < dependencies.length; j++) {
+                    dependencies[j] = readString(buffer);
+                }
+                dependenciesByCollector.put(collectorName, dependencies);
+            }
+            collectorCount = buffer.getInt();
+            for (int i = 0; i < collectorCount; i++) {
+                String collectorName = readString(buffer);
+                int entryCount = buffer.getInt();
+                Map<Object, String> beanNamesByKey = new LinkedHashMap<>();
+                for (int j = 0; j < entryCount; j++) {
+                    Object key = readKey(buffer);
+                    beanNamesByKey.put(key, readString(buffer));
+                }
+                beanNamesByKeyByCollector.put(collectorName, Collections.unmodifiableMap(beanNamesByKey));
+            }
+            return true;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            log.debug("Scan cache {} is damaged", path, e);
+            dependenciesByCollector.clear();
+            beanNamesByKeyByCollector.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Internal method to write results to temporary file and move it to path of cache
+     */
+    private void write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.write(fingerprint);
+            Map<String, String[]> dependenciesSnapshot = Map.copyOf(dependenciesByCollector);
+            output.writeInt(dependenciesSnapshot.size());
+            for (var dependenciesEntry : dependenciesSnapshot.entrySet()) {
+                writeString(output, dependenciesEntry.getKey());
+                output.writeInt(dependenciesEntry.getValue().length);
+                for (String dependency : dependenciesEntry.getValue()) {
+                    writeString(output, dependency);
+                }
+            }
+            Map<String, Map<Object, String>> beanNamesSnapshot = Map.copyOf(beanNamesByKeyByCollector);
+            output.writeInt(beanNamesSnapshot.size());
+            for (var beanNamesEntry : beanNamesSnapshot.entrySet()) {
+                writeString(output, beanNamesEntry.getKey());
+                output.writeInt(beanNamesEntry.getValue().size());
+                for (var beanNameEntry : beanNamesEntry.getValue().entrySet()) {
+                    writeKey(output, beanNameEntry.getKey());
+                    writeString(output, beanNameEntry.getValue());
+                }
+            }
+        }
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try (OutputStream fileOutput = Files.newOutputStream(temporaryFile)) {
+            bytes.writeTo(fileOutput);
+        }
+        Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Scan cache {} written, {} bytes", path, bytes.size());
+    }
+
+    private static byte getKeyTag(Object key) {
+        if (key instanceof String) {
+            return STRING_KEY;
+        }
+        if (key instanceof Integer) {
+            return INTEGER_KEY;
+        }
+        if (key instanceof Long) {
+            return LONG_KEY;
+        }
+        if (key instanceof Enum<?>) {
+            return ENUM_KEY;
+        }
+        if (key instanceof Class<?>) {
+            return CLASS_KEY;
+        }
+        return -1;
+    }
+
+    private static void writeKey(DataOutputStream output, Object key) throws IOException {
+        byte keyTag = getKeyTag(key);
+        output.writeByte(keyTag);
+        switch (keyTag) {
+            case STRING_KEY -> writeString(output, (String) key);
+            case INTEGER_KEY -> output.writeInt((Integer) key);
+            case LONG_KEY -> output.writeLong((Long) key);
+            case ENUM_KEY -> {
+                writeString(output, ((Enum<?>) key).getDeclaringClass().getName());
+                writeString(output, ((Enum<?>) key).name());
+            }
+            case CLASS_KEY -> writeString(output, ((Class<?>) key).getName());
+            default -> throw new IllegalArgumentException(String.format("Key %s has unsupported type", key));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object readKey(ByteBuffer buffer) throws ClassNotFoundException {
+        byte keyTag = buffer.get();
+        return switch (keyTag) {
+            case STRING_KEY -> readString(buffer);
+            case INTEGER_KEY -> buffer.getInt();
+            case LONG_KEY -> buffer.getLong();
+            case ENUM_KEY -> {
+                Class enumClass = ClassUtils.forName(readString(buffer), classLoader);
+                yield Enum.valueOf(enumClass, readString(buffer));
+            }
+            case CLASS_KEY -> ClassUtils.forName(readString(buffer), classLoader);
+            default -> throw new IllegalArgumentException(String.format("Unknown key tag %d", keyTag));
+        };
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(valueBytes.length);
+        output.write(valueBytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] valueBytes = new byte[buffer.getInt()];
+        buffer.get(valueBytes);
+        return new String(valueBytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Internal method to compute fingerprint of class path and bean definitions. Entries of class path are identified
+     * by path, size and modification time. Directories are walked, so each file in them is stated, which costs time
+     * proportional to number of files in class path directories
+     *
+     * @param annotationClasses annotations, with which post-processor scans beans
+     * @param beanFactory       bean factory, being post-processed
+     * @return SHA-256 digest
+     */
+    private static byte[] computeFingerprint(Collection<? extends Class<?>> annotationClasses,
+                                             ConfigurableListableBeanFactory beanFactory) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Class<?> annotationClass : annotationClasses) {
+            update(digest, annotationClass.getName());
+        }
+        for (String classPathEntry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            Path classPathPath = Path.of(classPathEntry);
+            if (Files.isDirectory(classPathPath)) {
+                try (Stream<Path> files = Files.walk(classPathPath)) {
+                    files.filter(Files::isRegularFile).sorted().forEach(file -> updateWithFile(digest, file));
+                } catch (IOException e) {
+                    update(digest, classPathEntry);
+                }
+            } else {
+                updateWithFile(digest, classPathPath);
+            }
+        }
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+            update(digest, beanName);
+            update(digest, beanDefinition.getBeanClassName());
+            update(digest, beanDefinition.getFactoryBeanName());
+            update(digest, beanDefinition.getFactoryMethodName());
+            update(digest, beanDefinition.getScope());
+            update(digest, String.valueOf(beanDefinition.isAbstract()));
+        }
+        return digest.digest();
+    }
+
+    private static void updateWithFile(MessageDigest digest, Path file) {
+        update(digest, file.toString());
+        try {
+            update(digest, Files.size(file) + "/" + Files.getLastModifiedTime(file).toMillis());
+        } catch (IOException e) {
+            update(digest, "missing");
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Filter, that excludes cache from bean definitions, generated during AOT processing. Cache is registered
+     * with instance supplier, which can't be generated, and isn't needed by AOT-optimized startups,
+     * whose dependencies are resolved at build time. Registered in <i>META-INF/spring/aot.factories</i>
+     */
+    static class AotExcludeFilter implements BeanRegistrationExcludeFilter {
+
+        @Override
+        public boolean isExcludedFromAotProcessing(@NonNull RegisteredBean registeredBean) {
+            return BEAN_NAME.equals(registeredBean.getBeanName());
+        }
+    }
+}
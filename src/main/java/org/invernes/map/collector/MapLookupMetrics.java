@@ -0,0 +1,28 @@
+package org.invernes.map.collector;
+
+import java.util.Map;
+
+/**
+ * Counts of lookups in map of {@link MeteredMapCollector}
+ *
+ * @param <K> key type of the map
+ */
+public interface MapLookupMetrics<K> {
+
+    /**
+     * @param key key of the map
+     * @return number of lookups, in which value was found by key, or 0 if there is no such key in map
+     */
+    long getHits(K key);
+
+    /**
+     * @return number of lookups, in which value was not found
+     */
+    long getMisses();
+
+    /**
+     * @return snapshot of numbers of hits with keys of the map as keys, including keys without hits.
+     * Keys of ancestor collector of child collector, see {@link HierarchicalMapCollector}, are included after the first hit
+     */
+    Map<K, Long> getHitsByKey();
+}
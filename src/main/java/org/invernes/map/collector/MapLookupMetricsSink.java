@@ -0,0 +1,15 @@
+package org.invernes.map.collector;
+
+/**
+ * Receiver of lookup metrics of {@link MeteredMapCollector}, e.g. {@link MicrometerMapLookupMetricsSink}
+ */
+public interface MapLookupMetricsSink {
+
+    /**
+     * Method called once, when map of collector is populated
+     *
+     * @param collectorName name of collector bean or name of collector class, if collector is not a named bean
+     * @param metrics       lookup metrics of collector map, updated on each lookup
+     */
+    void bind(String collectorName, MapLookupMetrics<?> metrics);
+}
@@ -0,0 +1,119 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unmodifiable map of {@link MeteredMapCollector}, which counts hits per key and misses of {@link #get(Object)}
+ * <p>
+ * Counters are {@link LongAdder}, so concurrent lookups don't contend on them. Other methods are not counted.
+ * Counters are looked up like keys of delegate, e.g. by comparator of {@link SortedArrayMap}, so key, which is
+ * found by delegate, but isn't equal to its key, is counted as hit of that key
+ * <p>
+ * Counters are created in advance for own entries only. Map of child collector, see {@link HierarchicalMapCollector},
+ * counts hits of keys of ancestor collector in counters, created on the first hit, so counters are not created
+ * for all entries of ancestor in each child context
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ */
+class MeteredMap<K, V> extends AbstractMap<K, V> implements MapLookupMetrics<K> {
+
+    private final Map<K, V> delegate;
+    private final Map<K, LongAdder> hitCounters;
+    private final Map<K, LongAdder> ancestorHitCounters;
+    private final LongAdder missCounter = new LongAdder();
+
+    MeteredMap(Map<K, V> delegate) {
+        this(delegate, delegate);
+    }
+
+    /**
+     * @param delegate   map, which lookups are counted
+     * @param ownEntries entries of own context, which are part of delegate, or delegate itself
+     */
+    MeteredMap(Map<K, V> delegate, Map<K, V> ownEntries) {
+        this.delegate = delegate;
+        Map<K, LongAdder> hitCounters = new LinkedHashMap<>();
+        for (K key : ownEntries.keySet()) {
+            hitCounters.put(key, new LongAdder());
+        }
+        this.hitCounters = ownEntries instanceof SortedArrayMap<K, V> sortedOwnEntries
+                ? SortedArrayMap.of(hitCounters, sortedOwnEntries.comparator())
+                : FrozenMaps.freeze(hitCounters);
+        this.ancestorHitCounters = ownEntries == delegate ? null : new ConcurrentHashMap<>();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        V value = delegate.get(key);
+        if (value == null) {
+            missCounter.increment();
+        } else {
+            LongAdder hitCounter = hitCounters.get(key);
+            if (hitCounter == null && ancestorHitCounters != null) {
+                hitCounter = ancestorHitCounters.computeIfAbsent((K) key, ancestorKey -> new LongAdder());
+            }
+            if (hitCounter != null) {
+                hitCounter.increment();
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return delegate.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return delegate.keySet();
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<K, V>> entrySet() {
+        return delegate.entrySet();
+    }
+
+    @Override
+    public long getHits(K key) {
+        LongAdder hitCounter = hitCounters.get(key);
+        if (hitCounter == null && ancestorHitCounters != null) {
+            hitCounter = ancestorHitCounters.get(key);
+        }
+        return hitCounter == null ? 0 : hitCounter.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return missCounter.sum();
+    }
+
+    @Override
+    public Map<K, Long> getHitsByKey() {
+        Map<K, Long> hitsByKey = new LinkedHashMap<>();
+        for (var hitCounterEntry : hitCounters.entrySet()) {
+            hitsByKey.put(hitCounterEntry.getKey(), hitCounterEntry.getValue().sum());
+        }
+        if (ancestorHitCounters != null) {
+            for (var ancestorHitCounterEntry : ancestorHitCounters.entrySet()) {
+                hitsByKey.putIfAbsent(ancestorHitCounterEntry.getKey(), ancestorHitCounterEntry.getValue().sum());
+            }
+        }
+        return hitsByKey;
+    }
+}
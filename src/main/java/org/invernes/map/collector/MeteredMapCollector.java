@@ -0,0 +1,23 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector}, which counts lookups in its map: hits per key and total misses of
+ * {@link java.util.Map#get(Object) get}
+ * <p>
+ * Counts are available with {@link MapCollector#getLookupMetrics()} and are passed to
+ * {@link MapCollector#getLookupMetricsSink()}, if it's present. Maps of not marked collectors are not instrumented
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MeteredMapCollector {
+
+}
@@ -0,0 +1,254 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link MapCollector}, that collects methods of beans with annotation of specified type by values of specified
+ * key attribute of the annotation
+ * <p>
+ * Each annotated method is bound to its bean at startup into implementation of functional interface <i>F</i>, generated
+ * by {@link LambdaMetafactory}. Dispatch by {@link #getMap()} is a direct call of annotated method, which JIT inlines
+ * like a handwritten lambda, instead of {@link Method#invoke} on every call. Parameters and return value of method
+ * must be assignable to and from the ones of functional interface, primitive values are boxed and unboxed
+ * <p>
+ * Methods are found on singleton beans, including static methods of their classes. Collector doesn't support
+ * {@link LazyMapCollector} and {@link ParallelMapCollector} modes. {@link LambdaMetafactory} spins classes at runtime,
+ * so collector is not supported in native image
+ *
+ * @param <K> key type of the map
+ * @param <F> functional interface, into which methods are bound
+ * @implSpec For correct usage extend this class with specific generic parameters:
+ * <pre>
+ * class MessageHandlerMapCollector extends MethodMapCollector&lt;String, Consumer&lt;Message&gt;&gt; {
+ *     MessageHandlerMapCollector() {
+ *         super(MessageHandler.class, "type");
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class MethodMapCollector<K, F> extends MapCollector<K, F> {
+
+    private final Class<? extends Annotation> annotationType;
+    private final String keyAttribute;
+    private final MethodHandle keyAttributeAccessor;
+    private final Class<?> keyType;
+    private final Class<?> functionalInterface;
+    private final Method functionalMethod;
+
+    /**
+     * @param annotationType type of annotation, with which methods to collect are marked
+     * @param keyAttribute   name of annotation attribute, which contains key or array of keys of method
+     * @throws RuntimeException if annotation doesn't have attribute with specified name
+     *                          or value type of the map is not a functional interface
+     */
+    protected MethodMapCollector(@NonNull Class<? extends Annotation> annotationType, @NonNull String keyAttribute) {
+        this.annotationType = annotationType;
+        this.keyAttribute = keyAttribute;
+        this.keyAttributeAccessor = AnnotationMapCollector.getKeyAttributeAccessor(annotationType, keyAttribute);
+        ResolvableType mapCollectorType = ResolvableType.forClass(this.getClass()).as(MapCollector.class);
+        this.keyType = mapCollectorType.getGeneric(0).toClass();
+        this.functionalInterface = mapCollectorType.getGeneric(1).toClass();
+        this.functionalMethod = getFunctionalMethod(functionalInterface);
+    }
+
+    /**
+     * Method collector resolves keys from methods of bean instances, so map is never lazy
+     *
+     * @return false
+     */
+    @Override
+    protected boolean isLazy() {
+        return false;
+    }
+
+    /**
+     * Method collector binds methods in the calling thread, so beans are never instantiated concurrently
+     *
+     * @return false
+     */
+    @Override
+    protected boolean isParallel() {
+        return false;
+    }
+
+    /**
+     * Internal method to skip resolving names of beans by keys, because keys are declared on methods
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return null
+     */
+    @Override
+    protected Map<K, String> getBeanNamesByKey(BeanFactory beanFactory) {
+        return null;
+    }
+
+    /**
+     * Internal method to get singleton beans, which classes have methods with annotation of type <i>annotationType</i>
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return map of beans with bean names as keys
+     */
+    @Override
+    protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+        ListableBeanFactory listableBeanFactory = (ListableBeanFactory) beanFactory;
+        Map<String, Object> annotatedBeans = new LinkedHashMap<>();
+        for (String beanName : listableBeanFactory.getBeanNamesForType(Object.class, false, false)) {
+            Class<?> beanType = listableBeanFactory.getType(beanName, false);
+            if (beanType != null && !getAnnotatedMethods(beanType).isEmpty()) {
+                annotatedBeans.put(beanName, listableBeanFactory.getBean(beanName));
+            }
+        }
+        return annotatedBeans;
+    }
+
+    /**
+     * Internal method to check if bean is collected. Beans are not instances of functional interface,
+     * so all beans with annotated methods are collected
+     *
+     * @param bean          bean with annotated methods
+     * @param typeToCollect functional interface
+     * @return true
+     */
+    @Override
+    protected boolean isCollectable(Object bean, ResolvableType typeToCollect) {
+        return true;
+    }
+
+    /**
+     * Internal method to bind each annotated method of bean and put it into map by each key of its annotation
+     *
+     * @param beanName    name of bean, which methods are put into map
+     * @param bean        bean
+     * @param beanFactory owning {@link BeanFactory}
+     * @throws RuntimeException if the same key is used by several methods or method can't be bound to functional interface
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+        for (var annotatedMethodEntry : getAnnotatedMethods(AopUtils.getTargetClass(bean)).entrySet()) {
+            Method method = annotatedMethodEntry.getKey();
+            F function = (F) bind(AopUtils.selectInvocableMethod(method, bean.getClass()), bean);
+            for (Object key : AnnotationMapCollector.extractKeys(keyAttributeAccessor, annotatedMethodEntry.getValue(), keyAttribute)) {
+                if (!keyType.isInstance(key)) {
+                    throw new RuntimeException(String.format("Key %s of method %s is not of type %s",
+                            key, method, keyType.getName()));
+                }
+                if (map.putIfAbsent((K) key, function) != null) {
+                    throw new RuntimeException(String.format("Key %s of method %s of bean with name %s is already used",
+                            key, method, beanName));
+                }
+            }
+        }
+    }
+
+    /**
+     * Internal method to find methods with annotation of type <i>annotationType</i>
+     *
+     * @param beanType type of bean
+     * @return annotations of found methods with methods as keys
+     */
+    private Map<Method, Annotation> getAnnotatedMethods(Class<?> beanType) {
+        Class<?> userType = ClassUtils.getUserClass(beanType);
+        if (!AnnotationUtils.isCandidateClass(userType, annotationType)) {
+            return Map.of();
+        }
+        return MethodIntrospector.selectMethods(userType, (MethodIntrospector.MetadataLookup<Annotation>) method ->
+                AnnotatedElementUtils.findMergedAnnotation(method, annotationType));
+    }
+
+    /**
+     * Internal method to generate implementation of functional interface, which calls method of bean
+     *
+     * @param method method to bind
+     * @param bean   bean, on which method is called, ignored for static method
+     * @return implementation of functional interface
+     * @throws RuntimeException if method is not compatible with functional interface
+     */
+    private Object bind(Method method, Object bean) {
+        if (method.getParameterCount() != functionalMethod.getParameterCount()) {
+            throw new RuntimeException(String.format("Method %s has %d parameters, but %s takes %d",
+                    method, method.getParameterCount(), functionalInterface.getName(), functionalMethod.getParameterCount()));
+        }
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle implementation = lookup.unreflect(method);
+            MethodType functionalMethodType = MethodType.methodType(functionalMethod.getReturnType(),
+                    functionalMethod.getParameterTypes());
+            MethodType factoryType = isStatic
+                    ? MethodType.methodType(functionalInterface)
+                    : MethodType.methodType(functionalInterface, declaringClass);
+            MethodHandle factory = LambdaMetafactory.metafactory(lookup, functionalMethod.getName(), factoryType,
+                    functionalMethodType, implementation,
+                    getInstantiatedMethodType(functionalMethodType, MethodType.methodType(method.getReturnType(),
+                            method.getParameterTypes()))).getTarget();
+            return isStatic ? factory.invoke() : factory.invoke(bean);
+        } catch (IllegalAccessException | LambdaConversionException e) {
+            throw new RuntimeException(String.format("Method %s can't be bound to %s", method, functionalInterface.getName()), e);
+        } catch (Throwable e) {
+            throw new RuntimeException(String.format("Failed to bind method %s to %s", method, functionalInterface.getName()), e);
+        }
+    }
+
+    /**
+     * Internal method to specialize erased type of functional method by types of bound method. Reference parameter
+     * is narrowed to parameter of bound method, primitive parameter of bound method is passed boxed
+     *
+     * @param functionalMethodType erased type of functional method
+     * @param methodType           type of bound method without receiver
+     * @return type, which generated implementation checks its arguments against
+     */
+    private static MethodType getInstantiatedMethodType(MethodType functionalMethodType, MethodType methodType) {
+        MethodType instantiatedMethodType = functionalMethodType;
+        for (int i = 0; i < functionalMethodType.parameterCount(); i++) {
+            Class<?> functionalParameterType = functionalMethodType.parameterType(i);
+            Class<?> parameterType = ClassUtils.resolvePrimitiveIfNecessary(methodType.parameterType(i));
+            if (!functionalParameterType.isPrimitive() && functionalParameterType.isAssignableFrom(parameterType)) {
+                instantiatedMethodType = instantiatedMethodType.changeParameterType(i, parameterType);
+            }
+        }
+        return instantiatedMethodType;
+    }
+
+    /**
+     * Internal method to find the only abstract method of functional interface
+     *
+     * @param functionalInterface value type of the map
+     * @return abstract method
+     * @throws RuntimeException if type is not an interface with exactly one abstract method
+     */
+    private static Method getFunctionalMethod(Class<?> functionalInterface) {
+        List<Method> abstractMethods = functionalInterface.isInterface()
+                ? Arrays.stream(functionalInterface.getMethods())
+                .filter(method -> Modifier.isAbstract(method.getModifiers()))
+                .filter(method -> ClassUtils.getMethodIfAvailable(Object.class, method.getName(), method.getParameterTypes()) == null)
+                .toList()
+                : List.of();
+        if (abstractMethods.size() != 1) {
+            throw new RuntimeException(String.format("%s is not a functional interface", functionalInterface.getName()));
+        }
+        return abstractMethods.get(0);
+    }
+}
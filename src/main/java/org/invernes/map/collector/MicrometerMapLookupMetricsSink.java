@@ -0,0 +1,44 @@
+package org.invernes.map.collector;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * {@link MapLookupMetricsSink}, which registers lookup metrics in Micrometer {@link MeterRegistry}
+ * <p>
+ * Each key of the map is registered as {@link FunctionCounter} <i>map.collector.lookups</i> with tags
+ * <i>collector</i>, <i>key</i> and <i>result=hit</i>, misses are registered with tag <i>result=miss</i> without key.
+ * Counters read {@link MapLookupMetrics} on publishing, lookups don't touch registry.
+ * Binding metrics of refreshed collector replaces its counters
+ *
+ * @implNote Requires io.micrometer:micrometer-core on classpath
+ */
+@RequiredArgsConstructor
+public class MicrometerMapLookupMetricsSink implements MapLookupMetricsSink {
+
+    public static final String METER_NAME = "map.collector.lookups";
+
+    @NonNull
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void bind(String collectorName, MapLookupMetrics<?> metrics) {
+        MapLookupMetrics<Object> objectKeyMetrics = (MapLookupMetrics<Object>) metrics;
+        String collectorTag = String.valueOf(collectorName);
+        meterRegistry.find(METER_NAME).tag("collector", collectorTag).meters().forEach(meterRegistry::remove);
+        for (Object key : objectKeyMetrics.getHitsByKey().keySet()) {
+            FunctionCounter.builder(METER_NAME, objectKeyMetrics, keyMetrics -> keyMetrics.getHits(key))
+                    .tag("collector", collectorTag)
+                    .tag("key", String.valueOf(key))
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder(METER_NAME, objectKeyMetrics, MapLookupMetrics::getMisses)
+                .tag("collector", collectorTag)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+}
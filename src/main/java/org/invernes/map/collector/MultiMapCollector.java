@@ -0,0 +1,150 @@
+package org.invernes.map.collector;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.annotation.OrderUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that collects annotated beans into map, in which several beans can be put by the same key
+ * <p>
+ * Values of each key are ordered by {@link Ordered} or {@link Order} of bean class or factory method, beans without order
+ * keep order of collection. After collection all values are frozen into single array: value of the map is unmodifiable
+ * random access list, backed by range of the array, so iteration over values of key doesn't chase list nodes
+ *
+ * @param <K> key type of the map
+ * @param <V> type of collected beans
+ * @implSpec For correct usage extend this class with specific generic parameters:
+ * class SomeClassMultiMapCollector extends MultiMapCollector&lt;Integer, SomeClass&gt;
+ */
+public abstract class MultiMapCollector<K, V> extends MapCollector<K, List<V>> {
+
+    /**
+     * Internal method to put bean into map by each of its keys
+     *
+     * @param beanName    name of bean to be put into map
+     * @param bean        bean
+     * @param beanFactory owning {@link BeanFactory}
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected final void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+        int order = getOrder(beanName, bean, beanFactory);
+        for (K key : getKeys(beanName, bean, beanFactory)) {
+            ((OrderedValues<V>) map.computeIfAbsent(key, k -> new OrderedValues<>())).add((V) bean, order);
+        }
+    }
+
+    /**
+     * Keys of beans of multi-valued collector can't be resolved from bean definitions
+     *
+     * @param beanFactory owning {@link BeanFactory}
+     * @return null, beans are collected with {@link #getAnnotatedBeans} and {@link #putMapEntries}
+     */
+    @Override
+    protected final Map<K, String> getBeanNamesByKey(BeanFactory beanFactory) {
+        return null;
+    }
+
+    /**
+     * Internal method to order values of each key and freeze them into single array
+     *
+     * @param entries collected entries
+     * @return immutable map of unmodifiable lists of values
+     */
+    @Override
+    protected Map<K, List<V>> freeze(Map<K, List<V>> entries) {
+        int valueCount = 0;
+        for (List<V> values : entries.values()) {
+            valueCount += values.size();
+        }
+        Object[] flatValues = new Object[valueCount];
+        Map<K, List<V>> slices = new LinkedHashMap<>();
+        int offset = 0;
+        for (var entry : entries.entrySet()) {
+            List<V> values = entry.getValue() instanceof OrderedValues<V> orderedValues
+                    ? orderedValues.sortByOrder()
+                    : entry.getValue();
+            int from = offset;
+            for (V value : values) {
+                flatValues[offset++] = value;
+            }
+            slices.put(entry.getKey(), new ValueSlice<>(flatValues, from, offset));
+        }
+        return FrozenMaps.freeze(slices);
+    }
+
+    /**
+     * Internal method to get order of bean
+     *
+     * @param beanName    name of bean
+     * @param bean        bean
+     * @param beanFactory owning {@link BeanFactory}
+     * @return order of {@link Ordered} bean, order of {@link Order} of bean class or factory method
+     * or {@link Ordered#LOWEST_PRECEDENCE}
+     */
+    private int getOrder(String beanName, Object bean, BeanFactory beanFactory) {
+        if (bean instanceof Ordered ordered) {
+            return ordered.getOrder();
+        }
+        if (beanFactory instanceof ListableBeanFactory listableBeanFactory) {
+            Order order = listableBeanFactory.findAnnotationOnBean(beanName, Order.class);
+            if (order != null) {
+                return order.value();
+            }
+        }
+        return OrderUtils.getOrder(bean.getClass(), Ordered.LOWEST_PRECEDENCE);
+    }
+
+    /**
+     * Internal method to get keys, by which bean is put into map
+     *
+     * @param beanName    name of bean
+     * @param bean        bean
+     * @param beanFactory owning {@link BeanFactory}
+     * @return keys of bean
+     */
+    protected abstract Collection<K> getKeys(String beanName, Object bean, BeanFactory beanFactory);
+
+    /**
+     * Values of key with orders of beans. Orders live only in values of collected map, so they are discarded together
+     * with collected map on the next population, even if population fails
+     *
+     * @param <V> type of collected beans
+     */
+    private static final class OrderedValues<V> extends ArrayList<V> {
+
+        private final List<Integer> orders = new ArrayList<>();
+
+        private void add(V value, int order) {
+            add(value);
+            orders.add(order);
+        }
+
+        /**
+         * Internal method to get values sorted by order, values with the same order keep order of collection
+         *
+         * @return sorted values
+         */
+        private List<V> sortByOrder() {
+            List<Integer> positions = new ArrayList<>(size());
+            for (int position = 0; position < size(); position++) {
+                positions.add(position);
+            }
+            positions.sort(Comparator.comparingInt(orders::get));
+            List<V> sortedValues = new ArrayList<>(size());
+            for (int position : positions) {
+                sortedValues.add(get(position));
+            }
+            return sortedValues;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map of entries of child collector over shared map of ancestor collector, see {@link HierarchicalMapCollector}
+ * <p>
+ * Overlay of overlay is flattened when map is built: entries of intermediate levels are merged into overlay, and
+ * map of the root collector is shared as base, so lookup takes one lookup in overlay and one in base at most
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ */
+public final class OverlayMap<K, V> extends AbstractMap<K, V> {
+
+    private final Map<K, V> overlay;
+    private final Map<K, V> base;
+    private final int size;
+
+    private OverlayMap(Map<K, V> overlay, Map<K, V> base) {
+        this.overlay = overlay;
+        this.base = base;
+        int shadowedCount = 0;
+        for (K key : overlay.keySet()) {
+            if (base.containsKey(key)) {
+                shadowedCount++;
+            }
+        }
+        this.size = overlay.size() + base.size() - shadowedCount;
+    }
+
+    /**
+     * Method to put own entries of child collector over map of ancestor collector
+     *
+     * @param ancestorMap frozen map of ancestor collector, shared and not copied
+     * @param ownEntries  frozen entries of child collector, which shadow entries of ancestor with the same key
+     * @param <K>         key type of the map
+     * @param <V>         value type of the map
+     * @return map of ancestor, if there are no own entries, otherwise flattened overlay
+     */
+    static <K, V> Map<K, V> of(Map<K, V> ancestorMap, Map<K, V> ownEntries) {
+        if (ownEntries.isEmpty()) {
+            return ancestorMap;
+        }
+        if (!(ancestorMap instanceof OverlayMap<K, V> ancestorOverlayMap)) {
+            return new OverlayMap<>(ownEntries, ancestorMap);
+        }
+        Map<K, V> mergedEntries = new HashMap<>(ancestorOverlayMap.overlay);
+        mergedEntries.putAll(ownEntries);
+        return new OverlayMap<>(FrozenMaps.freeze(mergedEntries), ancestorOverlayMap.base);
+    }
+
+    /**
+     * @return own entries of collector, merged with entries of intermediate ancestors
+     */
+    public Map<K, V> getOverlay() {
+        return overlay;
+    }
+
+    /**
+     * @return map of the root ancestor collector, shared by all descendant collectors
+     */
+    public Map<K, V> getBase() {
+        return base;
+    }
+
+    @Override
+    public V get(Object key) {
+        V value = overlay.get(key);
+        return value != null ? value : base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overlay.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+
+                    private final Iterator<Entry<K, V>> overlayIterator = overlay.entrySet().iterator();
+                    private final Iterator<Entry<K, V>> baseIterator = base.entrySet().iterator();
+                    private Entry<K, V> nextEntry;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (nextEntry != null) {
+                            return true;
+                        }
+                        if (overlayIterator.hasNext()) {
+                            nextEntry = overlayIterator.next();
+                            return true;
+                        }
+                        while (baseIterator.hasNext()) {
+                            Entry<K, V> baseEntry = baseIterator.next();
+                            if (!overlay.containsKey(baseEntry.getKey())) {
+                                nextEntry = baseEntry;
+                                return true;
+                            }
+                        }
+                        return false;
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<K, V> entry = nextEntry;
+                        nextEntry = null;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector}, which instantiates collected beans concurrently, when its map is populated
+ * <p>
+ * Keys of parallel collector are resolved from bean definitions, without instantiating beans:
+ * from {@link MapCollectorIndex} of {@link IndexedMapCollector} or from overridden {@link MapCollector#getBeanNamesByKey}.
+ * Beans are instantiated with {@link MapCollector#getInstantiationExecutor()}, map is frozen after all beans are instantiated.
+ * If some beans fail, failure of the first bean in key order is thrown, failures of other beans are added as suppressed.
+ * {@link MapCollectorBeanFactoryPostProcessor} doesn't set collected beans as dependencies of parallel collector,
+ * otherwise Spring instantiates them one by one before collector
+ *
+ * @implNote Spring 6.0 holds singleton lock of bean factory while singleton is created, so map of singleton collector
+ * is populated in {@link MapCollector#afterSingletonsInstantiated()}, when lock is released, or on the first call of
+ * {@link MapCollector#getMap()} or other accessor, whichever comes first. Mode speeds up instantiation of prototype
+ * and scoped beans only: by that time collected singleton beans are already created one by one by
+ * {@link org.springframework.beans.factory.config.ConfigurableListableBeanFactory#preInstantiateSingletons()
+ * preInstantiateSingletons}, so they are just looked up. If map is accessed under the lock, e.g. from factory
+ * method of another singleton, beans are instantiated sequentially
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ParallelMapCollector {
+
+}
@@ -0,0 +1,254 @@
+package org.invernes.map.collector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Deterministic automaton, which matches keys against glob patterns, registered as keys of map,
+ * see {@link PatternKeyedMapCollector}
+ * <p>
+ * Characters of keys are mapped to classes: one class per literal character of patterns and separator, and one class
+ * for all other characters. Each state of automaton has a transition per class, so matching takes one table lookup
+ * per character of key. Each state is a set of positions in patterns, which are matched by consumed characters.
+ * Value of state is value of pattern with the highest precedence, which is fully matched in that state
+ *
+ * @param <V> value type of the map
+ */
+final class PatternKeyAutomaton<V> {
+
+    private static final int MAX_STATES = 1 << 16;
+
+    private static final int ANY_CHAR = -1;
+    private static final int ANY_SEGMENT_PART = -2;
+    private static final int ANY_SEQUENCE = -3;
+
+    private static final Comparator<Pattern> PRECEDENCE = Comparator.comparingInt((Pattern pattern) -> -pattern.literalCount)
+            .thenComparingInt(pattern -> pattern.wildcardCount)
+            .thenComparing(pattern -> pattern.key);
+
+    private final int[] asciiClasses = new int[128];
+    private final char[] nonAsciiChars;
+    private final int[] nonAsciiClasses;
+    private final int classCount;
+    private final int[] transitions;
+    private final Object[] values;
+
+    /**
+     * @param entries       frozen map with {@link String} keys, which are patterns
+     * @param separator     character, which separates segments of keys
+     * @param collectorName name of collector class to report keys, which are not strings
+     * @throws RuntimeException if some key of the map is not {@link String} or patterns compile into too many states
+     */
+    PatternKeyAutomaton(Map<?, V> entries, char separator, String collectorName) {
+        List<Pattern> patterns = new ArrayList<>(entries.size());
+        TreeSet<Character> alphabet = new TreeSet<>();
+        alphabet.add(separator);
+        for (var entry : entries.entrySet()) {
+            if (!(entry.getKey() instanceof String key)) {
+                throw new RuntimeException(String.format("Key %s of pattern-keyed collector %s is not a String",
+                        entry.getKey(), collectorName));
+            }
+            Pattern pattern = Pattern.parse(key, entry.getValue());
+            for (int token : pattern.tokens) {
+                if (token >= 0) {
+                    alphabet.add((char) token);
+                }
+            }
+            patterns.add(pattern);
+        }
+        patterns.sort(PRECEDENCE);
+
+        List<Character> nonAsciiAlphabet = new ArrayList<>();
+        int charClass = 1;
+        for (char c : alphabet) {
+            if (c < asciiClasses.length) {
+                asciiClasses[c] = charClass++;
+            } else {
+                nonAsciiAlphabet.add(c);
+            }
+        }
+        nonAsciiChars = new char[nonAsciiAlphabet.size()];
+        nonAsciiClasses = new int[nonAsciiAlphabet.size()];
+        for (int i = 0; i < nonAsciiChars.length; i++) {
+            nonAsciiChars[i] = nonAsciiAlphabet.get(i);
+            nonAsciiClasses[i] = charClass++;
+        }
+        classCount = charClass;
+
+        int separatorClass = classOf(separator);
+        Map<PositionSet, Integer> stateIds = new HashMap<>();
+        List<PositionSet> states = new ArrayList<>();
+        Deque<Integer> statesToExpand = new ArrayDeque<>();
+        TreeSet<Long> startPositions = new TreeSet<>();
+        for (int patternIndex = 0; patternIndex < patterns.size(); patternIndex++) {
+            addClosure(startPositions, patterns.get(patternIndex), patternIndex, 0);
+        }
+        PositionSet startState = PositionSet.of(startPositions);
+        stateIds.put(startState, 0);
+        states.add(startState);
+        statesToExpand.add(0);
+        List<int[]> stateTransitions = new ArrayList<>();
+        while (!statesToExpand.isEmpty()) {
+            int stateId = statesToExpand.poll();
+            int[] transitionsOfState = new int[classCount];
+            for (int inputClass = 0; inputClass < classCount; inputClass++) {
+                TreeSet<Long> nextPositions = new TreeSet<>();
+                for (long position : states.get(stateId).positions) {
+                    int patternIndex = (int) (position >>> 32);
+                    step(nextPositions, patterns.get(patternIndex), patternIndex, (int) position, inputClass, separatorClass);
+                }
+                if (nextPositions.isEmpty()) {
+                    transitionsOfState[inputClass] = -1;
+                    continue;
+                }
+                PositionSet nextState = PositionSet.of(nextPositions);
+                Integer nextStateId = stateIds.get(nextState);
+                if (nextStateId == null) {
+                    if (states.size() == MAX_STATES) {
+                        throw new RuntimeException(String.format("Patterns of collector %s compile into more than %d states",
+                                collectorName, MAX_STATES));
+                    }
+                    nextStateId = states.size();
+                    stateIds.put(nextState, nextStateId);
+                    states.add(nextState);
+                    statesToExpand.add(nextStateId);
+                }
+                transitionsOfState[inputClass] = nextStateId;
+            }
+            // states are expanded in order of their ids
+            stateTransitions.add(transitionsOfState);
+        }
+
+        transitions = new int[states.size() * classCount];
+        values = new Object[states.size()];
+        for (int stateId = 0; stateId < states.size(); stateId++) {
+            System.arraycopy(stateTransitions.get(stateId), 0, transitions, stateId * classCount, classCount);
+            for (long position : states.get(stateId).positions) {
+                Pattern pattern = patterns.get((int) (position >>> 32));
+                // positions are sorted by pattern, so the first matched pattern has the highest precedence
+                if ((int) position == pattern.tokens.length) {
+                    values[stateId] = pattern.value;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to get value of pattern with the highest precedence, which matches key
+     *
+     * @param key key to match
+     * @return value or null if no pattern matches key
+     */
+    @SuppressWarnings("unchecked")
+    V match(CharSequence key) {
+        int state = 0;
+        for (int i = 0; i < key.length(); i++) {
+            state = transitions[state * classCount + classOf(key.charAt(i))];
+            if (state < 0) {
+                return null;
+            }
+        }
+        return (V) values[state];
+    }
+
+    /**
+     * @return number of states of automaton
+     */
+    int getStateCount() {
+        return values.length;
+    }
+
+    private int classOf(char c) {
+        if (c < asciiClasses.length) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(nonAsciiChars, c);
+        return index >= 0 ? nonAsciiClasses[index] : 0;
+    }
+
+    /**
+     * Internal method to add positions of pattern, reached from specified position by consuming character of class
+     */
+    private void step(TreeSet<Long> nextPositions, Pattern pattern, int patternIndex, int position,
+                      int inputClass, int separatorClass) {
+        if (position == pattern.tokens.length) {
+            return;
+        }
+        int token = pattern.tokens[position];
+        if (token == ANY_SEQUENCE || (token == ANY_SEGMENT_PART && inputClass != separatorClass)) {
+            addClosure(nextPositions, pattern, patternIndex, position);
+        } else if ((token == ANY_CHAR && inputClass != separatorClass) || (token >= 0 && classOf((char) token) == inputClass)) {
+            addClosure(nextPositions, pattern, patternIndex, position + 1);
+        }
+    }
+
+    /**
+     * Internal method to add position of pattern and positions after wildcards, which match empty sequence
+     */
+    private static void addClosure(TreeSet<Long> positions, Pattern pattern, int patternIndex, int position) {
+        positions.add(((long) patternIndex << 32) | position);
+        while (position < pattern.tokens.length
+                && (pattern.tokens[position] == ANY_SEGMENT_PART || pattern.tokens[position] == ANY_SEQUENCE)) {
+            position++;
+            positions.add(((long) patternIndex << 32) | position);
+        }
+    }
+
+    private record Pattern(String key, Object value, int[] tokens, int literalCount, int wildcardCount) {
+
+        /**
+         * Method to split pattern into literal characters and wildcards
+         *
+         * @param key   pattern
+         * @param value value of pattern
+         * @return parsed pattern
+         */
+        static Pattern parse(String key, Object value) {
+            int[] tokens = new int[key.length()];
+            int tokenCount = 0;
+            int literalCount = 0;
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+                if (c == '?') {
+                    tokens[tokenCount++] = ANY_CHAR;
+                } else if (c == '*' && i + 1 < key.length() && key.charAt(i + 1) == '*') {
+                    while (i + 1 < key.length() && key.charAt(i + 1) == '*') {
+                        i++;
+                    }
+                    tokens[tokenCount++] = ANY_SEQUENCE;
+                } else if (c == '*') {
+                    tokens[tokenCount++] = ANY_SEGMENT_PART;
+                } else {
+                    tokens[tokenCount++] = c;
+                    literalCount++;
+                }
+            }
+            return new Pattern(key, value, Arrays.copyOf(tokens, tokenCount), literalCount, tokenCount - literalCount);
+        }
+    }
+
+    private record PositionSet(long[] positions) {
+
+        static PositionSet of(TreeSet<Long> positions) {
+            return new PositionSet(positions.stream().mapToLong(Long::longValue).toArray());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof PositionSet other && Arrays.equals(positions, other.positions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(positions);
+        }
+    }
+}
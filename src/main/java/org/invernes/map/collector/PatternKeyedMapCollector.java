@@ -0,0 +1,38 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector} with {@link String} keys, which are glob patterns of keys, e.g. <i>orders.*.created</i>.
+ * Bean is found by key, matching its pattern, with {@link MapCollector#getMatching(CharSequence)}
+ * <p>
+ * Wildcards of patterns:
+ * <p>
+ * 1. <i>?</i> matches any character except separator
+ * <p>
+ * 2. <i>*</i> matches any sequence of characters without separator, i.e. part of one segment
+ * <p>
+ * 3. <i>**</i> matches any sequence of characters, so prefix <i>orders.</i> is pattern <i>orders.**</i>
+ * <p>
+ * If several patterns match the key, pattern with more literal characters wins, then pattern with fewer wildcards,
+ * then lexicographically smaller pattern, so exact key always wins. Patterns are compiled into a single deterministic
+ * automaton when map is frozen, so matching takes time linear in length of key regardless of number of patterns
+ * and doesn't allocate. Entries of collector marked with {@link LazyMapCollector} are not frozen, so lazy collector
+ * can't be pattern-keyed
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface PatternKeyedMapCollector {
+
+    /**
+     * @return character, which separates segments of keys
+     */
+    char separator() default '.';
+}
@@ -0,0 +1,70 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * {@link AnnotationMapCollector}, that collects providers of beans instead of beans, e.g. to collect prototype
+ * or request-scoped beans. Beans are not instantiated, when map is populated, each retrieval with
+ * {@link BeanProvider#get()} returns bean of its scope
+ * <p>
+ * Instances of prototype are pooled, if {@link #getPoolSize(String)} is positive. Since beans are not instantiated
+ * on population, {@link MapCollectorBeanFactoryPostProcessor} doesn't set dependencies of provider collector
+ * and {@link LazyMapCollector} has no effect
+ *
+ * @param <K> key type of the map
+ * @param <V> type of collected beans
+ * @implSpec For correct usage extend this class with specific generic parameters:
+ * <pre>
+ * class SomeClassMapCollector extends ProviderMapCollector&lt;Integer, SomeClass&gt; {
+ *     SomeClassMapCollector() {
+ *         super(SomeAnnotation.class, "keys");
+ *     }
+ * }
+ * </pre>
+ */
+public abstract class ProviderMapCollector<K, V> extends AnnotationMapCollector<K, BeanProvider<V>> {
+
+    /**
+     * @param annotationType type of annotation, with which beans to collect are marked
+     * @param keyAttribute   name of annotation attribute, which contains key or array of keys of bean
+     * @throws RuntimeException if annotation doesn't have attribute with specified name
+     */
+    protected ProviderMapCollector(@NonNull Class<? extends Annotation> annotationType, @NonNull String keyAttribute) {
+        super(annotationType, keyAttribute);
+    }
+
+    /**
+     * Internal method to get maximum number of pooled instances of prototype
+     *
+     * @param beanName name of bean
+     * @return pool size or 0 to create instance of prototype on each retrieval
+     */
+    protected int getPoolSize(String beanName) {
+        return 0;
+    }
+
+    /**
+     * Internal method to create provider of bean, instead of resolving bean itself
+     *
+     * @param beanName    name of bean to collect
+     * @param beanType    type of beans to collect
+     * @param beanFactory owning {@link BeanFactory}
+     * @return provider of bean
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Object resolveBean(String beanName, Class<?> beanType, BeanFactory beanFactory) {
+        return new BeanProvider<>(beanName, (Class<V>) beanType, beanFactory, getPoolSize(beanName));
+    }
+
+    /**
+     * @return false, providers don't instantiate beans on population
+     */
+    @Override
+    protected boolean isLazy() {
+        return false;
+    }
+}
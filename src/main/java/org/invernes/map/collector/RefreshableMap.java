@@ -0,0 +1,57 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Unmodifiable view of {@link RefreshableMapCollector}, which delegates each call to the latest published map
+ * <p>
+ * Each call reads published map once, so iteration over {@link #entrySet()} or {@link #keySet()}
+ * doesn't observe refreshes, which happen during iteration
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ */
+@RequiredArgsConstructor
+class RefreshableMap<K, V> extends AbstractMap<K, V> {
+
+    private final Supplier<Map<K, V>> publishedMapSupplier;
+
+    @Override
+    public V get(Object key) {
+        return getPublishedMap().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getPublishedMap().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return getPublishedMap().size();
+    }
+
+    @Override
+    @NonNull
+    public Set<K> keySet() {
+        return getPublishedMap().keySet();
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<K, V>> entrySet() {
+        return getPublishedMap().entrySet();
+    }
+
+    private Map<K, V> getPublishedMap() {
+        Map<K, V> publishedMap = publishedMapSupplier.get();
+        return publishedMap == null ? Collections.emptyMap() : publishedMap;
+    }
+}
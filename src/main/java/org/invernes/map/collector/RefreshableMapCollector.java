@@ -0,0 +1,25 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector}, which collects beans again on {@link MapCollector#refresh()}, e.g. after beans were registered
+ * at runtime with {@link org.springframework.beans.factory.config.SingletonBeanRegistry#registerSingleton registerSingleton}
+ * or removed
+ * <p>
+ * {@link MapCollector#getMap()} of refreshable collector returns view, which reads the latest published map,
+ * so references to the map, injected into other beans, see refreshed entries.
+ * Lookup metrics of {@link MeteredMapCollector} are reset on refresh
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface RefreshableMapCollector {
+
+}
@@ -0,0 +1,414 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable {@link NavigableMap}, backed by parallel arrays of sorted keys and values
+ * <p>
+ * Lookups are binary searches over key array. If all keys are {@link Integer} or {@link Long}, keys are also kept
+ * in primitive array, searched by {@link #floorValue(long)} and {@link #ceilingValue(long)} without boxing.
+ * Methods, which return keys, values or ranges ({@link #floorValue}, {@link #floorKey}, {@link #rangeValues},
+ * {@link #subMap}...), don't copy entries, methods returning {@link java.util.Map.Entry Entry} allocate it.
+ * {@link #descendingMap()}, {@link #navigableKeySet()} and {@link #descendingKeySet()} copy entries
+ *
+ * @param <K> key type of the map
+ * @param <V> value type of the map
+ * @see SortedMapCollector
+ */
+public final class SortedArrayMap<K, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+    private final Object[] keys;
+    private final long[] numericKeys;
+    private final Object[] values;
+    private final Comparator<? super K> comparator;
+    private final int from;
+    private final int to;
+
+    private SortedArrayMap(Object[] keys, long[] numericKeys, Object[] values, Comparator<? super K> comparator, int from, int to) {
+        this.keys = keys;
+        this.numericKeys = numericKeys;
+        this.values = values;
+        this.comparator = comparator;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Method to freeze entries into sorted map
+     *
+     * @param entries    entries to freeze
+     * @param comparator comparator of keys or null for natural ordering
+     * @param <K>        key type of the map
+     * @param <V>        value type of the map
+     * @return frozen map
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> SortedArrayMap<K, V> of(Map<K, V> entries, Comparator<? super K> comparator) {
+        TreeMap<K, V> sortedEntries = new TreeMap<>(comparator);
+        sortedEntries.putAll(entries);
+        Object[] keys = sortedEntries.keySet().toArray();
+        Object[] values = sortedEntries.values().toArray();
+        long[] numericKeys = null;
+        if (comparator == null && (isAll(keys, Integer.class) || isAll(keys, Long.class))) {
+            numericKeys = new long[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                numericKeys[i] = ((Number) keys[i]).longValue();
+            }
+        }
+        return new SortedArrayMap<>(keys, numericKeys, values, comparator, 0, keys.length);
+    }
+
+    private static boolean isAll(Object[] keys, Class<?> keyType) {
+        for (Object key : keys) {
+            if (key.getClass() != keyType) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method to get value of the greatest key less than or equal to the given key without boxing
+     *
+     * @param key key of numeric map
+     * @return value or null if there is no such key
+     * @throws UnsupportedOperationException if keys of the map are not {@link Integer} or {@link Long}
+     */
+    public V floorValue(long key) {
+        return valueAt(floorIndex(numericSearch(key)));
+    }
+
+    /**
+     * Method to get value of the least key greater than or equal to the given key without boxing
+     *
+     * @param key key of numeric map
+     * @return value or null if there is no such key
+     * @throws UnsupportedOperationException if keys of the map are not {@link Integer} or {@link Long}
+     */
+    public V ceilingValue(long key) {
+        return valueAt(ceilingIndex(numericSearch(key)));
+    }
+
+    /**
+     * @param key key
+     * @return value of the greatest key less than or equal to the given key or null if there is no such key
+     */
+    public V floorValue(K key) {
+        return valueAt(floorIndex(search(key)));
+    }
+
+    /**
+     * @param key key
+     * @return value of the least key greater than or equal to the given key or null if there is no such key
+     */
+    public V ceilingValue(K key) {
+        return valueAt(ceilingIndex(search(key)));
+    }
+
+    /**
+     * @param fromKey low endpoint (inclusive)
+     * @param toKey   high endpoint (exclusive)
+     * @return unmodifiable list of values of keys in range, backed by value array of the map
+     */
+    public List<V> rangeValues(K fromKey, K toKey) {
+        int fromIndex = ceilingIndex(search(fromKey));
+        int toIndex = lowerIndex(search(toKey));
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            return Collections.emptyList();
+        }
+        return new ValueSlice<>(values, fromIndex, toIndex + 1);
+    }
+
+    @Override
+    public V get(Object key) {
+        int index = searchAny(key);
+        return index >= 0 ? valueAt(index) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return searchAny(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public K firstKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return keyAt(from);
+    }
+
+    @Override
+    public K lastKey() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return keyAt(to - 1);
+    }
+
+    @Override
+    public Entry<K, V> lowerEntry(K key) {
+        return entryAt(lowerIndex(search(key)));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyAt(lowerIndex(search(key)));
+    }
+
+    @Override
+    public Entry<K, V> floorEntry(K key) {
+        return entryAt(floorIndex(search(key)));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyAt(floorIndex(search(key)));
+    }
+
+    @Override
+    public Entry<K, V> ceilingEntry(K key) {
+        return entryAt(ceilingIndex(search(key)));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyAt(ceilingIndex(search(key)));
+    }
+
+    @Override
+    public Entry<K, V> higherEntry(K key) {
+        return entryAt(higherIndex(search(key)));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyAt(higherIndex(search(key)));
+    }
+
+    @Override
+    public Entry<K, V> firstEntry() {
+        return isEmpty() ? null : entryAt(from);
+    }
+
+    @Override
+    public Entry<K, V> lastEntry() {
+        return isEmpty() ? null : entryAt(to - 1);
+    }
+
+    @Override
+    public Entry<K, V> pollFirstEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Entry<K, V> pollLastEntry() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        return Collections.unmodifiableNavigableMap(new TreeMap<>(this).descendingMap());
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        return Collections.unmodifiableNavigableMap(new TreeMap<>(this)).navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /**
+     * @throws IllegalArgumentException if <i>fromKey</i> is greater than <i>toKey</i>
+     */
+    @Override
+    public SortedArrayMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        if (compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException(String.format("fromKey %s is greater than toKey %s", fromKey, toKey));
+        }
+        int fromSearch = search(fromKey);
+        int toSearch = search(toKey);
+        int fromIndex = fromInclusive ? ceilingIndex(fromSearch) : higherIndex(fromSearch);
+        int toIndex = toInclusive ? floorIndex(toSearch) : lowerIndex(toSearch);
+        return range(fromIndex, toIndex);
+    }
+
+    @Override
+    public SortedArrayMap<K, V> headMap(K toKey, boolean inclusive) {
+        int toSearch = search(toKey);
+        return range(from, inclusive ? floorIndex(toSearch) : lowerIndex(toSearch));
+    }
+
+    @Override
+    public SortedArrayMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        int fromSearch = search(fromKey);
+        return range(inclusive ? ceilingIndex(fromSearch) : higherIndex(fromSearch), to - 1);
+    }
+
+    @Override
+    public SortedArrayMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedArrayMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedArrayMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<K, V>> iterator() {
+                return new Iterator<>() {
+
+                    private int index = from;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < to;
+                    }
+
+                    @Override
+                    public Entry<K, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return entryAt(index++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return to - from;
+            }
+        };
+    }
+
+    /**
+     * Internal method to create view of the map, limited by indexes of key array
+     *
+     * @param fromIndex first index (inclusive) or -1 if there is no such index
+     * @param toIndex   last index (inclusive) or -1 if there is no such index
+     * @return view of the map
+     */
+    private SortedArrayMap<K, V> range(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex < fromIndex) {
+            return new SortedArrayMap<>(keys, numericKeys, values, comparator, from, from);
+        }
+        return new SortedArrayMap<>(keys, numericKeys, values, comparator, fromIndex, toIndex + 1);
+    }
+
+    /**
+     * Internal method to search for key in key array. Key must be of key type of the map, so e.g. {@link Long} key
+     * is not found in map with {@link Integer} keys
+     *
+     * @param key key
+     * @return result of {@link Arrays#binarySearch(Object[], int, int, Object, Comparator)}
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private int search(Object key) {
+        return Arrays.binarySearch(keys, from, to, key, (Comparator) comparator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(K firstKey, K secondKey) {
+        return comparator != null
+                ? comparator.compare(firstKey, secondKey)
+                : ((Comparable<? super K>) firstKey).compareTo(secondKey);
+    }
+
+    private int numericSearch(long key) {
+        if (numericKeys == null) {
+            throw new UnsupportedOperationException("Keys of the map are not Integer or Long");
+        }
+        return Arrays.binarySearch(numericKeys, from, to, key);
+    }
+
+    /**
+     * Internal method to search for key of any type, e.g. in {@link #get(Object)}
+     *
+     * @param key key
+     * @return index of key or -1 if key is null or not comparable with keys of the map
+     */
+    private int searchAny(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        try {
+            return search(key);
+        } catch (ClassCastException e) {
+            return -1;
+        }
+    }
+
+    private int floorIndex(int searchResult) {
+        int index = searchResult >= 0 ? searchResult : -searchResult - 2;
+        return index >= from ? index : -1;
+    }
+
+    private int ceilingIndex(int searchResult) {
+        int index = searchResult >= 0 ? searchResult : -searchResult - 1;
+        return index < to ? index : -1;
+    }
+
+    private int lowerIndex(int searchResult) {
+        int index = searchResult >= 0 ? searchResult - 1 : -searchResult - 2;
+        return index >= from ? index : -1;
+    }
+
+    private int higherIndex(int searchResult) {
+        int index = searchResult >= 0 ? searchResult + 1 : -searchResult - 1;
+        return index < to ? index : -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(int index) {
+        return index < 0 ? null : (K) keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int index) {
+        return index < 0 ? null : (V) values[index];
+    }
+
+    private Entry<K, V> entryAt(int index) {
+        return index < 0 ? null : new SimpleImmutableEntry<>(keyAt(index), valueAt(index));
+    }
+}
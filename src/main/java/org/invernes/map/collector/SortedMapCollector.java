@@ -0,0 +1,23 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector}, which freezes collected entries into {@link SortedArrayMap}, e.g. to find strategy
+ * by the greatest threshold less than or equal to the given value. Sorted map is returned by
+ * {@link MapCollector#getSortedMap()}, keys are ordered by {@link MapCollector#getKeyComparator()}
+ * <p>
+ * Entries of collector marked with {@link LazyMapCollector} are not frozen, so lazy collector has no sorted map
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SortedMapCollector {
+
+}
@@ -0,0 +1,378 @@
+package org.invernes.map.collector;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable map with {@link String} keys, backed by minimal perfect hash table
+ * <p>
+ * Hashes of keys are distributed to buckets, and for each bucket a seed is chosen, with which hashes of bucket
+ * are placed into free slots of the table (hash and displace). Lookup takes one seed and one slot, without probing.
+ * Keys with the same {@link String#hashCode()}, e.g. <i>Aa</i> and <i>BB</i>, share a slot and are told apart
+ * by comparing chars or bytes
+ * <p>
+ * Besides {@link String}, keys are looked up by {@link CharSequence} and by UTF-8 encoded bytes of array or
+ * {@link ByteBuffer}, e.g. type name of inbound message, without decoding them into {@link String}. Hash of bytes
+ * is computed over raw bytes in a single pass and is equal to {@link String#hashCode()} of decoded key,
+ * so all lookups share the same table and don't allocate
+ *
+ * @param <V> value type of the map
+ * @see FrozenMaps
+ */
+public final class StringKeyFrozenMap<V> extends AbstractMap<String, V> {
+
+    private static final int MAX_SEED_ATTEMPTS_PER_KEY = 128;
+
+    private final int[] seeds;
+    private final int[] slotStarts;
+    private final String[] keys;
+    private final byte[][] encodedKeys;
+    private final Object[] values;
+
+    private StringKeyFrozenMap(int[] seeds, int[] slotStarts, String[] keys, Object[] values) {
+        this.seeds = seeds;
+        this.slotStarts = slotStarts;
+        this.keys = keys;
+        this.encodedKeys = new byte[keys.length][];
+        this.values = values;
+        for (int slot = 0; slot < keys.length; slot++) {
+            byte[] encodedKey = keys[slot].getBytes(StandardCharsets.UTF_8);
+            // key with unpaired surrogate is not encoded losslessly, so it is found only by chars
+            encodedKeys[slot] = keys[slot].equals(new String(encodedKey, StandardCharsets.UTF_8)) ? encodedKey : null;
+        }
+    }
+
+    /**
+     * Method to freeze entries with non-null values into map
+     *
+     * @param entries entries to freeze
+     * @param <V>     value type of the map
+     * @return frozen map or null if minimal perfect hash function is not found for hashes of keys
+     */
+    static <V> StringKeyFrozenMap<V> of(Map<String, V> entries) {
+        Map<Integer, List<String>> keysByHash = new LinkedHashMap<>();
+        for (String key : entries.keySet()) {
+            keysByHash.computeIfAbsent(key.hashCode(), hash -> new ArrayList<>(1)).add(key);
+        }
+        int slotCount = keysByHash.size();
+        List<List<Integer>> buckets = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            buckets.add(new ArrayList<>(2));
+        }
+        for (int hash : keysByHash.keySet()) {
+            buckets.get(bucketIndex(hash, slotCount)).add(hash);
+        }
+        Integer[] bucketOrder = new Integer[slotCount];
+        Arrays.setAll(bucketOrder, i -> i);
+        Arrays.sort(bucketOrder, Comparator.comparingInt((Integer bucket) -> buckets.get(bucket).size()).reversed());
+
+        int[] seeds = new int[slotCount];
+        Integer[] slotHashes = new Integer[slotCount];
+        int[] bucketSlots = new int[slotCount];
+        int maxSeedAttempts = MAX_SEED_ATTEMPTS_PER_KEY * slotCount;
+        for (int bucket : bucketOrder) {
+            List<Integer> bucketHashes = buckets.get(bucket);
+            if (bucketHashes.isEmpty()) {
+                break;
+            }
+            int seed = findSeed(bucketHashes, slotHashes, bucketSlots, maxSeedAttempts);
+            if (seed == 0) {
+                return null;
+            }
+            seeds[bucket] = seed;
+            for (int i = 0; i < bucketHashes.size(); i++) {
+                slotHashes[bucketSlots[i]] = bucketHashes.get(i);
+            }
+        }
+
+        int[] slotStarts = new int[slotCount + 1];
+        String[] keys = new String[entries.size()];
+        Object[] values = new Object[entries.size()];
+        int index = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            slotStarts[slot] = index;
+            for (String key : keysByHash.get(slotHashes[slot])) {
+                keys[index] = key;
+                values[index] = entries.get(key);
+                index++;
+            }
+        }
+        slotStarts[slotCount] = index;
+        return new StringKeyFrozenMap<>(seeds, slotStarts, keys, values);
+    }
+
+    /**
+     * Internal method to find seed, with which all hashes of bucket are placed into different free slots
+     *
+     * @param bucketHashes    hashes of keys of bucket
+     * @param slotHashes      slots of the table
+     * @param bucketSlots     array to write slots of hashes of bucket to
+     * @param maxSeedAttempts max number of seeds to try
+     * @return mixed seed or 0 if seed is not found
+     */
+    private static int findSeed(List<Integer> bucketHashes, Integer[] slotHashes, int[] bucketSlots, int maxSeedAttempts) {
+        for (int attempt = 1; attempt <= maxSeedAttempts; attempt++) {
+            int seed = FrozenMaps.mix(attempt);
+            if (seed == 0) {
+                continue;
+            }
+            if (placeBucket(bucketHashes, slotHashes, bucketSlots, seed)) {
+                return seed;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean placeBucket(List<Integer> bucketHashes, Integer[] slotHashes, int[] bucketSlots, int seed) {
+        for (int i = 0; i < bucketHashes.size(); i++) {
+            int slot = slotIndex(bucketHashes.get(i), seed, slotHashes.length);
+            if (slotHashes[slot] != null) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (bucketSlots[j] == slot) {
+                    return false;
+                }
+            }
+            bucketSlots[i] = slot;
+        }
+        return true;
+    }
+
+    private static int bucketIndex(int hash, int size) {
+        return FrozenMaps.reduce(FrozenMaps.mix(hash), size);
+    }
+
+    private static int slotIndex(int hash, int seed, int size) {
+        return FrozenMaps.reduce(FrozenMaps.mix(hash ^ seed), size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (!(key instanceof String stringKey)) {
+            return null;
+        }
+        int slot = slotOf(stringKey.hashCode());
+        for (int i = slotStarts[slot]; i < slotStarts[slot + 1]; i++) {
+            if (stringKey.equals(keys[i])) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to get value by key, given as sequence of chars, e.g. {@link StringBuilder} or {@link java.nio.CharBuffer}
+     *
+     * @param key chars of key
+     * @return value or null if key is not found
+     */
+    @SuppressWarnings("unchecked")
+    public V get(@NonNull CharSequence key) {
+        if (key instanceof String stringKey) {
+            return get((Object) stringKey);
+        }
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            hash = 31 * hash + key.charAt(i);
+        }
+        int slot = slotOf(hash);
+        for (int i = slotStarts[slot]; i < slotStarts[slot + 1]; i++) {
+            if (keys[i].contentEquals(key)) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to get value by UTF-8 encoded key
+     *
+     * @param bytes  array, which contains key
+     * @param offset index of the first byte of key
+     * @param length number of bytes of key
+     * @return value or null if key is not found or bytes are not valid UTF-8
+     * @throws IndexOutOfBoundsException if range is out of bounds of array
+     */
+    @SuppressWarnings("unchecked")
+    public V get(@NonNull byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        int hash = 0;
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int b = bytes[i++];
+            if (b >= 0) {
+                hash = 31 * hash + b;
+                continue;
+            }
+            int continuationCount = continuationCount(b);
+            if (continuationCount == 0 || end - i < continuationCount) {
+                return null;
+            }
+            int codePoint = b & (0x3F >> continuationCount);
+            for (int j = 0; j < continuationCount; j++) {
+                codePoint = (codePoint << 6) | (bytes[i++] & 0x3F);
+            }
+            hash = hashCodePoint(hash, codePoint);
+        }
+        int slot = slotOf(hash);
+        for (int k = slotStarts[slot]; k < slotStarts[slot + 1]; k++) {
+            byte[] encodedKey = encodedKeys[k];
+            if (encodedKey != null && Arrays.equals(encodedKey, 0, encodedKey.length, bytes, offset, end)) {
+                return (V) values[k];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to get value by UTF-8 encoded key. Position and limit of buffer are not changed
+     *
+     * @param buffer buffer, which contains key
+     * @param offset absolute index of the first byte of key
+     * @param length number of bytes of key
+     * @return value or null if key is not found or bytes are not valid UTF-8
+     * @throws IndexOutOfBoundsException if range is out of bounds of buffer limit
+     */
+    @SuppressWarnings("unchecked")
+    public V get(@NonNull ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return get(buffer.array(), buffer.arrayOffset() + Objects.checkFromIndexSize(offset, length, buffer.limit()), length);
+        }
+        Objects.checkFromIndexSize(offset, length, buffer.limit());
+        int hash = 0;
+        int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            int b = buffer.get(i++);
+            if (b >= 0) {
+                hash = 31 * hash + b;
+                continue;
+            }
+            int continuationCount = continuationCount(b);
+            if (continuationCount == 0 || end - i < continuationCount) {
+                return null;
+            }
+            int codePoint = b & (0x3F >> continuationCount);
+            for (int j = 0; j < continuationCount; j++) {
+                codePoint = (codePoint << 6) | (buffer.get(i++) & 0x3F);
+            }
+            hash = hashCodePoint(hash, codePoint);
+        }
+        int slot = slotOf(hash);
+        for (int k = slotStarts[slot]; k < slotStarts[slot + 1]; k++) {
+            if (isEncodedKey(encodedKeys[k], buffer, offset, length)) {
+                return (V) values[k];
+            }
+        }
+        return null;
+    }
+
+    private int slotOf(int hash) {
+        return slotIndex(hash, seeds[bucketIndex(hash, seeds.length)], seeds.length);
+    }
+
+    private static boolean isEncodedKey(byte[] encodedKey, ByteBuffer buffer, int offset, int length) {
+        if (encodedKey == null || encodedKey.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (encodedKey[i] != buffer.get(offset + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal method to get number of continuation bytes of UTF-8 sequence by its leading byte
+     *
+     * @param leadingByte negative leading byte of sequence
+     * @return number of continuation bytes or 0 if byte can't start sequence
+     */
+    private static int continuationCount(int leadingByte) {
+        if ((leadingByte & 0xE0) == 0xC0) {
+            return 1;
+        }
+        if ((leadingByte & 0xF0) == 0xE0) {
+            return 2;
+        }
+        if ((leadingByte & 0xF8) == 0xF0) {
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * Internal method to continue {@link String#hashCode()} with UTF-16 chars of code point
+     */
+    private static int hashCodePoint(int hash, int codePoint) {
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+            return 31 * hash + codePoint;
+        }
+        return 31 * (31 * hash + Character.highSurrogate(codePoint)) + Character.lowSurrogate(codePoint);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    @NonNull
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            @NonNull
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<>() {
+
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Entry<String, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, V> entry = new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package org.invernes.map.collector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolver of values of map with {@link Class} keys by the most specific registered supertype of class,
+ * see {@link TypeKeyedMapCollector}. Resolved values are memoized per class in {@link ClassValue}
+ *
+ * @param <V> value type of the map
+ */
+final class TypeHierarchyResolver<V> {
+
+    private static final Object NOT_FOUND = new Object();
+
+    private final Map<?, V> entries;
+
+    private final ClassValue<Object> resolvedValues = new ClassValue<>() {
+
+        @Override
+        protected Object computeValue(Class<?> type) {
+            Class<?> registeredType = findMostSpecificRegisteredType(type);
+            return registeredType == null ? NOT_FOUND : entries.get(registeredType);
+        }
+    };
+
+    /**
+     * @param entries frozen map with {@link Class} keys
+     * @param collectorName name of collector class to report keys, which are not classes
+     * @throws RuntimeException if some key of the map is not {@link Class}
+     */
+    TypeHierarchyResolver(Map<?, V> entries, String collectorName) {
+        for (Object key : entries.keySet()) {
+            if (!(key instanceof Class<?>)) {
+                throw new RuntimeException(String.format("Key %s of type-keyed collector %s is not a class", key, collectorName));
+            }
+        }
+        this.entries = entries;
+    }
+
+    /**
+     * @param type class to resolve
+     * @return value of the most specific registered supertype of class or null if there is no such supertype
+     */
+    @SuppressWarnings("unchecked")
+    V resolve(Class<?> type) {
+        Object resolvedValue = resolvedValues.get(type);
+        return resolvedValue == NOT_FOUND ? null : (V) resolvedValue;
+    }
+
+    /**
+     * Internal method to find the most specific registered supertype of class
+     *
+     * @param type class to resolve
+     * @return registered supertype or null if there is no such supertype
+     */
+    private Class<?> findMostSpecificRegisteredType(Class<?> type) {
+        for (Class<?> superclass = type; superclass != null && superclass != Object.class; superclass = superclass.getSuperclass()) {
+            if (entries.containsKey(superclass)) {
+                return superclass;
+            }
+        }
+        List<Class<?>> registeredInterfaces = new ArrayList<>();
+        for (Class<?> anInterface : getInterfacesBreadthFirst(type)) {
+            if (entries.containsKey(anInterface)) {
+                registeredInterfaces.add(anInterface);
+            }
+        }
+        for (Class<?> candidate : registeredInterfaces) {
+            boolean hasMoreSpecificCandidate = false;
+            for (Class<?> otherCandidate : registeredInterfaces) {
+                if (otherCandidate != candidate && candidate.isAssignableFrom(otherCandidate)) {
+                    hasMoreSpecificCandidate = true;
+                    break;
+                }
+            }
+            if (!hasMoreSpecificCandidate) {
+                return candidate;
+            }
+        }
+        return entries.containsKey(Object.class) ? Object.class : null;
+    }
+
+    /**
+     * Internal method to get all interfaces of class: interfaces of the class itself with their superinterfaces,
+     * then interfaces of superclasses
+     *
+     * @param type class
+     * @return interfaces in breadth-first order
+     */
+    private static Set<Class<?>> getInterfacesBreadthFirst(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> superclass = type; superclass != null; superclass = superclass.getSuperclass()) {
+            Deque<Class<?>> queue = new ArrayDeque<>();
+            if (superclass.isInterface()) {
+                queue.add(superclass);
+            } else {
+                Collections.addAll(queue, superclass.getInterfaces());
+            }
+            while (!queue.isEmpty()) {
+                Class<?> anInterface = queue.poll();
+                if (interfaces.add(anInterface)) {
+                    Collections.addAll(queue, anInterface.getInterfaces());
+                }
+            }
+        }
+        return interfaces;
+    }
+}
@@ -0,0 +1,34 @@
+package org.invernes.map.collector;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks {@link MapCollector} with {@link Class} keys, in which bean is also found by subclasses and implementations
+ * of its key with {@link MapCollector#getByType(Class)}
+ * <p>
+ * The most specific registered key is chosen as follows:
+ * <p>
+ * 1. The class itself, then its superclasses, nearest first, except {@link Object}
+ * <p>
+ * 2. Interfaces of the class and its superclasses. Interface, which extends another registered interface,
+ * is chosen over it. If several unrelated interfaces are registered, the first one in breadth-first order is chosen:
+ * interfaces of the class in declaration order, then their superinterfaces, then interfaces of superclasses
+ * <p>
+ * 3. {@link Object}
+ * <p>
+ * Resolved bean is cached per class in {@link ClassValue}, so repeated lookups by the same class cost a single lookup
+ * without locking. Entries of collector marked with {@link LazyMapCollector} are not frozen, so lazy collector
+ * can't be type-keyed
+ */
+@Inherited
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface TypeKeyedMapCollector {
+
+}
@@ -0,0 +1,45 @@
+package org.invernes.map.collector;
+
+import java.util.AbstractList;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Unmodifiable list of values of one key of {@link MultiMapCollector}, backed by range of array,
+ * shared by all keys of the map
+ *
+ * @param <V> value type of the list
+ */
+final class ValueSlice<V> extends AbstractList<V> implements RandomAccess {
+
+    private final Object[] values;
+    private final int from;
+    private final int to;
+
+    ValueSlice(Object[] values, int from, int to) {
+        this.values = values;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int index) {
+        Objects.checkIndex(index, to - from);
+        return (V) values[from + index];
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super V> action) {
+        for (int i = from; i < to; i++) {
+            action.accept((V) values[i]);
+        }
+    }
+}
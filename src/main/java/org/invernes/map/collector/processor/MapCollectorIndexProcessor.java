@@ -0,0 +1,322 @@
+package org.invernes.map.collector.processor;
+
+import org.invernes.map.collector.IndexedMapCollector;
+import org.invernes.map.collector.MapCollectorIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor, that generates {@link MapCollectorIndex} for each class marked with {@link IndexedMapCollector}
+ * <p>
+ * Index contains key to bean name assignments of all {@code @Bean} methods and component classes,
+ * which are compiled together with the collector, marked with collect annotation and have type of collector's value.
+ * Conditional beans are indexed too, at runtime collector skips the ones, which are not registered
+ * <p>
+ * Processor is not registered as a service, so it has to be enabled explicitly, e.g. with
+ * <i>annotationProcessors</i> of maven-compiler-plugin
+ */
+@SupportedAnnotationTypes("org.invernes.map.collector.IndexedMapCollector")
+public class MapCollectorIndexProcessor extends AbstractProcessor {
+
+    private static final String BEAN_ANNOTATION = "org.springframework.context.annotation.Bean";
+    private static final String COMPONENT_ANNOTATION = "org.springframework.stereotype.Component";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element collector : roundEnv.getElementsAnnotatedWith(IndexedMapCollector.class)) {
+            if (collector.getKind() != ElementKind.CLASS) {
+                error(collector, "@IndexedMapCollector can be used only on classes");
+                continue;
+            }
+            try {
+                generateIndex((TypeElement) collector, roundEnv);
+            } catch (IndexGenerationException e) {
+                error(e.element, e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Internal method to generate index for collector class
+     *
+     * @param collector collector class
+     * @param roundEnv  environment of current processing round
+     */
+    private void generateIndex(TypeElement collector, RoundEnvironment roundEnv) {
+        AnnotationMirror indexedMapCollector = getAnnotationMirror(collector, IndexedMapCollector.class.getName());
+        TypeElement collectAnnotation = (TypeElement) ((DeclaredType) getAttribute(indexedMapCollector, "annotation").getValue()).asElement();
+        String keyAttribute = (String) getAttribute(indexedMapCollector, "keyAttribute").getValue();
+        List<? extends TypeMirror> collectorGenerics = getCollectorGenerics(collector);
+        TypeMirror keyType = collectorGenerics.get(0);
+        TypeMirror valueType = types().erasure(collectorGenerics.get(1));
+
+        Map<String, String> beanNamesByKey = new LinkedHashMap<>();
+        for (Element annotatedElement : roundEnv.getElementsAnnotatedWith(collectAnnotation)) {
+            TypeMirror beanType = getBeanType(annotatedElement);
+            if (beanType == null || !types().isAssignable(types().erasure(beanType), valueType)) {
+                continue;
+            }
+            String beanName = getBeanName(annotatedElement);
+            AnnotationMirror annotationOnBean = getAnnotationMirror(annotatedElement, collectAnnotation.getQualifiedName().toString());
+            for (AnnotationValue key : getKeys(annotationOnBean, keyAttribute, annotatedElement)) {
+                String keyExpression = toKeyExpression(key, keyType, annotatedElement);
+                String previousBeanName = beanNamesByKey.put(keyExpression, beanName);
+                if (previousBeanName != null) {
+                    throw new IndexGenerationException(annotatedElement, String.format(
+                            "Key %s of bean with name %s is already used by bean with name %s", keyExpression, beanName, previousBeanName));
+                }
+            }
+        }
+        writeIndex(collector, keyType, beanNamesByKey);
+    }
+
+    /**
+     * Internal method to get generic parameters of collector's superclass
+     *
+     * @param collector collector class
+     * @return key and value types of the collector
+     * @implSpec Superclass of collector should be generic
+     * Example: SomeClassMapCollector extends MapCollector&lt;Integer, SomeClass&gt;
+     */
+    private List<? extends TypeMirror> getCollectorGenerics(TypeElement collector) {
+        TypeMirror superclass = collector.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED || ((DeclaredType) superclass).getTypeArguments().size() < 2) {
+            throw new IndexGenerationException(collector, "Superclass of @IndexedMapCollector should be MapCollector<K, V> with specific generic parameters");
+        }
+        return ((DeclaredType) superclass).getTypeArguments();
+    }
+
+    /**
+     * Internal method to get type of bean, defined by annotated element
+     *
+     * @param annotatedElement {@code @Bean} method or component class
+     * @return type of bean or null if element doesn't define a bean
+     */
+    private TypeMirror getBeanType(Element annotatedElement) {
+        if (annotatedElement.getKind() == ElementKind.METHOD) {
+            if (getAnnotationMirror(annotatedElement, BEAN_ANNOTATION) == null) {
+                return null;
+            }
+            return ((ExecutableElement) annotatedElement).getReturnType();
+        }
+        if (annotatedElement.getKind() == ElementKind.CLASS) {
+            return annotatedElement.asType();
+        }
+        return null;
+    }
+
+    /**
+     * Internal method to get name of bean, defined by annotated element, the same way Spring does
+     *
+     * @param annotatedElement {@code @Bean} method or component class
+     * @return name of bean
+     */
+    private String getBeanName(Element annotatedElement) {
+        if (annotatedElement.getKind() == ElementKind.METHOD) {
+            AnnotationMirror bean = getAnnotationMirror(annotatedElement, BEAN_ANNOTATION);
+            for (String attribute : List.of("name", "value")) {
+                AnnotationValue names = bean.getElementValues().entrySet().stream()
+                        .filter(entry -> entry.getKey().getSimpleName().contentEquals(attribute))
+                        .map(Map.Entry::getValue)
+                        .findFirst()
+                        .orElse(null);
+                if (names != null && !((List<?>) names.getValue()).isEmpty()) {
+                    return (String) ((AnnotationValue) ((List<?>) names.getValue()).get(0)).getValue();
+                }
+            }
+            return annotatedElement.getSimpleName().toString();
+        }
+        for (AnnotationMirror stereotype : annotatedElement.getAnnotationMirrors()) {
+            Element stereotypeElement = stereotype.getAnnotationType().asElement();
+            boolean isComponent = ((TypeElement) stereotypeElement).getQualifiedName().contentEquals(COMPONENT_ANNOTATION)
+                    || getAnnotationMirror(stereotypeElement, COMPONENT_ANNOTATION) != null;
+            if (isComponent) {
+                for (var attribute : stereotype.getElementValues().entrySet()) {
+                    if (attribute.getKey().getSimpleName().contentEquals("value") && !attribute.getValue().getValue().toString().isEmpty()) {
+                        return attribute.getValue().getValue().toString();
+                    }
+                }
+            }
+        }
+        TypeElement type = (TypeElement) annotatedElement;
+        PackageElement packageElement = elements().getPackageOf(type);
+        String qualifiedName = type.getQualifiedName().toString();
+        String shortName = packageElement.isUnnamed() ? qualifiedName : qualifiedName.substring(packageElement.getQualifiedName().length() + 1);
+        return Introspector.decapitalize(shortName);
+    }
+
+    /**
+     * Internal method to get keys of bean from collect annotation
+     *
+     * @param annotationOnBean collect annotation on bean
+     * @param keyAttribute     name of attribute, which defines keys
+     * @param annotatedElement annotated element
+     * @return list of keys
+     */
+    private List<? extends AnnotationValue> getKeys(AnnotationMirror annotationOnBean, String keyAttribute, Element annotatedElement) {
+        for (var attribute : elements().getElementValuesWithDefaults(annotationOnBean).entrySet()) {
+            if (attribute.getKey().getSimpleName().contentEquals(keyAttribute)) {
+                Object value = attribute.getValue().getValue();
+                if (value instanceof List<?> values) {
+                    @SuppressWarnings("unchecked")
+                    List<? extends AnnotationValue> keys = (List<? extends AnnotationValue>) values;
+                    return keys;
+                }
+                return List.of(attribute.getValue());
+            }
+        }
+        throw new IndexGenerationException(annotatedElement, String.format("No attribute %s found in annotation %s",
+                keyAttribute, annotationOnBean.getAnnotationType()));
+    }
+
+    /**
+     * Internal method to convert key from annotation to Java expression
+     *
+     * @param key              value of key attribute
+     * @param keyType          key type of the collector
+     * @param annotatedElement annotated element
+     * @return Java expression, which evaluates to key
+     */
+    private String toKeyExpression(AnnotationValue key, TypeMirror keyType, Element annotatedElement) {
+        Object value = key.getValue();
+        TypeMirror valueType;
+        String expression;
+        if (value instanceof VariableElement enumConstant) {
+            valueType = enumConstant.asType();
+            expression = types().erasure(valueType) + "." + enumConstant.getSimpleName();
+        } else if (value instanceof TypeMirror type) {
+            valueType = types().getDeclaredType(elements().getTypeElement(Class.class.getName()), types().getWildcardType(null, null));
+            expression = types().erasure(type) + ".class";
+        } else if (value instanceof String || value instanceof Number || value instanceof Character || value instanceof Boolean) {
+            valueType = elements().getTypeElement(value.getClass().getName()).asType();
+            expression = elements().getConstantExpression(value);
+        } else {
+            throw new IndexGenerationException(annotatedElement, String.format("Unsupported type of key %s", key));
+        }
+        if (!types().isAssignable(valueType, keyType)) {
+            throw new IndexGenerationException(annotatedElement, String.format("Key %s is not assignable to key type %s of collector",
+                    expression, keyType));
+        }
+        return expression;
+    }
+
+    /**
+     * Internal method to write source file of index
+     *
+     * @param collector      collector class
+     * @param keyType        key type of the collector
+     * @param beanNamesByKey bean names with key expressions as keys
+     */
+    private void writeIndex(TypeElement collector, TypeMirror keyType, Map<String, String> beanNamesByKey) {
+        String indexClassName = MapCollectorIndex.getIndexClassName(elements().getBinaryName(collector).toString());
+        PackageElement packageElement = elements().getPackageOf(collector);
+        String indexSimpleName = packageElement.isUnnamed() ? indexClassName : indexClassName.substring(packageElement.getQualifiedName().length() + 1);
+        String mapType = String.format("java.util.Map<%s, java.lang.String>", keyType);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageElement.isUnnamed()) {
+            source.append("package ").append(packageElement.getQualifiedName()).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+                .append("public final class ").append(indexSimpleName)
+                .append(" implements ").append(MapCollectorIndex.class.getName()).append('<').append(keyType).append("> {\n\n")
+                .append("    private static final ").append(mapType).append(" BEAN_NAMES_BY_KEY = java.util.Map.ofEntries(");
+        String separator = "\n";
+        for (var beanNameEntry : beanNamesByKey.entrySet()) {
+            source.append(separator).append("            java.util.Map.entry(").append(beanNameEntry.getKey()).append(", ")
+                    .append(elements().getConstantExpression(beanNameEntry.getValue())).append(')');
+            separator = ",\n";
+        }
+        source.append(");\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(mapType).append(" getBeanNamesByKey() {\n")
+                .append("        return BEAN_NAMES_BY_KEY;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(indexClassName, collector);
+            try (Writer writer = sourceFile.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            throw new IndexGenerationException(collector, String.format("Failed to write index %s: %s", indexClassName, e.getMessage()));
+        }
+    }
+
+    private AnnotationMirror getAnnotationMirror(Element element, String annotationName) {
+        for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotationMirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return annotationMirror;
+            }
+        }
+        return null;
+    }
+
+    private AnnotationValue getAttribute(AnnotationMirror annotationMirror, String attribute) {
+        for (var attributeEntry : annotationMirror.getElementValues().entrySet()) {
+            if (attributeEntry.getKey().getSimpleName().contentEquals(attribute)) {
+                return attributeEntry.getValue();
+            }
+        }
+        throw new IllegalStateException(String.format("No attribute %s found in %s", attribute, annotationMirror));
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private Elements elements() {
+        return processingEnv.getElementUtils();
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+
+    /**
+     * Exception, reported by processor as compilation error on <i>element</i>
+     */
+    private static class IndexGenerationException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Element element;
+
+        IndexGenerationException(Element element, String message) {
+            super(message);
+            this.element = element;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestClassToCollect;
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestCollectAnnotation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class AnnotationMapCollector")
+class AnnotationMapCollectorTest {
+
+    @Test
+    @DisplayName("Case when key attribute is array-valued. Bean is put into map by each key")
+    void setBeanFactory_ArrayValuedKeyAttribute() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(ArrayKeyTestConfiguration.class)) {
+            var actualMap = applicationContext.getBean(ArrayKeyTestMapCollector.class).getMap();
+
+            Map<Integer, Object> expectedMap = Map.of(
+                    1, applicationContext.getBean("instance1"),
+                    2, applicationContext.getBean("instance2"),
+                    3, applicationContext.getBean("instance2")
+            );
+            assertEquals(expectedMap, actualMap);
+        }
+    }
+
+    @Test
+    @DisplayName("Case when key attribute is single-valued. Bean is put into map by the key")
+    void setBeanFactory_SingleValuedKeyAttribute() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(SingleKeyTestConfiguration.class)) {
+            var actualMap = applicationContext.getBean(SingleKeyTestMapCollector.class).getMap();
+
+            Map<String, Object> expectedMap = Map.of(
+                    "first", applicationContext.getBean("namedInstance1"),
+                    "second", applicationContext.getBean("namedInstance2")
+            );
+            assertEquals(expectedMap, actualMap);
+        }
+    }
+
+    @Test
+    @DisplayName("Case when the same key is used by several beans. Exception thrown")
+    void setBeanFactory_DuplicateKey() {
+        var exception = assertThrows(BeanCreationException.class,
+                () -> new AnnotationConfigApplicationContext(DuplicateKeyTestConfiguration.class));
+
+        assertEquals("Key 1 of bean with name duplicateInstance2 is already used by bean with name duplicateInstance1",
+                exception.getMostSpecificCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Case when the same key is used by several beans collected without bean names by key. Exception thrown")
+    void putMapEntries_DuplicateKey() {
+        var exception = assertThrows(BeanCreationException.class,
+                () -> new AnnotationConfigApplicationContext(AnnotatedBeansDuplicateKeyTestConfiguration.class));
+
+        Set<String> expectedMessages = Set.of(
+                "Key 1 of bean with name duplicateInstance2 is already used by bean with name duplicateInstance1",
+                "Key 1 of bean with name duplicateInstance1 is already used by bean with name duplicateInstance2"
+        );
+        assertTrue(expectedMessages.contains(exception.getMostSpecificCause().getMessage()));
+    }
+
+    @Test
+    @DisplayName("Case when key has type different from key type of the map. Exception thrown")
+    void setBeanFactory_KeyOfWrongType() {
+        var exception = assertThrows(BeanCreationException.class,
+                () -> new AnnotationConfigApplicationContext(WrongKeyTypeTestConfiguration.class));
+
+        assertEquals("Key first of bean with name namedInstance1 is not of type java.lang.Integer",
+                exception.getMostSpecificCause().getMessage());
+    }
+
+    @Test
+    @DisplayName("Case when annotation has no attribute with specified name. Exception thrown")
+    void constructor_NoKeyAttribute() {
+        var exception = assertThrows(RuntimeException.class, () -> new UnknownAttributeTestMapCollector());
+
+        assertEquals(String.format("Annotation %s has no attribute names", NamedTestCollectAnnotation.class.getName()),
+                exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Case when collector class declares another annotation. Exception thrown")
+    void constructor_OtherCollectedAnnotation() {
+        var exception = assertThrows(RuntimeException.class, () -> new OtherCollectedAnnotationTestMapCollector());
+
+        assertEquals(String.format("Collector %s declares annotation %s, but collects beans with annotation %s",
+                OtherCollectedAnnotationTestMapCollector.class.getName(), TestCollectAnnotation.class.getName(),
+                NamedTestCollectAnnotation.class.getName()), exception.getMessage());
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @interface NamedTestCollectAnnotation {
+        String name();
+    }
+
+    static class ArrayKeyTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        ArrayKeyTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+    }
+
+    static class SingleKeyTestMapCollector extends AnnotationMapCollector<String, TestClassToCollect> {
+
+        SingleKeyTestMapCollector() {
+            super(NamedTestCollectAnnotation.class, "name");
+        }
+    }
+
+    static class AnnotatedBeansTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        AnnotatedBeansTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+
+        @Override
+        protected Map<Integer, String> getBeanNamesByKey(BeanFactory beanFactory) {
+            return null;
+        }
+    }
+
+    static class WrongKeyTypeTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        WrongKeyTypeTestMapCollector() {
+            super(NamedTestCollectAnnotation.class, "name");
+        }
+    }
+
+    static class UnknownAttributeTestMapCollector extends AnnotationMapCollector<String, TestClassToCollect> {
+
+        UnknownAttributeTestMapCollector() {
+            super(NamedTestCollectAnnotation.class, "names");
+        }
+    }
+
+    @CollectedAnnotation(TestCollectAnnotation.class)
+    static class OtherCollectedAnnotationTestMapCollector extends AnnotationMapCollector<String, TestClassToCollect> {
+
+        OtherCollectedAnnotationTestMapCollector() {
+            super(NamedTestCollectAnnotation.class, "name");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ArrayKeyTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect instance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 3})
+        public TestClassToCollect instance2() {
+            return new TestClassToCollect();
+        }
+
+        // no annotation
+        @Bean
+        public TestClassToCollect instance3() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public ArrayKeyTestMapCollector arrayKeyTestMapCollector() {
+            return new ArrayKeyTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class NamedInstancesTestConfiguration {
+
+        @Bean
+        @NamedTestCollectAnnotation(name = "first")
+        public TestClassToCollect namedInstance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @NamedTestCollectAnnotation(name = "second")
+        public TestClassToCollect namedInstance2() {
+            return new TestClassToCollect();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class SingleKeyTestConfiguration extends NamedInstancesTestConfiguration {
+
+        @Bean
+        public SingleKeyTestMapCollector singleKeyTestMapCollector() {
+            return new SingleKeyTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class WrongKeyTypeTestConfiguration extends NamedInstancesTestConfiguration {
+
+        @Bean
+        public WrongKeyTypeTestMapCollector wrongKeyTypeTestMapCollector() {
+            return new WrongKeyTypeTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class AnnotatedBeansDuplicateKeyTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect duplicateInstance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 1})
+        public TestClassToCollect duplicateInstance2() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public AnnotatedBeansTestMapCollector annotatedBeansTestMapCollector() {
+            return new AnnotatedBeansTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class DuplicateKeyTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect duplicateInstance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 1})
+        public TestClassToCollect duplicateInstance2() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public ArrayKeyTestMapCollector arrayKeyTestMapCollector() {
+            return new ArrayKeyTestMapCollector();
+        }
+    }
+}
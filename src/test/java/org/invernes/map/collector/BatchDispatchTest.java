@@ -0,0 +1,55 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class BatchDispatch")
+class BatchDispatchTest {
+
+    private static final Map<Integer, String> HANDLERS = Map.of(1, "odd", 3, "odd", 2, "even");
+
+    @Test
+    @DisplayName("Case when items are dispatched. Items are grouped by bean in order of the batch, unmatched items are reported by key")
+    void of_GroupsAndUnmatchedItems() {
+        var sut = BatchDispatch.of(HANDLERS, List.of("1a", "2a", "3a", "5a", "1b", "5b", "4a"),
+                (String item) -> Character.getNumericValue(item.charAt(0)));
+
+        assertEquals(List.of(new BatchDispatch.Group<>("odd", List.of("1a", "3a", "1b")),
+                new BatchDispatch.Group<>("even", List.of("2a"))), sut.getGroups());
+        assertEquals(Map.of(5, List.of("5a", "5b"), 4, List.of("4a")), sut.getUnmatchedItems());
+        assertEquals(List.of(5, 4), List.copyOf(sut.getUnmatchedItems().keySet()));
+
+        List<String> invocations = new ArrayList<>();
+        sut.invoke((handler, items) -> invocations.add(handler + items));
+        assertEquals(List.of("odd[1a, 3a, 1b]", "even[2a]"), invocations);
+    }
+
+    @Test
+    @DisplayName("Case when groups are invoked concurrently. Each group is invoked, failure of the first group is thrown")
+    void invokeConcurrently_FailureOfFirstGroup() {
+        var sut = BatchDispatch.of(HANDLERS, List.of(1, 2, 3), (Integer item) -> item);
+        Map<String, List<Integer>> invocations = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            sut.invokeConcurrently(invocations::put, executor);
+            assertEquals(Map.of("odd", List.of(1, 3), "even", List.of(2)), invocations);
+
+            var exception = assertThrows(IllegalStateException.class, () -> sut.invokeConcurrently((handler, items) -> {
+                throw new IllegalStateException(handler);
+            }, executor));
+            assertEquals("odd", exception.getMessage());
+            assertEquals("even", exception.getSuppressed()[0].getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestClassToCollect;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class CompositeKeyMapCollector")
+class CompositeKeyMapCollectorTest {
+
+    @Test
+    @DisplayName("Case when beans are annotated with several key attributes. Beans are put into map by each combination of keys")
+    void setBeanFactory_CompositeKeys() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(CompositeKeyTestConfiguration.class)) {
+            var actualMap = applicationContext.getBean(CompositeKeyTestMapCollector.class).getMap();
+
+            Object specific = applicationContext.getBean("specific");
+            Object anyVersion = applicationContext.getBean("anyVersion");
+            Object anyTenant = applicationContext.getBean("anyTenant");
+            Map<List<Object>, Object> expectedMap = Map.of(
+                    List.of(1, "order", 2), specific,
+                    List.of(1, "order", 3), specific,
+                    List.of(1, "order", -1), anyVersion,
+                    List.of(-1, "payment", 1), anyTenant
+            );
+            assertEquals(expectedMap, actualMap);
+        }
+    }
+
+    @Test
+    @DisplayName("Case when beans are looked up by components. Concrete components take precedence over wildcards")
+    void getCompositeIndex_WildcardFallback() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(CompositeKeyTestConfiguration.class)) {
+            var compositeIndex = applicationContext.getBean(CompositeKeyTestMapCollector.class).getCompositeIndex();
+
+            Object specific = applicationContext.getBean("specific");
+            Object anyVersion = applicationContext.getBean("anyVersion");
+            Object anyTenant = applicationContext.getBean("anyTenant");
+            assertEquals(3, compositeIndex.getDimensions());
+            assertSame(specific, compositeIndex.get(1, "order", 2));
+            assertSame(specific, compositeIndex.next(1).next("order").get(3));
+            assertSame(anyVersion, compositeIndex.get(1, "order", 4));
+            assertSame(anyTenant, compositeIndex.get(7, "payment", 1));
+            assertSame(anyTenant, compositeIndex.get((Object) 1, "payment", 1));
+            assertNull(compositeIndex.get(7, "payment", 2));
+            assertNull(compositeIndex.get(2, "order", 2));
+            assertNull(compositeIndex.get(1, "refund", 2));
+            assertThrows(RuntimeException.class, () -> compositeIndex.get(1));
+            assertThrows(RuntimeException.class, () -> compositeIndex.next(1).next("order").next(2));
+        }
+    }
+
+    @Test
+    @DisplayName("Case when hierarchical collector is in parent and child contexts. Child index contains entries of parent")
+    void getCompositeIndex_ChildContextIndexesParentEntries() {
+        try (var parentContext = new AnnotationConfigApplicationContext(HierarchicalParentTestConfiguration.class);
+             var childContext = new AnnotationConfigApplicationContext()) {
+            childContext.setParent(parentContext);
+            childContext.register(HierarchicalChildTestConfiguration.class);
+            childContext.refresh();
+
+            var parentIndex = parentContext.getBean(HierarchicalCompositeKeyTestMapCollector.class).getCompositeIndex();
+            var childIndex = childContext.getBean(HierarchicalCompositeKeyTestMapCollector.class).getCompositeIndex();
+
+            Object specific = parentContext.getBean("specific");
+            Object anyTenant = childContext.getBean("anyTenant");
+            assertSame(specific, parentIndex.get(1, "order", 2));
+            assertNull(parentIndex.get(7, "payment", 1));
+            assertSame(specific, childIndex.get(1, "order", 2));
+            assertSame(anyTenant, childIndex.get(7, "payment", 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Case when child context of hierarchical collector has no own annotated beans. Child shares index of parent")
+    void getCompositeIndex_EmptyChildContextSharesParentIndex() {
+        try (var parentContext = new AnnotationConfigApplicationContext(HierarchicalParentTestConfiguration.class);
+             var childContext = new AnnotationConfigApplicationContext()) {
+            childContext.setParent(parentContext);
+            childContext.addBeanFactoryPostProcessor(new MapCollectorBeanFactoryPostProcessor(Route.class));
+            childContext.register(HierarchicalEmptyChildTestConfiguration.class);
+            childContext.refresh();
+
+            var parentIndex = parentContext.getBean(HierarchicalCompositeKeyTestMapCollector.class).getCompositeIndex();
+            var childIndex = childContext.getBean(HierarchicalCompositeKeyTestMapCollector.class).getCompositeIndex();
+
+            assertSame(parentIndex, childIndex);
+            assertSame(parentContext.getBean("specific"), childIndex.get(1, "order", 2));
+        }
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @interface Route {
+        int tenantType();
+
+        String messageType();
+
+        int[] versions();
+    }
+
+    static class CompositeKeyTestMapCollector extends CompositeKeyMapCollector<List<Object>, TestClassToCollect> {
+
+        CompositeKeyTestMapCollector() {
+            super(Route.class, "tenantType", "messageType", "versions");
+        }
+
+        @Override
+        protected Object getWildcard(int dimension) {
+            return dimension == 1 ? null : -1;
+        }
+    }
+
+    @HierarchicalMapCollector
+    static class HierarchicalCompositeKeyTestMapCollector extends CompositeKeyMapCollector<List<Object>, TestClassToCollect> {
+
+        HierarchicalCompositeKeyTestMapCollector() {
+            super(Route.class, "tenantType", "messageType", "versions");
+        }
+
+        @Override
+        protected Object getWildcard(int dimension) {
+            return dimension == 1 ? null : -1;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class HierarchicalParentTestConfiguration {
+
+        @Bean
+        @Route(tenantType = 1, messageType = "order", versions = 2)
+        public TestClassToCollect specific() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public HierarchicalCompositeKeyTestMapCollector hierarchicalCompositeKeyTestMapCollector() {
+            return new HierarchicalCompositeKeyTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class HierarchicalChildTestConfiguration {
+
+        @Bean
+        @Route(tenantType = -1, messageType = "payment", versions = 1)
+        public TestClassToCollect anyTenant() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public HierarchicalCompositeKeyTestMapCollector hierarchicalCompositeKeyTestMapCollector() {
+            return new HierarchicalCompositeKeyTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class HierarchicalEmptyChildTestConfiguration {
+
+        @Bean
+        public HierarchicalCompositeKeyTestMapCollector hierarchicalCompositeKeyTestMapCollector() {
+            return new HierarchicalCompositeKeyTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class CompositeKeyTestConfiguration {
+
+        @Bean
+        @Route(tenantType = 1, messageType = "order", versions = {2, 3})
+        public TestClassToCollect specific() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @Route(tenantType = 1, messageType = "order", versions = -1)
+        public TestClassToCollect anyVersion() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @Route(tenantType = -1, messageType = "payment", versions = 1)
+        public TestClassToCollect anyTenant() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public CompositeKeyTestMapCollector compositeKeyTestMapCollector() {
+            return new CompositeKeyTestMapCollector();
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class FrozenMaps")
+class FrozenMapsTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    @DisplayName("Case when all keys are Integer. Entries frozen into IntKeyFrozenMap")
+    void freeze_IntegerKeys() {
+        Map<Integer, String> entries = new HashMap<>();
+        while (entries.size() < 1_000) {
+            int key = random.nextInt();
+            entries.put(key, String.valueOf(key));
+        }
+
+        Map<Integer, String> frozenMap = FrozenMaps.freeze(entries);
+
+        IntKeyFrozenMap<String> intKeyFrozenMap = assertInstanceOf(IntKeyFrozenMap.class, frozenMap);
+        assertEquals(entries, frozenMap);
+        assertEquals(frozenMap, entries);
+        for (var entry : entries.entrySet()) {
+            assertEquals(entry.getValue(), intKeyFrozenMap.get(entry.getKey().intValue()));
+        }
+        int missingKey = random.nextInt();
+        while (entries.containsKey(missingKey)) {
+            missingKey = random.nextInt();
+        }
+        assertNull(intKeyFrozenMap.get(missingKey));
+        assertNull(frozenMap.get("1"));
+        assertThrows(UnsupportedOperationException.class, () -> frozenMap.put(1, "1"));
+    }
+
+    @Test
+    @DisplayName("Case when all keys are Long. Entries frozen into LongKeyFrozenMap")
+    void freeze_LongKeys() {
+        Map<Long, String> entries = new HashMap<>();
+        while (entries.size() < 1_000) {
+            long key = random.nextLong();
+            entries.put(key, String.valueOf(key));
+        }
+
+        Map<Long, String> frozenMap = FrozenMaps.freeze(entries);
+
+        LongKeyFrozenMap<String> longKeyFrozenMap = assertInstanceOf(LongKeyFrozenMap.class, frozenMap);
+        assertEquals(entries, frozenMap);
+        for (var entry : entries.entrySet()) {
+            assertEquals(entry.getValue(), longKeyFrozenMap.get(entry.getKey().longValue()));
+        }
+        assertNull(frozenMap.get(1));
+    }
+
+    @Test
+    @DisplayName("Case when all keys are constants of the same enum. Entries frozen into EnumKeyFrozenMap")
+    void freeze_EnumKeys() {
+        Map<DayOfWeek, String> entries = Map.of(DayOfWeek.MONDAY, "monday", DayOfWeek.FRIDAY, "friday");
+
+        Map<DayOfWeek, String> frozenMap = FrozenMaps.freeze(entries);
+
+        assertInstanceOf(EnumKeyFrozenMap.class, frozenMap);
+        assertEquals(entries, frozenMap);
+        assertEquals(2, frozenMap.size());
+        assertNull(frozenMap.get(DayOfWeek.SUNDAY));
+        assertNull(frozenMap.get(TimeUnit.DAYS));
+        assertFalse(frozenMap.containsKey(DayOfWeek.SUNDAY));
+    }
+
+    @Test
+    @DisplayName("Case when all keys are String. Entries frozen into StringKeyFrozenMap")
+    void freeze_StringKeys() {
+        Map<String, Integer> entries = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            entries.put(UUID.randomUUID().toString(), i);
+        }
+
+        Map<String, Integer> frozenMap = FrozenMaps.freeze(entries);
+
+        assertInstanceOf(StringKeyFrozenMap.class, frozenMap);
+        assertEquals(entries, frozenMap);
+        for (var entry : entries.entrySet()) {
+            assertEquals(entry.getValue(), frozenMap.get(entry.getKey()));
+        }
+        assertNull(frozenMap.get(UUID.randomUUID().toString()));
+        assertNull(frozenMap.get(1));
+    }
+
+    @Test
+    @DisplayName("Case when String keys are looked up by chars and UTF-8 bytes. Values found without decoding keys")
+    void freeze_StringKeysLookedUpByCharsAndBytes() {
+        Map<String, Integer> entries = Map.of("order.created", 1, "заказ", 2, "注文", 3, "order\uD83D\uDCE6", 4, "", 5);
+
+        StringKeyFrozenMap<Integer> frozenMap = assertInstanceOf(StringKeyFrozenMap.class, FrozenMaps.freeze(entries));
+
+        for (var entry : entries.entrySet()) {
+            byte[] encodedKey = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] message = new byte[encodedKey.length + 4];
+            System.arraycopy(encodedKey, 0, message, 2, encodedKey.length);
+            ByteBuffer directMessage = ByteBuffer.allocateDirect(message.length).put(message).flip();
+            assertEquals(entry.getValue(), frozenMap.get(new StringBuilder(entry.getKey())));
+            assertEquals(entry.getValue(), frozenMap.get(message, 2, encodedKey.length));
+            assertEquals(entry.getValue(), frozenMap.get(ByteBuffer.wrap(message), 2, encodedKey.length));
+            assertEquals(entry.getValue(), frozenMap.get(directMessage, 2, encodedKey.length));
+            assertEquals(0, directMessage.position());
+        }
+        byte[] message = "order.created".getBytes(StandardCharsets.UTF_8);
+        assertNull(frozenMap.get(new StringBuilder("order.deleted")));
+        assertNull(frozenMap.get(message, 0, message.length - 1));
+        assertNull(frozenMap.get(new byte[]{(byte) 0xD0}, 0, 1));
+        assertNull(frozenMap.get(new byte[]{(byte) 0xFF, 'a'}, 0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> frozenMap.get(message, 1, message.length));
+    }
+
+    @Test
+    @DisplayName("Case when String keys have the same hash code. Keys share a slot and are found by chars and bytes")
+    void freeze_StringKeysWithSameHashCode() {
+        Map<String, Integer> entries = Map.of("Aa", 1, "BB", 2, "AaAa", 3, "BBBB", 4, "AaBB", 5, "order", 6);
+
+        StringKeyFrozenMap<Integer> frozenMap = assertInstanceOf(StringKeyFrozenMap.class, FrozenMaps.freeze(entries));
+
+        assertEquals(entries, frozenMap);
+        for (var entry : entries.entrySet()) {
+            byte[] encodedKey = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer directKey = ByteBuffer.allocateDirect(encodedKey.length).put(encodedKey).flip();
+            assertEquals(entry.getValue(), frozenMap.get(entry.getKey()));
+            assertEquals(entry.getValue(), frozenMap.get(new StringBuilder(entry.getKey())));
+            assertEquals(entry.getValue(), frozenMap.get(encodedKey, 0, encodedKey.length));
+            assertEquals(entry.getValue(), frozenMap.get(directKey, 0, encodedKey.length));
+        }
+        assertNull(frozenMap.get("BBAa"));
+        assertNull(frozenMap.get(new StringBuilder("BBAa")));
+    }
+
+    @Test
+    @DisplayName("Case when keys have different types or values are null. Entries frozen into general immutable map")
+    void freeze_MixedKeysAndNullValues() {
+        Map<Object, String> mixedKeyEntries = Map.of(1, "1", "2", "2");
+        Map<Integer, String> nullValueEntries = new HashMap<>();
+        nullValueEntries.put(1, null);
+
+        Map<Object, String> mixedKeyFrozenMap = FrozenMaps.freeze(mixedKeyEntries);
+        Map<Integer, String> nullValueFrozenMap = FrozenMaps.freeze(nullValueEntries);
+
+        assertEquals(mixedKeyEntries, mixedKeyFrozenMap);
+        assertEquals(nullValueEntries, nullValueFrozenMap);
+        assertTrue(nullValueFrozenMap.containsKey(1));
+        assertThrows(UnsupportedOperationException.class, () -> nullValueFrozenMap.put(2, "2"));
+    }
+
+    @Test
+    @DisplayName("Case when null key is looked up. Null and false returned by all frozen maps like by unmodifiable HashMap")
+    void freeze_NullKeyLookedUp() {
+        List<Map<?, String>> frozenMaps = List.of(
+                FrozenMaps.freeze(Map.of()),
+                FrozenMaps.freeze(Map.of(1, "1")),
+                FrozenMaps.freeze(Map.of(1L, "1")),
+                FrozenMaps.freeze(Map.of(DayOfWeek.MONDAY, "1")),
+                FrozenMaps.freeze(Map.of("1", "1")),
+                FrozenMaps.freeze(Map.of(1, "1", "2", "2")),
+                SortedArrayMap.of(Map.of(1, "1"), null)
+        );
+
+        for (Map<?, String> frozenMap : frozenMaps) {
+            assertNull(frozenMap.get(null), frozenMap.getClass().getName());
+            assertFalse(frozenMap.containsKey(null), frozenMap.getClass().getName());
+        }
+    }
+
+    @Test
+    @DisplayName("Case when some key is null. Entries frozen into unmodifiable map, which finds value by null key")
+    void freeze_NullKey() {
+        Map<Integer, String> nullKeyEntries = new HashMap<>();
+        nullKeyEntries.put(null, "null");
+        nullKeyEntries.put(1, "1");
+
+        Map<Integer, String> nullKeyFrozenMap = FrozenMaps.freeze(nullKeyEntries);
+
+        assertEquals(nullKeyEntries, nullKeyFrozenMap);
+        assertEquals("null", nullKeyFrozenMap.get(null));
+        assertTrue(nullKeyFrozenMap.containsKey(null));
+        assertThrows(UnsupportedOperationException.class, () -> nullKeyFrozenMap.put(2, "2"));
+    }
+}
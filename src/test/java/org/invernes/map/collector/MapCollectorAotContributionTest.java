@@ -0,0 +1,152 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestClassToCollect;
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestCollectAnnotation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.aot.test.generate.TestGenerationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.test.tools.CompileWithForkedClassLoader;
+import org.springframework.core.test.tools.TestCompiler;
+import org.springframework.javapoet.ClassName;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@CompileWithForkedClassLoader
+@DisplayName("Unit tests for class MapCollectorAotContribution")
+class MapCollectorAotContributionTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Case when context is processed ahead of time. Index generated, hints registered, AOT-initialized context started")
+    void applyTo_ContextProcessedAheadOfTime() {
+        AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.register(AotTestConfiguration.class);
+        TestGenerationContext generationContext = new TestGenerationContext();
+        String indexClassName = MapCollectorIndex.getIndexClassName(IndexedTestMapCollector.class.getName());
+
+        startAotContext(applicationContext, generationContext, aotContext -> {
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(indexClassName))
+                    .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .test(generationContext.getRuntimeHints()));
+            assertTrue(RuntimeHintsPredicates.reflection().onType(IndexedTestMapCollector.class).test(generationContext.getRuntimeHints()));
+
+            MapCollectorIndex<Integer> index = MapCollectorIndex.load(IndexedTestMapCollector.class);
+            assertNotNull(index);
+            assertEquals(Map.of(1, "instance1", 2, "instance2", 3, "instance2"), index.getBeanNamesByKey());
+
+            assertFalse(aotContext.containsBeanDefinition("mapCollectorBeanFactoryPostProcessor"));
+            assertArrayEquals(new String[]{"instance1", "instance2"},
+                    aotContext.getBeanDefinition("indexedTestMapCollector").getDependsOn());
+            IndexedTestMapCollector mapCollector = aotContext.getBean(IndexedTestMapCollector.class);
+            assertEquals(Map.of(1, aotContext.getBean("instance1"), 2, aotContext.getBean("instance2"),
+                    3, aotContext.getBean("instance2")), mapCollector.getMap());
+        });
+    }
+
+    @Test
+    @DisplayName("Case when context with scan cache is processed ahead of time. Scan cache excluded, AOT-initialized context started")
+    void applyTo_ScanCacheConfigured() {
+        AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.addBeanFactoryPostProcessor(new MapCollectorBeanFactoryPostProcessor(TestCollectAnnotation.class,
+                new MapCollectorScanCache(tempDir.resolve("map-collector-scan-cache.properties"))));
+        applicationContext.register(ScanCacheAotTestConfiguration.class);
+
+        startAotContext(applicationContext, new TestGenerationContext(), aotContext -> {
+            assertFalse(aotContext.containsBeanDefinition(MapCollectorScanCache.BEAN_NAME));
+            assertArrayEquals(new String[]{"instance1", "instance2"},
+                    aotContext.getBeanDefinition("indexedTestMapCollector").getDependsOn());
+            IndexedTestMapCollector mapCollector = aotContext.getBean(IndexedTestMapCollector.class);
+            assertEquals(Map.of(1, aotContext.getBean("instance1"), 2, aotContext.getBean("instance2"),
+                    3, aotContext.getBean("instance2")), mapCollector.getMap());
+        });
+    }
+
+    /**
+     * Processes <i>applicationContext</i> ahead of time, compiles generated code and starts context,
+     * initialized by generated initializer
+     */
+    @SuppressWarnings("unchecked")
+    private static void startAotContext(GenericApplicationContext applicationContext, TestGenerationContext generationContext,
+                                        Consumer<GenericApplicationContext> assertions) {
+        ClassName initializerClassName = new ApplicationContextAotGenerator().processAheadOfTime(applicationContext, generationContext);
+        generationContext.writeGeneratedContent();
+        TestCompiler.forSystem().with(generationContext).compile(compiled -> {
+            try (GenericApplicationContext aotContext = new GenericApplicationContext()) {
+                compiled.getInstance(ApplicationContextInitializer.class, initializerClassName.reflectionName()).initialize(aotContext);
+                aotContext.refresh();
+                assertions.accept(aotContext);
+            }
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ScanCacheAotTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect instance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 3})
+        public TestClassToCollect instance2() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public IndexedTestMapCollector indexedTestMapCollector() {
+            return new IndexedTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class AotTestConfiguration {
+
+        @Bean
+        public static MapCollectorBeanFactoryPostProcessor mapCollectorBeanFactoryPostProcessor() {
+            return new MapCollectorBeanFactoryPostProcessor(TestCollectAnnotation.class);
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect instance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 3})
+        public TestClassToCollect instance2() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public IndexedTestMapCollector indexedTestMapCollector() {
+            return new IndexedTestMapCollector();
+        }
+    }
+
+    @IndexedMapCollector(annotation = TestCollectAnnotation.class, keyAttribute = "keys")
+    static class IndexedTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        IndexedTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+    }
+}
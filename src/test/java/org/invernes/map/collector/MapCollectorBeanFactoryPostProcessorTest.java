@@ -1,24 +1,37 @@
 package org.invernes.map.collector;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.metrics.ApplicationStartup;
 
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +42,11 @@ class MapCollectorBeanFactoryPostProcessorTest {
     private final ConfigurableListableBeanFactory beanFactory = mock(ConfigurableListableBeanFactory.class);
     private final MapCollectorBeanFactoryPostProcessor sut = new MapCollectorBeanFactoryPostProcessor(annotationClass);
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(beanFactory.getApplicationStartup()).thenReturn(ApplicationStartup.DEFAULT);
+    }
+
     @Test
     @DisplayName("Case when no beans of type MapCollector found in context. Exception thrown")
     void postProcessBeanFactory_NoMapCollectorsFound() {
@@ -39,6 +57,7 @@ class MapCollectorBeanFactoryPostProcessorTest {
         assertEquals(expectedExceptionMessage, exceptionThrown.getMessage());
 
         verify(beanFactory).getBeanNamesForType(MapCollector.class);
+        verify(beanFactory).getApplicationStartup();
         verifyNoMoreInteractions(beanFactory);
     }
 
@@ -58,6 +77,7 @@ class MapCollectorBeanFactoryPostProcessorTest {
 
         verify(beanFactory).getBeanNamesForType(MapCollector.class);
         verify(beanFactory).getBeanDefinition(mapCollectorName);
+        verify(beanFactory).getApplicationStartup();
         verifyNoMoreInteractions(beanFactory);
     }
 
@@ -83,6 +103,7 @@ class MapCollectorBeanFactoryPostProcessorTest {
         verify(beanFactory).getBeanNamesForType(MapCollector.class);
         verify(beanFactory).getBeanDefinition(mapCollectorName);
         verify(beanFactory).getBeanDefinition(factoryBeanName);
+        verify(beanFactory).getApplicationStartup();
         verifyNoMoreInteractions(beanFactory);
     }
 
@@ -111,6 +132,7 @@ class MapCollectorBeanFactoryPostProcessorTest {
         verify(beanFactory).getBeanDefinition(mapCollectorName);
         verify(beanFactory).getBeanDefinition(factoryBeanName);
         verify(beanFactory).getBeanNamesForAnnotation(annotationClass);
+        verify(beanFactory).getApplicationStartup();
         verifyNoMoreInteractions(beanFactory);
     }
 
@@ -147,6 +169,7 @@ class MapCollectorBeanFactoryPostProcessorTest {
         verify(beanFactory).getBeanDefinition(factoryBeanName);
         verify(beanFactory).getBeanNamesForAnnotation(annotationClass);
         verify(beanFactory).getBeanNamesForType(dependencyType);
+        verify(beanFactory).getApplicationStartup();
         verifyNoMoreInteractions(beanFactory);
     }
 
@@ -184,9 +207,294 @@ class MapCollectorBeanFactoryPostProcessorTest {
         verify(beanFactory).getBeanDefinition(factoryBeanName);
         verify(beanFactory).getBeanNamesForAnnotation(annotationClass);
         verify(beanFactory).getBeanNamesForType(dependencyType);
+        verify(beanFactory).getApplicationStartup();
+        verifyNoMoreInteractions(beanFactory);
+    }
+
+    @Test
+    @DisplayName("Case when bean of type MapCollector is lazy collector. No beans are set as dependencies")
+    void postProcessBeanFactory_LazyMapCollectorFound() {
+        String mapCollectorName = randomFromUuid();
+        String[] mapCollectorNames = new String[]{mapCollectorName};
+        when(beanFactory.getBeanNamesForType(MapCollector.class)).thenReturn(mapCollectorNames);
+
+        String factoryBeanName = randomFromUuid();
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName(factoryBeanName);
+        mapCollectorBeanDefinition.setFactoryMethodName(LazyTestConfigurationClass.class.getMethods()[0].getName());
+        when(beanFactory.getBeanDefinition(mapCollectorName)).thenReturn(mapCollectorBeanDefinition);
+
+        BeanDefinition factoryBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(LazyTestConfigurationClass.class).getBeanDefinition();
+        when(beanFactory.getBeanDefinition(factoryBeanName)).thenReturn(factoryBeanDefinition);
+
+        sut.postProcessBeanFactory(beanFactory);
+
+        assertNull(mapCollectorBeanDefinition.getDependsOn());
+
+        verify(beanFactory).getBeanNamesForType(MapCollector.class);
+        verify(beanFactory).getBeanDefinition(mapCollectorName);
+        verify(beanFactory).getBeanDefinition(factoryBeanName);
+        verify(beanFactory).getApplicationStartup();
         verifyNoMoreInteractions(beanFactory);
     }
 
+    @Test
+    @DisplayName("Case when bean of type MapCollector is parallel collector. No beans are set as dependencies")
+    void postProcessBeanFactory_ParallelMapCollectorFound() {
+        String mapCollectorName = randomFromUuid();
+        String[] mapCollectorNames = new String[]{mapCollectorName};
+        when(beanFactory.getBeanNamesForType(MapCollector.class)).thenReturn(mapCollectorNames);
+
+        String factoryBeanName = randomFromUuid();
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName(factoryBeanName);
+        mapCollectorBeanDefinition.setFactoryMethodName(ParallelTestConfigurationClass.class.getMethods()[0].getName());
+        when(beanFactory.getBeanDefinition(mapCollectorName)).thenReturn(mapCollectorBeanDefinition);
+
+        BeanDefinition factoryBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(ParallelTestConfigurationClass.class).getBeanDefinition();
+        when(beanFactory.getBeanDefinition(factoryBeanName)).thenReturn(factoryBeanDefinition);
+
+        sut.postProcessBeanFactory(beanFactory);
+
+        assertNull(mapCollectorBeanDefinition.getDependsOn());
+
+        verify(beanFactory).getBeanNamesForType(MapCollector.class);
+        verify(beanFactory).getBeanDefinition(mapCollectorName);
+        verify(beanFactory).getBeanDefinition(factoryBeanName);
+        verify(beanFactory).getApplicationStartup();
+        verifyNoMoreInteractions(beanFactory);
+    }
+
+    @Test
+    @DisplayName("Case when several beans of type MapCollector of the same type found. Annotated beans and beans of the type are searched once")
+    void postProcessBeanFactory_AnnotatedBeansSearchedOnce() {
+        String firstMapCollectorName = randomFromUuid();
+        String secondMapCollectorName = randomFromUuid();
+        String[] mapCollectorNames = new String[]{firstMapCollectorName, secondMapCollectorName};
+        when(beanFactory.getBeanNamesForType(MapCollector.class)).thenReturn(mapCollectorNames);
+
+        String factoryBeanName = randomFromUuid();
+        BeanDefinition firstMapCollectorBeanDefinition = new RootBeanDefinition();
+        firstMapCollectorBeanDefinition.setFactoryBeanName(factoryBeanName);
+        firstMapCollectorBeanDefinition.setFactoryMethodName(TestConfigurationClass.class.getMethods()[0].getName());
+        when(beanFactory.getBeanDefinition(firstMapCollectorName)).thenReturn(firstMapCollectorBeanDefinition);
+        BeanDefinition secondMapCollectorBeanDefinition = new RootBeanDefinition();
+        secondMapCollectorBeanDefinition.setFactoryBeanName(factoryBeanName);
+        secondMapCollectorBeanDefinition.setFactoryMethodName(TestConfigurationClass.class.getMethods()[0].getName());
+        when(beanFactory.getBeanDefinition(secondMapCollectorName)).thenReturn(secondMapCollectorBeanDefinition);
+
+        BeanDefinition factoryBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(TestConfigurationClass.class).getBeanDefinition();
+        when(beanFactory.getBeanDefinition(factoryBeanName)).thenReturn(factoryBeanDefinition);
+
+        String[] annotatedBeanNames = new String[]{randomFromUuid()};
+        when(beanFactory.getBeanNamesForAnnotation(annotationClass)).thenReturn(annotatedBeanNames);
+
+        Type methodReturnTypeArgument = ((ParameterizedType) TestMapCollector.class.getGenericSuperclass()).getActualTypeArguments()[1];
+        ResolvableType dependencyType = ResolvableType.forType(methodReturnTypeArgument);
+        when(beanFactory.getBeanNamesForType(dependencyType)).thenReturn(annotatedBeanNames);
+
+        sut.postProcessBeanFactory(beanFactory);
+
+        assertArrayEquals(annotatedBeanNames, firstMapCollectorBeanDefinition.getDependsOn());
+        assertArrayEquals(annotatedBeanNames, secondMapCollectorBeanDefinition.getDependsOn());
+
+        verify(beanFactory).getBeanNamesForType(MapCollector.class);
+        verify(beanFactory, times(2)).getBeanDefinition(firstMapCollectorName);
+        verify(beanFactory, times(2)).getBeanDefinition(secondMapCollectorName);
+        verify(beanFactory, times(2)).getBeanDefinition(factoryBeanName);
+        verify(beanFactory).getBeanNamesForAnnotation(annotationClass);
+        verify(beanFactory).getBeanNamesForType(dependencyType);
+        verify(beanFactory).getApplicationStartup();
+        verifyNoMoreInteractions(beanFactory);
+    }
+
+    @Test
+    @DisplayName("Case when several beans to collect are properly annotated. All beans are appended to existing dependencies")
+    void postProcessBeanFactory_DependenciesAppended() {
+        String mapCollectorName = randomFromUuid();
+        String[] mapCollectorNames = new String[]{mapCollectorName};
+        when(beanFactory.getBeanNamesForType(MapCollector.class)).thenReturn(mapCollectorNames);
+
+        String factoryBeanName = randomFromUuid();
+        String existingDependency = randomFromUuid();
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName(factoryBeanName);
+        mapCollectorBeanDefinition.setFactoryMethodName(TestConfigurationClass.class.getMethods()[0].getName());
+        mapCollectorBeanDefinition.setDependsOn(existingDependency);
+        when(beanFactory.getBeanDefinition(mapCollectorName)).thenReturn(mapCollectorBeanDefinition);
+
+        BeanDefinition factoryBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(TestConfigurationClass.class).getBeanDefinition();
+        when(beanFactory.getBeanDefinition(factoryBeanName)).thenReturn(factoryBeanDefinition);
+
+        String[] annotatedBeanNames = new String[]{randomFromUuid(), randomFromUuid(), randomFromUuid()};
+        when(beanFactory.getBeanNamesForAnnotation(annotationClass)).thenReturn(annotatedBeanNames);
+
+        Type methodReturnTypeArgument = ((ParameterizedType) TestMapCollector.class.getGenericSuperclass()).getActualTypeArguments()[1];
+        ResolvableType dependencyType = ResolvableType.forType(methodReturnTypeArgument);
+        String[] beanNamesToCollect = new String[]{annotatedBeanNames[0], randomFromUuid(), annotatedBeanNames[2]};
+        when(beanFactory.getBeanNamesForType(dependencyType)).thenReturn(beanNamesToCollect);
+
+        sut.postProcessBeanFactory(beanFactory);
+
+        assertArrayEquals(new String[]{existingDependency, annotatedBeanNames[0], annotatedBeanNames[2]},
+                mapCollectorBeanDefinition.getDependsOn());
+    }
+
+    @Test
+    @DisplayName("Case when application startup is buffered. Phases of post-processing are recorded as startup steps")
+    void postProcessBeanFactory_StartupStepsRecorded() {
+        DefaultListableBeanFactory bufferedBeanFactory = new DefaultListableBeanFactory();
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        bufferedBeanFactory.setApplicationStartup(applicationStartup);
+        bufferedBeanFactory.registerBeanDefinition("configuration",
+                BeanDefinitionBuilder.genericBeanDefinition(TestConfigurationClass.class).getBeanDefinition());
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName("configuration");
+        mapCollectorBeanDefinition.setFactoryMethodName(TestConfigurationClass.class.getMethods()[0].getName());
+        bufferedBeanFactory.registerBeanDefinition("mapCollector", mapCollectorBeanDefinition);
+        bufferedBeanFactory.registerBeanDefinition("annotatedBean", new RootBeanDefinition(AnnotatedClassToCollect.class));
+        bufferedBeanFactory.registerBeanDefinition("notAnnotatedBean", new RootBeanDefinition(TestClassToCollect.class));
+        MapCollectorBeanFactoryPostProcessor bufferedSut = new MapCollectorBeanFactoryPostProcessor(RuntimeTestAnnotation.class);
+
+        bufferedSut.postProcessBeanFactory(bufferedBeanFactory);
+
+        Map<String, Map<String, String>> tagsByStepName = new HashMap<>();
+        for (var event : applicationStartup.getBufferedTimeline().getEvents()) {
+            Map<String, String> tags = new HashMap<>();
+            event.getStartupStep().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+            tagsByStepName.put(event.getStartupStep().getName(), tags);
+        }
+        assertEquals(Set.of("map-collector.post-process", "map-collector.factory-method", "map-collector.annotation-scan",
+                "map-collector.type-scan", "map-collector.dependencies"), tagsByStepName.keySet());
+        assertEquals("1", tagsByStepName.get("map-collector.post-process").get("collectorCount"));
+        assertEquals("mapCollector", tagsByStepName.get("map-collector.factory-method").get("beanName"));
+        assertEquals("1", tagsByStepName.get("map-collector.annotation-scan").get("candidateCount"));
+        assertEquals("2", tagsByStepName.get("map-collector.type-scan").get("candidateCount"));
+        assertEquals(TestClassToCollect.class.getName(), tagsByStepName.get("map-collector.dependencies").get("valueType"));
+        assertEquals("1", tagsByStepName.get("map-collector.dependencies").get("dependencyCount"));
+    }
+
+    @Test
+    @DisplayName("Case when application startup is buffered and post-processing fails. Started steps are ended")
+    void postProcessBeanFactory_StartupStepsEndedOnFailure() {
+        DefaultListableBeanFactory bufferedBeanFactory = new DefaultListableBeanFactory();
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(100);
+        bufferedBeanFactory.setApplicationStartup(applicationStartup);
+        bufferedBeanFactory.registerBeanDefinition("configuration",
+                BeanDefinitionBuilder.genericBeanDefinition(TestConfigurationClass.class).getBeanDefinition());
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName("configuration");
+        mapCollectorBeanDefinition.setFactoryMethodName(TestConfigurationClass.class.getMethods()[0].getName());
+        bufferedBeanFactory.registerBeanDefinition("mapCollector", mapCollectorBeanDefinition);
+        bufferedBeanFactory.registerBeanDefinition("notAnnotatedBean", new RootBeanDefinition(TestClassToCollect.class));
+        MapCollectorBeanFactoryPostProcessor bufferedSut = new MapCollectorBeanFactoryPostProcessor(RuntimeTestAnnotation.class);
+
+        assertThrows(RuntimeException.class, () -> bufferedSut.postProcessBeanFactory(bufferedBeanFactory));
+
+        Set<String> endedStepNames = new HashSet<>();
+        for (var event : applicationStartup.getBufferedTimeline().getEvents()) {
+            endedStepNames.add(event.getStartupStep().getName());
+        }
+        assertEquals(Set.of("map-collector.post-process", "map-collector.factory-method", "map-collector.annotation-scan"),
+                endedStepNames);
+    }
+
+    @Test
+    @DisplayName("Case when several annotations are specified. Beans with any of annotations are set as dependencies")
+    void postProcessBeanFactory_SeveralAnnotations() {
+        DefaultListableBeanFactory multiAnnotationBeanFactory = new DefaultListableBeanFactory();
+        multiAnnotationBeanFactory.registerBeanDefinition("configuration",
+                BeanDefinitionBuilder.genericBeanDefinition(TestConfigurationClass.class).getBeanDefinition());
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName("configuration");
+        mapCollectorBeanDefinition.setFactoryMethodName(TestConfigurationClass.class.getMethods()[0].getName());
+        multiAnnotationBeanFactory.registerBeanDefinition("mapCollector", mapCollectorBeanDefinition);
+        multiAnnotationBeanFactory.registerBeanDefinition("annotatedBean", new RootBeanDefinition(AnnotatedClassToCollect.class));
+        multiAnnotationBeanFactory.registerBeanDefinition("notAnnotatedBean", new RootBeanDefinition(TestClassToCollect.class));
+        multiAnnotationBeanFactory.registerSingleton("otherAnnotatedBean", new OtherAnnotatedClassToCollect());
+        MapCollectorBeanFactoryPostProcessor multiAnnotationSut = new MapCollectorBeanFactoryPostProcessor(
+                List.of(RuntimeTestAnnotation.class, OtherRuntimeTestAnnotation.class));
+
+        multiAnnotationSut.postProcessBeanFactory(multiAnnotationBeanFactory);
+
+        assertEquals(Set.of("annotatedBean", "otherAnnotatedBean"), Set.of(mapCollectorBeanDefinition.getDependsOn()));
+    }
+
+    @Test
+    @DisplayName("Case when collectors of the same type declare different annotations. Each collector depends on beans with its annotation")
+    void postProcessBeanFactory_SeveralAnnotationsDeclaredByCollectors() {
+        DefaultListableBeanFactory multiAnnotationBeanFactory = new DefaultListableBeanFactory();
+        multiAnnotationBeanFactory.registerBeanDefinition("configuration",
+                BeanDefinitionBuilder.genericBeanDefinition(DeclaredAnnotationTestConfigurationClass.class).getBeanDefinition());
+        BeanDefinition mapCollectorBeanDefinition = new RootBeanDefinition();
+        mapCollectorBeanDefinition.setFactoryBeanName("configuration");
+        mapCollectorBeanDefinition.setFactoryMethodName("mapCollector");
+        multiAnnotationBeanFactory.registerBeanDefinition("mapCollector", mapCollectorBeanDefinition);
+        BeanDefinition otherMapCollectorBeanDefinition = new RootBeanDefinition();
+        otherMapCollectorBeanDefinition.setFactoryBeanName("configuration");
+        otherMapCollectorBeanDefinition.setFactoryMethodName("otherMapCollector");
+        multiAnnotationBeanFactory.registerBeanDefinition("otherMapCollector", otherMapCollectorBeanDefinition);
+        multiAnnotationBeanFactory.registerBeanDefinition("annotatedBean", new RootBeanDefinition(AnnotatedClassToCollect.class));
+        multiAnnotationBeanFactory.registerBeanDefinition("otherAnnotatedBean", new RootBeanDefinition(OtherAnnotatedClassToCollect.class));
+        MapCollectorBeanFactoryPostProcessor multiAnnotationSut = new MapCollectorBeanFactoryPostProcessor(
+                List.of(RuntimeTestAnnotation.class, OtherRuntimeTestAnnotation.class));
+
+        multiAnnotationSut.postProcessBeanFactory(multiAnnotationBeanFactory);
+
+        assertArrayEquals(new String[]{"annotatedBean"}, mapCollectorBeanDefinition.getDependsOn());
+        assertArrayEquals(new String[]{"otherAnnotatedBean"}, otherMapCollectorBeanDefinition.getDependsOn());
+    }
+
+    @Test
+    @DisplayName("Case when number of collectors and beans grows. Number of bean factory scans and dependency assignments per collector is constant")
+    void postProcessBeanFactory_ScansIndependentOfCollectorAndBeanCount() {
+        Map<String, Long> smallContextCounts = countPostProcessCalls(1, 1);
+        Map<String, Long> largeContextCounts = countPostProcessCalls(50, 500);
+
+        assertEquals(Map.of("getBeanNamesForAnnotation", 1L, "getBeanNamesForType", 2L, "setDependsOn", 1L), smallContextCounts);
+        assertEquals(smallContextCounts, largeContextCounts);
+    }
+
+    /**
+     * Post-processes bean factory, spied by delegation, with specified number of collectors of the same type and annotated beans
+     *
+     * @return calls of scans of bean factory and calls of setDependsOn per collector by method name
+     */
+    private Map<String, Long> countPostProcessCalls(int collectorCount, int beanCount) {
+        DefaultListableBeanFactory countedBeanFactory = new DefaultListableBeanFactory();
+        countedBeanFactory.registerBeanDefinition("configuration",
+                BeanDefinitionBuilder.genericBeanDefinition(TestConfigurationClass.class).getBeanDefinition());
+        List<BeanDefinition> mapCollectorBeanDefinitions = new ArrayList<>();
+        for (int i = 0; i < collectorCount; i++) {
+            BeanDefinition mapCollectorBeanDefinition = spy(new RootBeanDefinition());
+            mapCollectorBeanDefinition.setFactoryBeanName("configuration");
+            mapCollectorBeanDefinition.setFactoryMethodName("factoryMethod");
+            countedBeanFactory.registerBeanDefinition("mapCollector" + i, mapCollectorBeanDefinition);
+            mapCollectorBeanDefinitions.add(mapCollectorBeanDefinition);
+        }
+        for (int i = 0; i < beanCount; i++) {
+            countedBeanFactory.registerBeanDefinition("annotatedBean" + i, new RootBeanDefinition(AnnotatedClassToCollect.class));
+        }
+        mapCollectorBeanDefinitions.forEach(Mockito::clearInvocations);
+        ConfigurableListableBeanFactory spiedBeanFactory = mock(ConfigurableListableBeanFactory.class, delegatesTo(countedBeanFactory));
+
+        new MapCollectorBeanFactoryPostProcessor(RuntimeTestAnnotation.class).postProcessBeanFactory(spiedBeanFactory);
+
+        Map<String, Long> callCounts = new HashMap<>();
+        for (String scanMethodName : List.of("getBeanNamesForAnnotation", "getBeanNamesForType")) {
+            callCounts.put(scanMethodName, mockingDetails(spiedBeanFactory).getInvocations().stream()
+                    .filter(invocation -> invocation.getMethod().getName().equals(scanMethodName))
+                    .count());
+        }
+        for (BeanDefinition mapCollectorBeanDefinition : mapCollectorBeanDefinitions) {
+            assertEquals(beanCount, mapCollectorBeanDefinition.getDependsOn().length);
+            callCounts.merge("setDependsOn", mockingDetails(mapCollectorBeanDefinition).getInvocations().stream()
+                    .filter(invocation -> invocation.getMethod().getName().equals("setDependsOn"))
+                    .count(), Math::max);
+        }
+        return callCounts;
+    }
+
     private String randomFromUuid() {
         return UUID.randomUUID().toString();
     }
@@ -195,6 +503,16 @@ class MapCollectorBeanFactoryPostProcessorTest {
 
     }
 
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface RuntimeTestAnnotation {
+
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    private @interface OtherRuntimeTestAnnotation {
+
+    }
+
     private static class TestConfigurationClass {
 
         public TestMapCollector factoryMethod() {
@@ -215,7 +533,80 @@ class MapCollectorBeanFactoryPostProcessorTest {
         }
     }
 
+    private static class DeclaredAnnotationTestConfigurationClass {
+
+        public DeclaredAnnotationTestMapCollector mapCollector() {
+            return null;
+        }
+
+        public OtherDeclaredAnnotationTestMapCollector otherMapCollector() {
+            return null;
+        }
+    }
+
+    @CollectedAnnotation(RuntimeTestAnnotation.class)
+    private static class DeclaredAnnotationTestMapCollector extends MapCollector<Integer, TestClassToCollect> {
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            return null;
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+
+        }
+    }
+
+    @CollectedAnnotation(OtherRuntimeTestAnnotation.class)
+    private static class OtherDeclaredAnnotationTestMapCollector extends MapCollector<Integer, TestClassToCollect> {
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            return null;
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+
+        }
+    }
+
+    private static class LazyTestConfigurationClass {
+
+        public LazyTestMapCollector factoryMethod() {
+            return null;
+        }
+    }
+
+    @LazyMapCollector
+    private static class LazyTestMapCollector extends TestMapCollector {
+
+    }
+
+    private static class ParallelTestConfigurationClass {
+
+        public ParallelTestMapCollector factoryMethod() {
+            return null;
+        }
+    }
+
+    @ParallelMapCollector
+    private static class ParallelTestMapCollector extends TestMapCollector {
+
+    }
+
     private static class TestClassToCollect {
 
     }
-}
\ No newline at end of file
+
+    @RuntimeTestAnnotation
+    private static class AnnotatedClassToCollect extends TestClassToCollect {
+
+    }
+
+    @OtherRuntimeTestAnnotation
+    private static class OtherAnnotatedClassToCollect extends TestClassToCollect {
+
+    }
+}
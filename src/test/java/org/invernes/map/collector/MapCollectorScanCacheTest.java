@@ -0,0 +1,152 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestClassToCollect;
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestCollectAnnotation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class MapCollectorScanCache")
+class MapCollectorScanCacheTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    @DisplayName("Case when context is started twice with the same bean definitions. The second start skips scanning")
+    void load_WarmStart() {
+        Path cachePath = cacheDirectory.resolve("cache/scan.bin");
+        var coldCache = new MapCollectorScanCache(cachePath);
+        var coldStartup = new BufferingApplicationStartup(100);
+        try (var applicationContext = startContext(coldCache, coldStartup, ScanCacheTestConfiguration.class)) {
+            assertFalse(coldCache.isWarm());
+            assertTrue(Files.isRegularFile(cachePath));
+            assertTrue(getStepNames(coldStartup).contains("map-collector.annotation-scan"));
+        }
+
+        var warmCache = new MapCollectorScanCache(cachePath);
+        var warmStartup = new BufferingApplicationStartup(100);
+        try (var applicationContext = startContext(warmCache, warmStartup, ScanCacheTestConfiguration.class)) {
+            assertTrue(warmCache.isWarm());
+            assertFalse(getStepNames(warmStartup).contains("map-collector.annotation-scan"));
+            assertArrayEquals(new String[]{"instance1", "instance2"},
+                    applicationContext.getBeanFactory().getBeanDefinition("scanCacheTestMapCollector").getDependsOn());
+            Map<Integer, Object> expectedMap = Map.of(
+                    1, applicationContext.getBean("instance1"),
+                    2, applicationContext.getBean("instance2"),
+                    3, applicationContext.getBean("instance2")
+            );
+            assertEquals(expectedMap, applicationContext.getBean(ScanCacheTestMapCollector.class).getMap());
+        }
+    }
+
+    @Test
+    @DisplayName("Case when bean definitions are changed or file is damaged. Cache is not used and is rewritten")
+    void load_StaleCache() throws IOException {
+        Path cachePath = cacheDirectory.resolve("scan.bin");
+        startContext(new MapCollectorScanCache(cachePath), new BufferingApplicationStartup(100), ScanCacheTestConfiguration.class).close();
+
+        var staleCache = new MapCollectorScanCache(cachePath);
+        try (var applicationContext = startContext(staleCache, new BufferingApplicationStartup(100),
+                ScanCacheTestConfiguration.class, ExtraInstanceTestConfiguration.class)) {
+            assertFalse(staleCache.isWarm());
+            assertEquals(4, applicationContext.getBean(ScanCacheTestMapCollector.class).getMap().size());
+        }
+        var rewrittenCache = new MapCollectorScanCache(cachePath);
+        startContext(rewrittenCache, new BufferingApplicationStartup(100),
+                ScanCacheTestConfiguration.class, ExtraInstanceTestConfiguration.class).close();
+        assertTrue(rewrittenCache.isWarm());
+
+        byte[] content = Files.readAllBytes(cachePath);
+        Files.write(cachePath, Arrays.copyOf(content, content.length - 3));
+        var damagedCache = new MapCollectorScanCache(cachePath);
+        try (var applicationContext = startContext(damagedCache, new BufferingApplicationStartup(100),
+                ScanCacheTestConfiguration.class, ExtraInstanceTestConfiguration.class)) {
+            assertFalse(damagedCache.isWarm());
+            assertEquals(4, applicationContext.getBean(ScanCacheTestMapCollector.class).getMap().size());
+        }
+    }
+
+    @Test
+    @DisplayName("Case when cache file can't be written. Context is started and beans are scanned")
+    void afterSingletonsInstantiated_WriteFailure() throws IOException {
+        Path regularFile = Files.createFile(cacheDirectory.resolve("file"));
+        Path cachePath = regularFile.resolve("scan.bin");
+        var unwritableCache = new MapCollectorScanCache(cachePath);
+
+        try (var applicationContext = startContext(unwritableCache, new BufferingApplicationStartup(100),
+                ScanCacheTestConfiguration.class)) {
+            assertFalse(unwritableCache.isWarm());
+            assertFalse(Files.exists(cachePath));
+            assertEquals(3, applicationContext.getBean(ScanCacheTestMapCollector.class).getMap().size());
+        }
+    }
+
+    private static AnnotationConfigApplicationContext startContext(MapCollectorScanCache scanCache,
+                                                                   BufferingApplicationStartup applicationStartup,
+                                                                   Class<?>... componentClasses) {
+        var applicationContext = new AnnotationConfigApplicationContext();
+        applicationContext.setApplicationStartup(applicationStartup);
+        applicationContext.addBeanFactoryPostProcessor(new MapCollectorBeanFactoryPostProcessor(TestCollectAnnotation.class, scanCache));
+        applicationContext.register(componentClasses);
+        applicationContext.refresh();
+        return applicationContext;
+    }
+
+    private static List<String> getStepNames(BufferingApplicationStartup applicationStartup) {
+        return applicationStartup.getBufferedTimeline().getEvents().stream()
+                .map(event -> event.getStartupStep().getName())
+                .toList();
+    }
+
+    static class ScanCacheTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        ScanCacheTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ScanCacheTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect instance1() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 3})
+        public TestClassToCollect instance2() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        public ScanCacheTestMapCollector scanCacheTestMapCollector() {
+            return new ScanCacheTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ExtraInstanceTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = 4)
+        public TestClassToCollect instance4() {
+            return new TestClassToCollect();
+        }
+    }
+}
@@ -2,14 +2,39 @@ package org.invernes.map.collector;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.invernes.map.collector.MapCollectorTestConfiguration.ParallelTestClassToCollect;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.metrics.StartupStep;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -34,4 +59,524 @@ class MapCollectorTest {
         assertTrue(actualMap instanceof Map);
         assertEquals(expectedMap, actualMap);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test for method setBeanFactory of lazy collector. Beans are instantiated on first access")
+    void setBeanFactoryLazyTest() {
+        ConfigurableListableBeanFactory beanFactory = ((ConfigurableApplicationContext) applicationContext).getBeanFactory();
+        var lazyMap = applicationContext.getBean(MapCollectorTestConfiguration.LazyTestMapCollector.class).getMap();
+
+        assertEquals(Set.of(1, 2, 3), lazyMap.keySet());
+        assertFalse(beanFactory.containsSingleton("lazyInstance1"));
+        assertFalse(beanFactory.containsSingleton("lazyInstance2"));
+
+        assertSame(applicationContext.getBean("lazyInstance2"), lazyMap.get(2));
+        assertSame(lazyMap.get(2), lazyMap.get(3));
+        assertFalse(beanFactory.containsSingleton("lazyInstance1"));
+        assertNull(lazyMap.get(4));
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory of parallel collector created by Spring. Beans are collected by names")
+    void setBeanFactoryParallelTest() {
+        var parallelMap = applicationContext.getBean(MapCollectorTestConfiguration.ParallelTestMapCollector.class).getMap();
+
+        assertEquals(Set.of(1, 2, 3), parallelMap.keySet());
+        assertSame(applicationContext.getBean("parallelInstance1"), parallelMap.get(1));
+        assertSame(applicationContext.getBean("parallelInstance2"), parallelMap.get(2));
+        assertSame(parallelMap.get(2), parallelMap.get(3));
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory of parallel collector. Beans are instantiated concurrently")
+    void setBeanFactoryParallelConcurrentTest() {
+        CountDownLatch instantiationLatch = new CountDownLatch(2);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (String beanName : List.of("parallelInstance1", "parallelInstance2")) {
+            beanFactory.registerBeanDefinition(beanName, BeanDefinitionBuilder
+                    .genericBeanDefinition(ParallelTestClassToCollect.class, () -> newParallelTestClassToCollect(instantiationLatch))
+                    .setScope(BeanDefinition.SCOPE_PROTOTYPE)
+                    .getBeanDefinition());
+        }
+        ExecutorService instantiationExecutor = Executors.newFixedThreadPool(2);
+        var parallelTestMapCollector = new MapCollectorTestConfiguration.ParallelTestMapCollector(
+                Map.of(1, "parallelInstance1", 2, "parallelInstance2"), instantiationExecutor);
+
+        try {
+            parallelTestMapCollector.setBeanFactory(beanFactory);
+        } finally {
+            instantiationExecutor.shutdown();
+        }
+
+        assertEquals(Set.of(1, 2), parallelTestMapCollector.getMap().keySet());
+        assertEquals(0, instantiationLatch.getCount());
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory of lazy collector with overridden resolveBean. Beans are resolved by hook on first access")
+    void setBeanFactoryLazyResolveBeanTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("instance4", new RootBeanDefinition(MapCollectorTestConfiguration.FourthTestClassToCollect.class));
+        var resolvingLazyTestMapCollector = new ResolvingLazyTestMapCollector();
+        resolvingLazyTestMapCollector.setBeanFactory(beanFactory);
+        assertEquals(List.of(), resolvingLazyTestMapCollector.resolvedBeanNames);
+
+        assertSame(beanFactory.getBean("instance4"), resolvingLazyTestMapCollector.getMap().get(4));
+        assertSame(beanFactory.getBean("instance4"), resolvingLazyTestMapCollector.getMap().get(4));
+        assertEquals(List.of("instance4"), resolvingLazyTestMapCollector.resolvedBeanNames);
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory of lazy collector, which is also sorted and type-keyed. Exception thrown")
+    void setBeanFactoryLazyIncompatibleModesTest() {
+        var lazySortedTestMapCollector = new LazySortedTestMapCollector();
+
+        var exception = assertThrows(RuntimeException.class,
+                () -> lazySortedTestMapCollector.setBeanFactory(new DefaultListableBeanFactory()));
+        assertEquals(String.format("Lazy collector %s can't be combined with SortedMapCollector, TypeKeyedMapCollector",
+                LazySortedTestMapCollector.class.getName()), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test for parallel collector in application context. Beans are instantiated concurrently outside singleton lock")
+    void afterSingletonsInstantiatedParallelConcurrentTest() {
+        CountDownLatch instantiationLatch = new CountDownLatch(2);
+        ExecutorService instantiationExecutor = Executors.newFixedThreadPool(2);
+        try (var parallelContext = new GenericApplicationContext()) {
+            for (String beanName : List.of("parallelInstance1", "parallelInstance2")) {
+                parallelContext.registerBean(beanName, ParallelTestClassToCollect.class,
+                        () -> newParallelTestClassToCollect(instantiationLatch),
+                        beanDefinition -> beanDefinition.setScope(BeanDefinition.SCOPE_PROTOTYPE));
+            }
+            parallelContext.registerBean(MapCollectorTestConfiguration.ParallelTestMapCollector.class,
+                    () -> new MapCollectorTestConfiguration.ParallelTestMapCollector(
+                            Map.of(1, "parallelInstance1", 2, "parallelInstance2"), instantiationExecutor));
+
+            parallelContext.refresh();
+
+            assertEquals(Set.of(1, 2),
+                    parallelContext.getBean(MapCollectorTestConfiguration.ParallelTestMapCollector.class).getMap().keySet());
+            assertEquals(0, instantiationLatch.getCount());
+        } finally {
+            instantiationExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test for parallel collector of singleton beans in application context. Beans are created sequentially before population")
+    void afterSingletonsInstantiatedParallelSingletonTest() {
+        Set<Thread> instantiationThreads = ConcurrentHashMap.newKeySet();
+        ExecutorService instantiationExecutor = Executors.newFixedThreadPool(2);
+        try (var parallelContext = new GenericApplicationContext()) {
+            parallelContext.registerBean(MapCollectorTestConfiguration.ParallelTestMapCollector.class,
+                    () -> new MapCollectorTestConfiguration.ParallelTestMapCollector(
+                            Map.of(1, "parallelInstance1", 2, "parallelInstance2"), instantiationExecutor));
+            for (String beanName : List.of("parallelInstance1", "parallelInstance2")) {
+                parallelContext.registerBean(beanName, ParallelTestClassToCollect.class, () -> {
+                    instantiationThreads.add(Thread.currentThread());
+                    return new ParallelTestClassToCollect();
+                });
+            }
+
+            parallelContext.refresh();
+
+            var parallelMap = parallelContext.getBean(MapCollectorTestConfiguration.ParallelTestMapCollector.class).getMap();
+            assertSame(parallelContext.getBean("parallelInstance1"), parallelMap.get(1));
+            assertSame(parallelContext.getBean("parallelInstance2"), parallelMap.get(2));
+            assertEquals(Set.of(Thread.currentThread()), instantiationThreads);
+        } finally {
+            instantiationExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Test for method getSortedMap of parallel collector, which population is deferred. Map is populated on access")
+    void getSortedMapParallelDeferredTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (String beanName : List.of("parallelInstance1", "parallelInstance2")) {
+            beanFactory.registerBeanDefinition(beanName, BeanDefinitionBuilder
+                    .genericBeanDefinition(ParallelTestClassToCollect.class, ParallelTestClassToCollect::new)
+                    .getBeanDefinition());
+        }
+        var sortedParallelTestMapCollector = new SortedParallelTestMapCollector();
+        synchronized (beanFactory.getSingletonMutex()) {
+            sortedParallelTestMapCollector.setBeanFactory(beanFactory);
+        }
+
+        var sortedMap = sortedParallelTestMapCollector.getSortedMap();
+
+        assertEquals(List.of(1, 2), List.copyOf(sortedMap.keySet()));
+        assertSame(beanFactory.getBean("parallelInstance1"), sortedMap.get(1));
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory of parallel collector. Failure of the first bean in key order is thrown")
+    void setBeanFactoryParallelFailureTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        for (String beanName : List.of("failingInstance1", "failingInstance2", "parallelInstance3")) {
+            beanFactory.registerBeanDefinition(beanName, BeanDefinitionBuilder
+                    .genericBeanDefinition(ParallelTestClassToCollect.class, () -> {
+                        if (beanName.startsWith("failing")) {
+                            throw new IllegalStateException(beanName);
+                        }
+                        return new ParallelTestClassToCollect();
+                    })
+                    .getBeanDefinition());
+        }
+        var parallelTestMapCollector = new MapCollectorTestConfiguration.ParallelTestMapCollector(
+                Map.of(1, "parallelInstance3", 2, "failingInstance2", 3, "failingInstance1"), null);
+
+        var exception = assertThrows(BeanCreationException.class, () -> parallelTestMapCollector.setBeanFactory(beanFactory));
+
+        assertEquals("failingInstance2", exception.getBeanName());
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals("failingInstance1", ((BeanCreationException) exception.getSuppressed()[0]).getBeanName());
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory with buffered application startup. Population is recorded as startup step")
+    void setBeanFactoryStartupStepTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+        beanFactory.setApplicationStartup(applicationStartup);
+        beanFactory.registerSingleton("parallelInstance1", new ParallelTestClassToCollect());
+        beanFactory.registerSingleton("parallelInstance2", new ParallelTestClassToCollect());
+        var parallelTestMapCollector = new MapCollectorTestConfiguration.ParallelTestMapCollector(
+                Map.of(1, "parallelInstance1", 2, "parallelInstance2", 3, "parallelInstance2"), null);
+        parallelTestMapCollector.setBeanName("parallelTestMapCollector");
+
+        parallelTestMapCollector.setBeanFactory(beanFactory);
+
+        var events = applicationStartup.getBufferedTimeline().getEvents();
+        assertEquals(1, events.size());
+        StartupStep populateStep = events.get(0).getStartupStep();
+        Map<String, String> tags = new HashMap<>();
+        populateStep.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        assertEquals("map-collector.populate", populateStep.getName());
+        assertEquals(Map.of(
+                "beanName", "parallelTestMapCollector",
+                "valueType", ParallelTestClassToCollect.class.getName(),
+                "candidateCount", "2",
+                "collectedCount", "2"
+        ), tags);
+    }
+
+    @Test
+    @DisplayName("Test for method setBeanFactory with buffered application startup. Failed population is recorded as startup step")
+    void setBeanFactoryStartupStepFailureTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10);
+        beanFactory.setApplicationStartup(applicationStartup);
+        var parallelTestMapCollector = new MapCollectorTestConfiguration.ParallelTestMapCollector(
+                Map.of(1, "missingInstance"), null);
+
+        assertThrows(RuntimeException.class, () -> parallelTestMapCollector.setBeanFactory(beanFactory));
+
+        assertTrue(applicationStartup.getBufferedTimeline().getEvents().stream()
+                .anyMatch(event -> event.getStartupStep().getName().equals("map-collector.populate")));
+    }
+
+    @Test
+    @DisplayName("Test for method getMap of metered collector. Lookups are counted and registered in meter registry")
+    void getMapMeteredTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("instance1", MapCollectorTestConfiguration.INSTANCE1);
+        beanFactory.registerSingleton("instance2", MapCollectorTestConfiguration.INSTANCE2);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        var meteredTestMapCollector = new MapCollectorTestConfiguration.MeteredTestMapCollector(
+                Map.of(1, "instance1", 2, "instance2"), new MicrometerMapLookupMetricsSink(meterRegistry));
+        meteredTestMapCollector.setBeanName("meteredTestMapCollector");
+        meteredTestMapCollector.setBeanFactory(beanFactory);
+
+        var meteredMap = meteredTestMapCollector.getMap();
+        assertSame(MapCollectorTestConfiguration.INSTANCE1, meteredMap.get(1));
+        assertSame(MapCollectorTestConfiguration.INSTANCE1, meteredMap.get(1));
+        assertNull(meteredMap.get(3));
+
+        assertEquals(Map.of(1, 2L, 2, 0L), meteredTestMapCollector.getLookupMetrics().getHitsByKey());
+        assertEquals(1, meteredTestMapCollector.getLookupMetrics().getMisses());
+        assertEquals(2.0, meterRegistry.get(MicrometerMapLookupMetricsSink.METER_NAME)
+                .tags("collector", "meteredTestMapCollector", "key", "1", "result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get(MicrometerMapLookupMetricsSink.METER_NAME)
+                .tags("collector", "meteredTestMapCollector", "result", "miss").functionCounter().count());
+        assertNull(applicationContext.getBean(MapCollectorTestConfiguration.TestMapCollector.class).getLookupMetrics());
+    }
+
+    @Test
+    @DisplayName("Test for method getMap of metered collector, which is not a named bean. Meters are tagged with collector class")
+    void getMapMeteredWithoutBeanNameTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("instance1", MapCollectorTestConfiguration.INSTANCE1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        var meteredTestMapCollector = new MapCollectorTestConfiguration.MeteredTestMapCollector(
+                Map.of(1, "instance1"), new MicrometerMapLookupMetricsSink(meterRegistry));
+        meteredTestMapCollector.setBeanFactory(beanFactory);
+
+        assertSame(MapCollectorTestConfiguration.INSTANCE1, meteredTestMapCollector.getMap().get(1));
+
+        assertEquals(1.0, meterRegistry.get(MicrometerMapLookupMetricsSink.METER_NAME)
+                .tags("collector", MapCollectorTestConfiguration.MeteredTestMapCollector.class.getName(), "key", "1", "result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Test for method refresh. Registered and removed beans are reflected in previously returned map")
+    void refreshTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        var fourthInstance = new MapCollectorTestConfiguration.FourthTestClassToCollect();
+        var fifthInstance = new MapCollectorTestConfiguration.FifthTestClassToCollect();
+        beanFactory.registerSingleton("instance4", fourthInstance);
+        var refreshableTestMapCollector = new MapCollectorTestConfiguration.RefreshableTestMapCollector();
+        refreshableTestMapCollector.setBeanFactory(beanFactory);
+        var refreshableMap = refreshableTestMapCollector.getMap();
+        assertEquals(Map.of(4, fourthInstance), refreshableMap);
+
+        beanFactory.registerSingleton("instance5", fifthInstance);
+        assertEquals(Map.of(4, fourthInstance), refreshableMap);
+        refreshableTestMapCollector.refresh();
+        assertEquals(Map.of(4, fourthInstance, 5, fifthInstance), refreshableMap);
+
+        beanFactory.destroySingleton("instance4");
+        refreshableTestMapCollector.refresh();
+        assertEquals(Map.of(5, fifthInstance), refreshableMap);
+        assertNull(refreshableMap.get(4));
+        assertThrows(UnsupportedOperationException.class, () -> refreshableMap.put(4, fourthInstance));
+    }
+
+    @Test
+    @DisplayName("Test for method refresh of sorted collector. Sorted map is published together with map")
+    void refreshSortedTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        var fourthInstance = new MapCollectorTestConfiguration.FourthTestClassToCollect();
+        var fifthInstance = new MapCollectorTestConfiguration.FifthTestClassToCollect();
+        beanFactory.registerSingleton("instance4", fourthInstance);
+        var refreshableSortedTestMapCollector = new RefreshableSortedTestMapCollector();
+        refreshableSortedTestMapCollector.setBeanFactory(beanFactory);
+        var sortedMap = refreshableSortedTestMapCollector.getSortedMap();
+
+        beanFactory.registerSingleton("instance5", fifthInstance);
+        refreshableSortedTestMapCollector.refresh();
+
+        assertEquals(Map.of(4, fourthInstance), sortedMap);
+        assertEquals(Map.of(4, fourthInstance, 5, fifthInstance), refreshableSortedTestMapCollector.getSortedMap());
+        assertEquals(refreshableSortedTestMapCollector.getMap(), refreshableSortedTestMapCollector.getSortedMap());
+        assertSame(fifthInstance, refreshableSortedTestMapCollector.getSortedMap().ceilingEntry(5).getValue());
+    }
+
+    @Test
+    @DisplayName("Test for method getMap of refreshable collector. Modes are resolved once, not on every access to map")
+    void getMapModesResolvedOnceTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("instance4", new MapCollectorTestConfiguration.FourthTestClassToCollect());
+        var countingTestMapCollector = new CountingRefreshableTestMapCollector();
+        countingTestMapCollector.setBeanFactory(beanFactory);
+
+        var refreshableMap = countingTestMapCollector.getMap();
+        countingTestMapCollector.refresh();
+
+        assertSame(refreshableMap, countingTestMapCollector.getMap());
+        assertEquals(1, countingTestMapCollector.refreshableResolutionCount);
+    }
+
+    @Test
+    @DisplayName("Test for method refresh of collector, which is not refreshable. Exception thrown")
+    void refreshNotRefreshableTest() {
+        var testMapCollector = applicationContext.getBean(MapCollectorTestConfiguration.TestMapCollector.class);
+
+        var exception = assertThrows(RuntimeException.class, testMapCollector::refresh);
+
+        assertEquals(String.format("Collector %s is not refreshable: mark it with RefreshableMapCollector",
+                MapCollectorTestConfiguration.TestMapCollector.class.getName()), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test for method getSortedMap. Beans are found by the greatest key less than or equal to the given one")
+    void getSortedMapTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        var fourthInstance = new MapCollectorTestConfiguration.FourthTestClassToCollect();
+        var fifthInstance = new MapCollectorTestConfiguration.FifthTestClassToCollect();
+        beanFactory.registerSingleton("instance5", fifthInstance);
+        beanFactory.registerSingleton("instance4", fourthInstance);
+        var sortedTestMapCollector = new MapCollectorTestConfiguration.SortedTestMapCollector();
+        sortedTestMapCollector.setBeanFactory(beanFactory);
+
+        var sortedMap = sortedTestMapCollector.getSortedMap();
+        assertSame(sortedMap, sortedTestMapCollector.getMap());
+        assertEquals(List.of(4, 5), List.copyOf(sortedMap.keySet()));
+        assertNull(sortedMap.floorValue(3));
+        assertSame(fourthInstance, sortedMap.floorValue(4));
+        assertSame(fifthInstance, sortedMap.floorValue(100));
+        assertSame(fifthInstance, sortedMap.ceilingValue(5));
+        assertEquals(List.of(fourthInstance), sortedMap.rangeValues(0, 5));
+
+        var testMapCollector = applicationContext.getBean(MapCollectorTestConfiguration.TestMapCollector.class);
+        var exception = assertThrows(RuntimeException.class, testMapCollector::getSortedMap);
+        assertEquals(String.format("Collector %s has no sorted map: mark it with SortedMapCollector",
+                MapCollectorTestConfiguration.TestMapCollector.class.getName()), exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Test for method getBeanNamesByKey with generated index. Unregistered beans skipped, beans not in index are not scanned")
+    void getBeanNamesByKeyTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("instance4", new RootBeanDefinition(MapCollectorTestConfiguration.FourthTestClassToCollect.class));
+        var indexedTestMapCollector = new IndexedTestMapCollector(Map.of(4, "instance4", 6, "conditionalInstance"));
+
+        indexedTestMapCollector.setBeanFactory(beanFactory);
+        assertEquals(Map.of(4, beanFactory.getBean("instance4")), indexedTestMapCollector.getMap());
+
+        beanFactory.registerBeanDefinition("instance5", new RootBeanDefinition(MapCollectorTestConfiguration.FifthTestClassToCollect.class));
+        indexedTestMapCollector.setBeanFactory(beanFactory);
+        assertEquals(Map.of(4, beanFactory.getBean("instance4")), indexedTestMapCollector.getMap());
+    }
+
+    @Test
+    @DisplayName("Test for method getBeanNamesByKey with generated index and completeness verification. Index not covering beans ignored")
+    void getBeanNamesByKeyVerifiedCompletenessTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("instance4", new RootBeanDefinition(MapCollectorTestConfiguration.FourthTestClassToCollect.class));
+        var verifiedIndexedTestMapCollector = new VerifiedIndexedTestMapCollector(Map.of(4, "instance4"));
+
+        verifiedIndexedTestMapCollector.setBeanFactory(beanFactory);
+        assertEquals(Map.of(4, beanFactory.getBean("instance4")), verifiedIndexedTestMapCollector.getMap());
+
+        beanFactory.registerBeanDefinition("instance5", new RootBeanDefinition(MapCollectorTestConfiguration.FifthTestClassToCollect.class));
+        verifiedIndexedTestMapCollector.setBeanFactory(beanFactory);
+        assertEquals(Map.of(4, beanFactory.getBean("instance4"), 5, beanFactory.getBean("instance5")),
+                verifiedIndexedTestMapCollector.getMap());
+    }
+
+    private static ParallelTestClassToCollect newParallelTestClassToCollect(CountDownLatch instantiationLatch) {
+        try {
+            return new ParallelTestClassToCollect(instantiationLatch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @LazyMapCollector
+    private static class ResolvingLazyTestMapCollector extends MapCollector<Integer, MapCollectorTestConfiguration.TestClassToCollect> {
+
+        private final List<String> resolvedBeanNames = new ArrayList<>();
+
+        @Override
+        protected Map<Integer, String> getBeanNamesByKey(BeanFactory beanFactory) {
+            return Map.of(4, "instance4");
+        }
+
+        @Override
+        protected Object resolveBean(String beanName, Class<?> beanType, BeanFactory beanFactory) {
+            resolvedBeanNames.add(beanName);
+            return super.resolveBean(beanName, beanType, beanFactory);
+        }
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @LazyMapCollector
+    @SortedMapCollector
+    @TypeKeyedMapCollector
+    private static class LazySortedTestMapCollector extends MapCollector<Class<?>, MapCollectorTestConfiguration.TestClassToCollect> {
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @SortedMapCollector
+    @ParallelMapCollector
+    private static class SortedParallelTestMapCollector extends MapCollector<Integer, ParallelTestClassToCollect> {
+
+        @Override
+        protected Map<Integer, String> getBeanNamesByKey(BeanFactory beanFactory) {
+            return Map.of(1, "parallelInstance1", 2, "parallelInstance2");
+        }
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @SortedMapCollector
+    @RefreshableMapCollector
+    private static class RefreshableSortedTestMapCollector
+            extends AnnotationMapCollector<Integer, MapCollectorTestConfiguration.TestClassToCollect> {
+
+        RefreshableSortedTestMapCollector() {
+            super(MapCollectorTestConfiguration.TestCollectAnnotation.class, "keys");
+        }
+    }
+
+    @RefreshableMapCollector
+    private static class CountingRefreshableTestMapCollector
+            extends AnnotationMapCollector<Integer, MapCollectorTestConfiguration.TestClassToCollect> {
+
+        private int refreshableResolutionCount;
+
+        CountingRefreshableTestMapCollector() {
+            super(MapCollectorTestConfiguration.TestCollectAnnotation.class, "keys");
+        }
+
+        @Override
+        protected boolean isRefreshable() {
+            refreshableResolutionCount++;
+            return super.isRefreshable();
+        }
+    }
+
+    @IndexedMapCollector(annotation = MapCollectorTestConfiguration.TestCollectAnnotation.class, keyAttribute = "keys")
+    private static class IndexedTestMapCollector
+            extends AnnotationMapCollector<Integer, MapCollectorTestConfiguration.TestClassToCollect> {
+
+        private final Map<Integer, String> indexedBeanNamesByKey;
+
+        IndexedTestMapCollector(Map<Integer, String> indexedBeanNamesByKey) {
+            super(MapCollectorTestConfiguration.TestCollectAnnotation.class, "keys");
+            this.indexedBeanNamesByKey = indexedBeanNamesByKey;
+        }
+
+        @Override
+        protected MapCollectorIndex<Integer> getIndex() {
+            return () -> indexedBeanNamesByKey;
+        }
+    }
+
+    @IndexedMapCollector(annotation = MapCollectorTestConfiguration.TestCollectAnnotation.class, keyAttribute = "keys",
+            verifyCompleteness = true)
+    private static class VerifiedIndexedTestMapCollector
+            extends AnnotationMapCollector<Integer, MapCollectorTestConfiguration.TestClassToCollect> {
+
+        private final Map<Integer, String> indexedBeanNamesByKey;
+
+        VerifiedIndexedTestMapCollector(Map<Integer, String> indexedBeanNamesByKey) {
+            super(MapCollectorTestConfiguration.TestCollectAnnotation.class, "keys");
+            this.indexedBeanNamesByKey = indexedBeanNamesByKey;
+        }
+
+        @Override
+        protected MapCollectorIndex<Integer> getIndex() {
+            return () -> indexedBeanNamesByKey;
+        }
+    }
+}
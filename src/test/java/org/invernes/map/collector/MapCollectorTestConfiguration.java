@@ -1,9 +1,11 @@
 package org.invernes.map.collector;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ResolvableType;
 
 import java.lang.annotation.ElementType;
@@ -12,6 +14,9 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @TestConfiguration
 class MapCollectorTestConfiguration {
@@ -48,16 +53,73 @@ class MapCollectorTestConfiguration {
         return new TestMapCollector();
     }
 
+    @Bean
+    @Lazy
+    @LazyTestCollectAnnotation(keys = 1)
+    public LazyTestClassToCollect lazyInstance1() {
+        return new LazyTestClassToCollect();
+    }
+
+    @Bean
+    @Lazy
+    @LazyTestCollectAnnotation(keys = {2, 3})
+    public LazyTestClassToCollect lazyInstance2() {
+        return new LazyTestClassToCollect();
+    }
+
+    @Bean
+    public LazyTestMapCollector lazyTestMapCollector() {
+        return new LazyTestMapCollector();
+    }
+
+    @Bean
+    public ParallelTestClassToCollect parallelInstance1() {
+        return new ParallelTestClassToCollect();
+    }
+
+    @Bean
+    public ParallelTestClassToCollect parallelInstance2() {
+        return new ParallelTestClassToCollect();
+    }
+
+    @Bean
+    public ParallelTestMapCollector parallelTestMapCollector() {
+        return new ParallelTestMapCollector(Map.of(1, "parallelInstance1", 2, "parallelInstance2", 3, "parallelInstance2"), null);
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target({ElementType.TYPE, ElementType.METHOD})
     public @interface TestCollectAnnotation {
         int[] keys();
     }
 
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public @interface LazyTestCollectAnnotation {
+        int[] keys();
+    }
+
     static class TestClassToCollect {
 
     }
 
+    static class LazyTestClassToCollect {
+
+    }
+
+    static class ParallelTestClassToCollect {
+
+        ParallelTestClassToCollect() {
+        }
+
+        ParallelTestClassToCollect(CountDownLatch instantiationLatch) throws InterruptedException {
+            instantiationLatch.countDown();
+            if (!instantiationLatch.await(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Beans were not instantiated concurrently");
+            }
+        }
+    }
+
     static class TestMapCollector extends MapCollector<Integer, TestClassToCollect> {
 
         @Override
@@ -87,4 +149,116 @@ class MapCollectorTestConfiguration {
             }
         }
     }
-}
\ No newline at end of file
+
+    @LazyMapCollector
+    static class LazyTestMapCollector extends MapCollector<Integer, LazyTestClassToCollect> {
+
+        @Override
+        protected Map<Integer, String> getBeanNamesByKey(BeanFactory beanFactory) {
+            ConfigurableListableBeanFactory listableBeanFactory = (ConfigurableListableBeanFactory) beanFactory;
+            Map<Integer, String> beanNamesByKey = new HashMap<>();
+            for (String beanName : listableBeanFactory.getBeanNamesForAnnotation(LazyTestCollectAnnotation.class)) {
+                if (listableBeanFactory.isTypeMatch(beanName, LazyTestClassToCollect.class)) {
+                    LazyTestCollectAnnotation annotationOnBean =
+                            listableBeanFactory.findAnnotationOnBean(beanName, LazyTestCollectAnnotation.class, false);
+                    for (int key : annotationOnBean.keys()) {
+                        beanNamesByKey.put(key, beanName);
+                    }
+                }
+            }
+            return beanNamesByKey;
+        }
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @ParallelMapCollector
+    @RequiredArgsConstructor
+    static class ParallelTestMapCollector extends MapCollector<Integer, ParallelTestClassToCollect> {
+
+        private final Map<Integer, String> beanNamesByKey;
+        private final Executor instantiationExecutor;
+
+        @Override
+        protected Map<Integer, String> getBeanNamesByKey(BeanFactory beanFactory) {
+            return beanNamesByKey;
+        }
+
+        @Override
+        protected Executor getInstantiationExecutor() {
+            return instantiationExecutor;
+        }
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @MeteredMapCollector
+    @RequiredArgsConstructor
+    static class MeteredTestMapCollector extends MapCollector<Integer, TestClassToCollect> {
+
+        private final Map<Integer, String> beanNamesByKey;
+        private final MapLookupMetricsSink lookupMetricsSink;
+
+        @Override
+        protected Map<Integer, String> getBeanNamesByKey(BeanFactory beanFactory) {
+            return beanNamesByKey;
+        }
+
+        @Override
+        protected MapLookupMetricsSink getLookupMetricsSink() {
+            return lookupMetricsSink;
+        }
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @TestCollectAnnotation(keys = 4)
+    static class FourthTestClassToCollect extends TestClassToCollect {
+
+    }
+
+    @TestCollectAnnotation(keys = 5)
+    static class FifthTestClassToCollect extends TestClassToCollect {
+
+    }
+
+    @RefreshableMapCollector
+    static class RefreshableTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        RefreshableTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+    }
+
+    @SortedMapCollector
+    static class SortedTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        SortedTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class MeteredMap")
+class MeteredMapTest {
+
+    private final MeteredMap<Integer, String> sut = new MeteredMap<>(FrozenMaps.freeze(Map.of(1, "one", 2, "two", 3, "three")));
+
+    @Test
+    @DisplayName("Case when values are got by existing and missing keys. Hits are counted per key, misses in total")
+    void get_HitsAndMissesCounted() {
+        assertEquals("one", sut.get(1));
+        assertEquals("one", sut.get(1));
+        assertEquals("two", sut.get(2));
+        assertNull(sut.get(4));
+        assertNull(sut.get("1"));
+
+        assertEquals(2, sut.getHits(1));
+        assertEquals(1, sut.getHits(2));
+        assertEquals(0, sut.getHits(3));
+        assertEquals(0, sut.getHits(4));
+        assertEquals(2, sut.getMisses());
+        assertEquals(Map.of(1, 2L, 2, 1L, 3, 0L), sut.getHitsByKey());
+    }
+
+    @Test
+    @DisplayName("Case when delegate finds keys by comparator. Key, equal by comparator, is counted as hit of delegate key")
+    void get_KeysComparedByComparator() {
+        var caseInsensitiveSut = new MeteredMap<>(SortedArrayMap.of(Map.of("one", 1, "two", 2), String.CASE_INSENSITIVE_ORDER));
+
+        assertEquals(1, caseInsensitiveSut.get("ONE"));
+        assertEquals(1, caseInsensitiveSut.get("one"));
+        assertNull(caseInsensitiveSut.get("three"));
+
+        assertEquals(2, caseInsensitiveSut.getHits("one"));
+        assertEquals(0, caseInsensitiveSut.getHits("two"));
+        assertEquals(1, caseInsensitiveSut.getMisses());
+    }
+
+    @Test
+    @DisplayName("Case when delegate contains entries of ancestor. Counters of ancestor keys are created on the first hit")
+    void get_AncestorKeysCountedOnHit() {
+        Map<Integer, String> ancestorEntries = FrozenMaps.freeze(Map.of(1, "one", 2, "two"));
+        Map<Integer, String> ownEntries = FrozenMaps.freeze(Map.of(3, "three"));
+        var childSut = new MeteredMap<>(OverlayMap.of(ancestorEntries, ownEntries), ownEntries);
+
+        assertEquals(Map.of(3, 0L), childSut.getHitsByKey());
+        assertEquals("one", childSut.get(1));
+        assertEquals("one", childSut.get(1));
+        assertEquals("three", childSut.get(3));
+
+        assertEquals(2, childSut.getHits(1));
+        assertEquals(0, childSut.getHits(2));
+        assertEquals(Map.of(1, 2L, 3, 1L), childSut.getHitsByKey());
+    }
+
+    @Test
+    @DisplayName("Case when methods other than get are called. Lookups are not counted")
+    void otherMethods_NotCounted() {
+        assertTrue(sut.containsKey(1));
+        assertEquals(3, sut.size());
+        assertTrue(sut.equals(Map.of(1, "one", 2, "two", 3, "three")));
+
+        assertEquals(Map.of(1, 0L, 2, 0L, 3, 0L), sut.getHitsByKey());
+        assertEquals(0, sut.getMisses());
+    }
+
+    @Test
+    @DisplayName("Case when values are got concurrently. No lookups are lost")
+    void get_ConcurrentLookups() throws Exception {
+        int threadCount = 4;
+        int lookupCount = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            var futures = IntStream.range(0, threadCount)
+                    .mapToObj(thread -> executor.submit(() -> {
+                        for (int i = 0; i < lookupCount; i++) {
+                            sut.get(i % 4 + 1);
+                        }
+                    }))
+                    .toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(Map.of(1, 10_000L, 2, 10_000L, 3, 10_000L), sut.getHitsByKey());
+        assertEquals(10_000L, sut.getMisses());
+    }
+}
@@ -0,0 +1,126 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class MethodMapCollector")
+class MethodMapCollectorTest {
+
+    @Test
+    @DisplayName("Case when beans have annotated methods. Methods are bound to functional interface by each key")
+    void setBeanFactory_AnnotatedMethodsBound() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(MethodTestConfiguration.class)) {
+            Map<String, MessageHandler> actualMap = applicationContext.getBean(MethodTestMapCollector.class).getMap();
+
+            assertEquals(4, actualMap.size());
+            assertEquals(5, actualMap.get("length").handle("hello"));
+            assertEquals(5, actualMap.get("size").handle("hello"));
+            assertEquals("HELLO", actualMap.get("upper").handle("hello"));
+            assertEquals("prefix:hello", actualMap.get("prefix").handle("hello"));
+            assertTrue(actualMap.get("length").getClass().isHidden());
+        }
+    }
+
+    @Test
+    @DisplayName("Case when annotated method doesn't match functional interface. Exception is thrown")
+    void setBeanFactory_IncompatibleMethod() {
+        var exception = assertThrows(BeanCreationException.class,
+                () -> new AnnotationConfigApplicationContext(IncompatibleMethodTestConfiguration.class).close());
+
+        Throwable rootCause = exception.getMostSpecificCause();
+        assertTrue(rootCause.getMessage().contains("has 2 parameters, but " + MessageHandler.class.getName() + " takes 1"),
+                rootCause.getMessage());
+    }
+
+    @FunctionalInterface
+    interface MessageHandler {
+
+        Object handle(String message);
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface HandlesMessage {
+
+        String[] value();
+    }
+
+    static class MethodTestMapCollector extends MethodMapCollector<String, MessageHandler> {
+
+        MethodTestMapCollector() {
+            super(HandlesMessage.class, "value");
+        }
+    }
+
+    static class StringHandlers {
+
+        private final String prefix;
+
+        StringHandlers(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @HandlesMessage({"length", "size"})
+        int length(String message) {
+            return message.length();
+        }
+
+        @HandlesMessage("prefix")
+        private String prefix(CharSequence message) {
+            return prefix + message;
+        }
+
+        @HandlesMessage("upper")
+        static String upper(String message) {
+            return message.toUpperCase();
+        }
+    }
+
+    static class IncompatibleHandlers {
+
+        @HandlesMessage("concat")
+        String concat(String first, String second) {
+            return first + second;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MethodTestConfiguration {
+
+        @Bean
+        public MethodTestMapCollector methodTestMapCollector() {
+            return new MethodTestMapCollector();
+        }
+
+        @Bean
+        public StringHandlers stringHandlers() {
+            return new StringHandlers("prefix:");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class IncompatibleMethodTestConfiguration {
+
+        @Bean
+        public MethodTestMapCollector methodTestMapCollector() {
+            return new MethodTestMapCollector();
+        }
+
+        @Bean
+        public IncompatibleHandlers incompatibleHandlers() {
+            return new IncompatibleHandlers();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestClassToCollect;
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestCollectAnnotation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class MultiMapCollector")
+class MultiMapCollectorTest {
+
+    @Test
+    @DisplayName("Case when several beans have the same key. All beans are put by the key in order")
+    void setBeanFactory_SeveralBeansWithSameKey() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(MultiMapTestConfiguration.class)) {
+            Map<Integer, List<TestClassToCollect>> actualMap = applicationContext.getBean(TestMultiMapCollector.class).getMap();
+
+            Object first = applicationContext.getBean("first");
+            Object second = applicationContext.getBean("second");
+            Object unordered = applicationContext.getBean("unordered");
+            Object ordered = applicationContext.getBean("ordered");
+            assertEquals(Set.of(1, 2, 3), actualMap.keySet());
+            assertEquals(List.of(ordered, first, second, unordered), actualMap.get(1));
+            assertEquals(List.of(first, unordered), actualMap.get(2));
+            assertEquals(List.of(second), actualMap.get(3));
+            assertNull(actualMap.get(4));
+        }
+    }
+
+    @Test
+    @DisplayName("Case when values of key are got. Values are unmodifiable random access list, the same for each lookup")
+    void getMap_ValuesAreUnmodifiableSlices() {
+        try (var applicationContext = new AnnotationConfigApplicationContext(MultiMapTestConfiguration.class)) {
+            Map<Integer, List<TestClassToCollect>> actualMap = applicationContext.getBean(TestMultiMapCollector.class).getMap();
+
+            List<TestClassToCollect> values = actualMap.get(1);
+            assertSame(values, actualMap.get(1));
+            assertInstanceOf(RandomAccess.class, values);
+            List<TestClassToCollect> iteratedValues = new ArrayList<>();
+            values.forEach(iteratedValues::add);
+            assertEquals(values, iteratedValues);
+            assertThrows(UnsupportedOperationException.class, () -> values.add(new TestClassToCollect()));
+            assertThrows(UnsupportedOperationException.class, () -> values.set(0, new TestClassToCollect()));
+            assertThrows(IndexOutOfBoundsException.class, () -> values.get(4));
+            assertEquals(List.of(applicationContext.getBean("second")), actualMap.get(3).subList(0, 1));
+        }
+    }
+
+    static class TestMultiMapCollector extends MultiMapCollector<Integer, TestClassToCollect> {
+
+        @Override
+        protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+            return ((ListableBeanFactory) beanFactory).getBeansWithAnnotation(TestCollectAnnotation.class);
+        }
+
+        @Override
+        protected Collection<Integer> getKeys(String beanName, Object bean, BeanFactory beanFactory) {
+            TestCollectAnnotation annotationOnBean =
+                    ((ListableBeanFactory) beanFactory).findAnnotationOnBean(beanName, TestCollectAnnotation.class);
+            return Arrays.stream(annotationOnBean.keys()).boxed().toList();
+        }
+    }
+
+    static class OrderedTestClassToCollect extends TestClassToCollect implements Ordered {
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MultiMapTestConfiguration {
+
+        @Bean
+        @TestCollectAnnotation(keys = {1, 2})
+        public TestClassToCollect unordered() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @Order(2)
+        @TestCollectAnnotation(keys = {1, 3})
+        public TestClassToCollect second() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @Order(1)
+        @TestCollectAnnotation(keys = {1, 2})
+        public TestClassToCollect first() {
+            return new TestClassToCollect();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect ordered() {
+            return new OrderedTestClassToCollect();
+        }
+
+        @Bean
+        public TestMultiMapCollector testMultiMapCollector() {
+            return new TestMultiMapCollector();
+        }
+    }
+}
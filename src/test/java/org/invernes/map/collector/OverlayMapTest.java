@@ -0,0 +1,127 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestClassToCollect;
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestCollectAnnotation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class OverlayMap")
+class OverlayMapTest {
+
+    @Test
+    @DisplayName("Case when overlay is put over overlay. Overlays are flattened, base is shared")
+    void of_OverlayFlattened() {
+        Map<Integer, String> rootMap = FrozenMaps.freeze(Map.of(1, "root1", 2, "root2", 3, "root3"));
+
+        Map<Integer, String> childMap = OverlayMap.of(rootMap, FrozenMaps.freeze(Map.of(2, "child2", 4, "child4")));
+        Map<Integer, String> grandchildMap = OverlayMap.of(childMap, FrozenMaps.freeze(Map.of(4, "grandchild4", 5, "grandchild5")));
+
+        assertSame(rootMap, OverlayMap.of(rootMap, Map.of()));
+        assertEquals(Map.of(1, "root1", 2, "child2", 3, "root3", 4, "child4"), childMap);
+        assertEquals(Map.of(1, "root1", 2, "child2", 3, "root3", 4, "grandchild4", 5, "grandchild5"), grandchildMap);
+        OverlayMap<Integer, String> grandchildOverlayMap = assertInstanceOf(OverlayMap.class, grandchildMap);
+        assertSame(rootMap, grandchildOverlayMap.getBase());
+        assertEquals(Map.of(2, "child2", 4, "grandchild4", 5, "grandchild5"), grandchildOverlayMap.getOverlay());
+        assertEquals(5, grandchildMap.size());
+        assertTrue(grandchildMap.containsKey(1));
+        assertNull(grandchildMap.get(6));
+        assertThrows(UnsupportedOperationException.class, () -> grandchildMap.put(6, "6"));
+    }
+
+    @Test
+    @DisplayName("Case when hierarchical collector is in parent and child contexts. Child map shares map of parent collector")
+    void setBeanFactory_ChildContextSharesParentMap() {
+        try (var parentContext = new AnnotationConfigApplicationContext(ParentTestConfiguration.class);
+             var childContext = new AnnotationConfigApplicationContext();
+             var emptyChildContext = new AnnotationConfigApplicationContext()) {
+            childContext.setParent(parentContext);
+            childContext.register(ChildTestConfiguration.class);
+            childContext.refresh();
+            emptyChildContext.setParent(parentContext);
+            emptyChildContext.register(EmptyChildTestConfiguration.class);
+            emptyChildContext.refresh();
+
+            var parentMap = parentContext.getBean(HierarchicalTestMapCollector.class).getMap();
+            var childMap = childContext.getBean(HierarchicalTestMapCollector.class).getMap();
+            var emptyChildMap = emptyChildContext.getBean(HierarchicalTestMapCollector.class).getMap();
+
+            assertEquals(Map.of(1, ParentTestConfiguration.INSTANCE1, 2, ParentTestConfiguration.INSTANCE2), parentMap);
+            assertEquals(Map.of(1, ParentTestConfiguration.INSTANCE1, 2, ChildTestConfiguration.INSTANCE2,
+                    3, ChildTestConfiguration.INSTANCE3), childMap);
+            assertSame(parentMap, assertInstanceOf(OverlayMap.class, childMap).getBase());
+            assertSame(parentMap, emptyChildMap);
+        }
+    }
+
+    @HierarchicalMapCollector
+    static class HierarchicalTestMapCollector extends AnnotationMapCollector<Integer, TestClassToCollect> {
+
+        HierarchicalTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ParentTestConfiguration {
+
+        static final TestClassToCollect INSTANCE1 = new TestClassToCollect();
+        static final TestClassToCollect INSTANCE2 = new TestClassToCollect();
+
+        @Bean
+        public HierarchicalTestMapCollector hierarchicalTestMapCollector() {
+            return new HierarchicalTestMapCollector();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = 1)
+        public TestClassToCollect parentInstance1() {
+            return INSTANCE1;
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = 2)
+        public TestClassToCollect parentInstance2() {
+            return INSTANCE2;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ChildTestConfiguration {
+
+        static final TestClassToCollect INSTANCE2 = new TestClassToCollect();
+        static final TestClassToCollect INSTANCE3 = new TestClassToCollect();
+
+        @Bean
+        public HierarchicalTestMapCollector hierarchicalTestMapCollector() {
+            return new HierarchicalTestMapCollector();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = 2)
+        public TestClassToCollect childInstance2() {
+            return INSTANCE2;
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = 3)
+        public TestClassToCollect childInstance3() {
+            return INSTANCE3;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class EmptyChildTestConfiguration {
+
+        @Bean
+        public HierarchicalTestMapCollector hierarchicalTestMapCollector() {
+            return new HierarchicalTestMapCollector();
+        }
+    }
+}
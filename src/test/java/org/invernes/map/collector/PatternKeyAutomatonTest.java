@@ -0,0 +1,77 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class PatternKeyAutomaton")
+class PatternKeyAutomatonTest {
+
+    @Test
+    @DisplayName("Case when several patterns match key. Pattern with more literal characters, then with fewer wildcards wins")
+    void match_Precedence() {
+        var sut = new PatternKeyAutomaton<>(Map.of(
+                "orders.eu.created", "exact",
+                "orders.*.created", "anyRegion",
+                "orders.e?.*", "regionPrefix",
+                "orders.*", "anySegment",
+                "orders.**", "prefix",
+                "**", "fallback"), '.', "collector");
+
+        assertEquals("exact", sut.match("orders.eu.created"));
+        assertEquals("anyRegion", sut.match("orders.us.created"));
+        assertEquals("regionPrefix", sut.match("orders.eu.deleted"));
+        assertEquals("anySegment", sut.match("orders.archive"));
+        assertEquals("anySegment", sut.match("orders."));
+        assertEquals("prefix", sut.match("orders.us.west.created"));
+        assertEquals("prefix", sut.match("orders.us.deleted"));
+        assertEquals("fallback", sut.match("payments.captured"));
+        assertEquals("fallback", sut.match(""));
+    }
+
+    @Test
+    @DisplayName("Case when segment wildcards are used. Wildcards don't match separator")
+    void match_SegmentWildcards() {
+        var sut = new PatternKeyAutomaton<>(Map.of("orders.*.created", 1, "заказ.?", 2, "a*b*c", 3), '.', "collector");
+
+        assertEquals(1, sut.match(new StringBuilder("orders.eu.created")));
+        assertEquals(1, sut.match("orders..created"));
+        assertNull(sut.match("orders.eu.west.created"));
+        assertNull(sut.match("orders.eu.created.v2"));
+        assertEquals(2, sut.match("заказ.1"));
+        assertNull(sut.match("заказ.."));
+        assertNull(sut.match("заказ.12"));
+        assertEquals(3, sut.match("abc"));
+        assertEquals(3, sut.match("aXbbYbc"));
+        assertNull(sut.match("aXb.c"));
+    }
+
+    @Test
+    @DisplayName("Case when many patterns are registered. Each key is matched by its own pattern")
+    void match_ManyPatterns() {
+        Map<String, Integer> entries = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            entries.put("topic" + i + ".*", i);
+        }
+        var sut = new PatternKeyAutomaton<>(entries, '.', "collector");
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, sut.match("topic" + i + ".event"));
+        }
+        assertNull(sut.match("topic1000.event"));
+        assertTrue(sut.getStateCount() < 10_000);
+    }
+
+    @Test
+    @DisplayName("Case when key is not String. Exception is thrown")
+    void constructor_NotStringKey() {
+        var exception = assertThrows(RuntimeException.class,
+                () -> new PatternKeyAutomaton<>(Map.of(1, "one"), '.', "collector"));
+
+        assertEquals("Key 1 of pattern-keyed collector collector is not a String", exception.getMessage());
+    }
+}
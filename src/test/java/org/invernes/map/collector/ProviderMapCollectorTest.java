@@ -0,0 +1,160 @@
+package org.invernes.map.collector;
+
+import org.invernes.map.collector.MapCollectorTestConfiguration.TestCollectAnnotation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.support.SimpleThreadScope;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class ProviderMapCollector")
+class ProviderMapCollectorTest {
+
+    private static final String THREAD_SCOPE = "thread";
+
+    @Test
+    @DisplayName("Case when prototype and singleton beans are collected. Beans are instantiated on retrieval, prototypes are pooled")
+    void setBeanFactory_PrototypeAndSingletonProviders() {
+        CountingHandler.INSTANCES.set(0);
+        CountingHandler.DESTROYED.set(0);
+        try (var applicationContext = new AnnotationConfigApplicationContext(ProviderTestConfiguration.class)) {
+            var actualMap = applicationContext.getBean(ProviderTestMapCollector.class).getMap();
+            // only eager singleton is instantiated
+            assertEquals(1, CountingHandler.INSTANCES.get());
+            assertNull(applicationContext.getBeanFactory().getBeanDefinition("providerTestMapCollector").getDependsOn());
+
+            BeanProvider<CountingHandler> prototypeProvider = actualMap.get(1);
+            assertEquals("prototypeHandler", prototypeProvider.getBeanName());
+            assertFalse(prototypeProvider.isSingleton());
+            assertTrue(prototypeProvider.isPooled());
+            CountingHandler first = prototypeProvider.get();
+            CountingHandler second = prototypeProvider.get();
+            assertNotSame(first, second);
+            prototypeProvider.release(first);
+            assertEquals(0, CountingHandler.DESTROYED.get());
+            // pool is full, released instance is destroyed
+            prototypeProvider.release(second);
+            assertEquals(1, CountingHandler.DESTROYED.get());
+            assertSame(first, prototypeProvider.get());
+            assertNotSame(second, prototypeProvider.get());
+
+            BeanProvider<CountingHandler> singletonProvider = actualMap.get(2);
+            assertTrue(singletonProvider.isSingleton());
+            assertFalse(singletonProvider.isPooled());
+            assertSame(applicationContext.getBean("singletonHandler"), singletonProvider.get());
+            assertSame(singletonProvider.get(), actualMap.get(3).get());
+        }
+    }
+
+    @Test
+    @DisplayName("Case when bean of custom scope is collected. Instance of current scope is returned, instances are not pooled")
+    void setBeanFactory_CustomScopeProvider() throws Exception {
+        CountingHandler.DESTROYED.set(0);
+        try (var applicationContext = new AnnotationConfigApplicationContext()) {
+            applicationContext.getBeanFactory().registerScope(THREAD_SCOPE, new SimpleThreadScope());
+            applicationContext.register(ScopedProviderTestConfiguration.class);
+            applicationContext.refresh();
+
+            BeanProvider<CountingHandler> scopedProvider = applicationContext.getBean(ProviderTestMapCollector.class).getMap().get(1);
+            assertEquals("scopedHandler", scopedProvider.getBeanName());
+            assertFalse(scopedProvider.isSingleton());
+            assertFalse(scopedProvider.isPooled());
+            CountingHandler scopedInstance = scopedProvider.get();
+            assertSame(scopedInstance, scopedProvider.get());
+            ExecutorService executorService = Executors.newSingleThreadExecutor();
+            try {
+                assertNotSame(scopedInstance, executorService.submit(scopedProvider::get).get());
+            } finally {
+                executorService.shutdown();
+            }
+            scopedProvider.release(scopedInstance);
+            assertEquals(0, CountingHandler.DESTROYED.get());
+            assertSame(scopedInstance, scopedProvider.get());
+        }
+    }
+
+    static class CountingHandler implements DisposableBean {
+
+        static final AtomicInteger INSTANCES = new AtomicInteger();
+        static final AtomicInteger DESTROYED = new AtomicInteger();
+
+        CountingHandler() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        public void destroy() {
+            DESTROYED.incrementAndGet();
+        }
+    }
+
+    static class ProviderTestMapCollector extends ProviderMapCollector<Integer, CountingHandler> {
+
+        ProviderTestMapCollector() {
+            super(TestCollectAnnotation.class, "keys");
+        }
+
+        @Override
+        protected int getPoolSize(String beanName) {
+            return 1;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ScopedProviderTestConfiguration {
+
+        @Bean
+        public static MapCollectorBeanFactoryPostProcessor mapCollectorBeanFactoryPostProcessor() {
+            return new MapCollectorBeanFactoryPostProcessor(TestCollectAnnotation.class);
+        }
+
+        @Bean
+        @Scope(THREAD_SCOPE)
+        @TestCollectAnnotation(keys = 1)
+        public CountingHandler scopedHandler() {
+            return new CountingHandler();
+        }
+
+        @Bean
+        public ProviderTestMapCollector providerTestMapCollector() {
+            return new ProviderTestMapCollector();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ProviderTestConfiguration {
+
+        @Bean
+        public static MapCollectorBeanFactoryPostProcessor mapCollectorBeanFactoryPostProcessor() {
+            return new MapCollectorBeanFactoryPostProcessor(TestCollectAnnotation.class);
+        }
+
+        @Bean
+        @Scope(BeanDefinition.SCOPE_PROTOTYPE)
+        @TestCollectAnnotation(keys = 1)
+        public CountingHandler prototypeHandler() {
+            return new CountingHandler();
+        }
+
+        @Bean
+        public ProviderTestMapCollector providerTestMapCollector() {
+            return new ProviderTestMapCollector();
+        }
+
+        @Bean
+        @TestCollectAnnotation(keys = {2, 3})
+        public CountingHandler singletonHandler() {
+            return new CountingHandler();
+        }
+    }
+}
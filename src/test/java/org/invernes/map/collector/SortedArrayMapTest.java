@@ -0,0 +1,100 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class SortedArrayMap")
+class SortedArrayMapTest {
+
+    @Test
+    @DisplayName("Case when keys are integers. Lookups are the same as lookups of TreeMap")
+    void of_IntegerKeys() {
+        TreeMap<Integer, String> expectedMap = new TreeMap<>(Map.of(10, "10", 20, "20", 30, "30", -5, "-5"));
+
+        SortedArrayMap<Integer, String> sortedMap = SortedArrayMap.of(Map.copyOf(expectedMap), null);
+
+        assertEquals(expectedMap, sortedMap);
+        assertEquals(List.copyOf(expectedMap.keySet()), List.copyOf(sortedMap.keySet()));
+        for (int key = -10; key <= 35; key++) {
+            assertEquals(expectedMap.get(key), sortedMap.get(key));
+            assertEquals(expectedMap.floorKey(key), sortedMap.floorKey(key));
+            assertEquals(expectedMap.ceilingKey(key), sortedMap.ceilingKey(key));
+            assertEquals(expectedMap.lowerEntry(key), sortedMap.lowerEntry(key));
+            assertEquals(expectedMap.higherEntry(key), sortedMap.higherEntry(key));
+            assertEquals(expectedMap.floorEntry(key) == null ? null : expectedMap.floorEntry(key).getValue(),
+                    sortedMap.floorValue((long) key));
+            assertEquals(expectedMap.ceilingEntry(key) == null ? null : expectedMap.ceilingEntry(key).getValue(),
+                    sortedMap.ceilingValue((long) key));
+        }
+        assertEquals(-5, sortedMap.firstKey());
+        assertEquals(30, sortedMap.lastKey());
+        assertNull(sortedMap.get("10"));
+        assertThrows(UnsupportedOperationException.class, () -> sortedMap.put(40, "40"));
+        assertThrows(UnsupportedOperationException.class, sortedMap::pollFirstEntry);
+    }
+
+    @Test
+    @DisplayName("Case when ranges are taken. Ranges are the same as ranges of TreeMap")
+    void subMap_Ranges() {
+        TreeMap<Integer, String> expectedMap = new TreeMap<>(Map.of(10, "10", 20, "20", 30, "30", 40, "40"));
+        SortedArrayMap<Integer, String> sortedMap = SortedArrayMap.of(expectedMap, null);
+
+        assertEquals(expectedMap.subMap(10, 30), sortedMap.subMap(10, 30));
+        assertEquals(expectedMap.subMap(15, false, 40, true), sortedMap.subMap(15, false, 40, true));
+        assertEquals(expectedMap.headMap(20, true), sortedMap.headMap(20, true));
+        assertEquals(expectedMap.tailMap(20, false), sortedMap.tailMap(20, false));
+        assertEquals(expectedMap.subMap(21, 29), sortedMap.subMap(21, 29));
+        assertEquals(expectedMap.descendingMap(), sortedMap.descendingMap());
+        assertEquals(List.of("20", "30"), sortedMap.rangeValues(20, 40));
+        assertEquals(List.of(), sortedMap.rangeValues(41, 50));
+
+        NavigableMap<Integer, String> subMap = sortedMap.subMap(20, true, 30, true);
+        assertEquals(30, subMap.floorKey(100));
+        assertNull(subMap.ceilingKey(31));
+        assertNull(subMap.get(10));
+        assertEquals(Map.entry(20, "20"), subMap.firstEntry());
+    }
+
+    @Test
+    @DisplayName("Case when low endpoint of range is greater than high endpoint. Exception thrown")
+    void subMap_FromKeyGreaterThanToKey() {
+        SortedArrayMap<Integer, String> sortedMap = SortedArrayMap.of(Map.of(10, "10", 20, "20", 30, "30"), null);
+
+        assertThrows(IllegalArgumentException.class, () -> sortedMap.subMap(30, true, 10, true));
+        assertThrows(IllegalArgumentException.class, () -> sortedMap.subMap(20, 10));
+        assertEquals(Map.of(), sortedMap.subMap(20, false, 20, false));
+    }
+
+    @Test
+    @DisplayName("Case when key of other numeric type is looked up. Key is not found like in TreeMap")
+    void get_OtherNumericKeyType() {
+        SortedArrayMap<Integer, String> sortedMap = SortedArrayMap.of(Map.of(10, "10", 20, "20"), null);
+
+        assertNull(sortedMap.get(10L));
+        assertFalse(sortedMap.containsKey(20L));
+        assertEquals("10", sortedMap.get(10));
+        assertEquals("20", sortedMap.floorValue(25L));
+    }
+
+    @Test
+    @DisplayName("Case when comparator is specified. Keys are ordered by comparator")
+    void of_Comparator() {
+        TreeMap<String, Integer> expectedMap = new TreeMap<>(Comparator.reverseOrder());
+        expectedMap.putAll(Map.of("a", 1, "b", 2, "c", 3));
+
+        SortedArrayMap<String, Integer> sortedMap = SortedArrayMap.of(Map.copyOf(expectedMap), Comparator.reverseOrder());
+
+        assertEquals(List.of("c", "b", "a"), List.copyOf(sortedMap.keySet()));
+        assertEquals(expectedMap.floorKey("bb"), sortedMap.floorKey("bb"));
+        assertEquals(expectedMap.ceilingEntry("bb").getValue(), sortedMap.ceilingValue("bb"));
+        assertThrows(UnsupportedOperationException.class, () -> sortedMap.floorValue(1L));
+    }
+}
@@ -0,0 +1,94 @@
+package org.invernes.map.collector;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.Serializable;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class TypeHierarchyResolver")
+class TypeHierarchyResolverTest {
+
+    @Test
+    @DisplayName("Case when superclass and interfaces are registered. The nearest superclass is chosen")
+    void resolve_SuperclassBeforeInterfaces() {
+        var sut = new TypeHierarchyResolver<>(Map.of(AbstractList.class, "abstractList", List.class, "list",
+                Object.class, "object"), "collector");
+
+        assertEquals("abstractList", sut.resolve(ArrayList.class));
+        assertEquals("abstractList", sut.resolve(ArrayList.class));
+        assertEquals("list", sut.resolve(List.class));
+        assertEquals("object", sut.resolve(String.class));
+        assertEquals("object", sut.resolve(Collection.class));
+    }
+
+    @Test
+    @DisplayName("Case when several interfaces are registered. More specific interface, then the first interface is chosen")
+    void resolve_Interfaces() {
+        var sut = new TypeHierarchyResolver<>(Map.of(Collection.class, "collection", List.class, "list",
+                RandomAccess.class, "randomAccess", Serializable.class, "serializable"), "collector");
+
+        // ArrayList implements List, RandomAccess, Cloneable, Serializable
+        assertEquals("list", sut.resolve(ArrayList.class));
+        assertEquals("collection", sut.resolve(Set.class));
+        // HashSet implements Set, Cloneable, Serializable, so Serializable precedes Collection, superinterface of Set
+        assertEquals("serializable", sut.resolve(HashSet.class));
+        assertEquals("serializable", sut.resolve(String.class));
+        assertNull(sut.resolve(Object.class));
+    }
+
+    @Test
+    @DisplayName("Case when key of map is not a class. Exception thrown")
+    void constructor_KeyIsNotClass() {
+        var exception = assertThrows(RuntimeException.class, () -> new TypeHierarchyResolver<>(Map.of("key", "value"), "collector"));
+
+        assertEquals("Key key of type-keyed collector collector is not a class", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Case when collector is type-keyed. Beans are found by subclasses of their keys")
+    void getByType_TypeKeyedCollector() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        var numberHandler = new NumberHandler();
+        beanFactory.registerSingleton("numberHandler", numberHandler);
+        var typeKeyedTestMapCollector = new TypeKeyedTestMapCollector();
+        typeKeyedTestMapCollector.setBeanFactory(beanFactory);
+
+        assertSame(numberHandler, typeKeyedTestMapCollector.getByType(Integer.class));
+        assertNull(typeKeyedTestMapCollector.getByType(String.class));
+        assertNull(typeKeyedTestMapCollector.getMap().get(Integer.class));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @interface HandledType {
+        Class<?> value();
+    }
+
+    @HandledType(Number.class)
+    static class NumberHandler {
+
+    }
+
+    @TypeKeyedMapCollector
+    static class TypeKeyedTestMapCollector extends AnnotationMapCollector<Class<?>, NumberHandler> {
+
+        TypeKeyedTestMapCollector() {
+            super(HandledType.class, "value");
+        }
+    }
+}
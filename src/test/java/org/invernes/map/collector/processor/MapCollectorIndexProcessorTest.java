@@ -0,0 +1,184 @@
+package org.invernes.map.collector.processor;
+
+import org.invernes.map.collector.MapCollector;
+import org.invernes.map.collector.MapCollectorIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Unit tests for class MapCollectorIndexProcessor")
+class MapCollectorIndexProcessorTest {
+
+    private static final String HANDLER_SOURCE = """
+            package sample;
+
+            import java.lang.annotation.*;
+
+            @Retention(RetentionPolicy.RUNTIME)
+            @Target({ElementType.TYPE, ElementType.METHOD})
+            public @interface Handler {
+                int[] keys();
+            }
+            """;
+
+    private static final String CONFIGURATION_SOURCE = """
+            package sample;
+
+            import org.invernes.map.collector.IndexedMapCollector;
+            import org.invernes.map.collector.MapCollector;
+            import org.springframework.beans.factory.BeanFactory;
+            import org.springframework.context.annotation.Bean;
+
+            import java.util.Map;
+
+            public class HandlersConfiguration {
+
+                @Bean
+                @Handler(keys = 1)
+                public Runnable first() {
+                    return () -> {};
+                }
+
+                @Bean(name = "renamed")
+                @Handler(keys = {2, 3})
+                public Runnable second() {
+                    return () -> {};
+                }
+
+                @Bean
+                @Handler(keys = 4)
+                public String notRunnable() {
+                    return "";
+                }
+
+                @IndexedMapCollector(annotation = Handler.class, keyAttribute = "keys")
+                public static class RunnableMapCollector extends MapCollector<Integer, Runnable> {
+
+                    @Override
+                    protected Map<String, Object> getAnnotatedBeans(BeanFactory beanFactory) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    protected void putMapEntries(String beanName, Object bean, BeanFactory beanFactory) {
+                        throw new UnsupportedOperationException();
+                    }
+                }
+            }
+            """;
+
+    private static final String COMPONENT_SOURCE = """
+            package sample;
+
+            import org.springframework.stereotype.Component;
+
+            @Component
+            @Handler(keys = 5)
+            public class ComponentHandler implements Runnable {
+
+                @Override
+                public void run() {
+                }
+            }
+            """;
+
+    private static final String DUPLICATE_KEY_SOURCE = """
+            package sample;
+
+            import org.springframework.stereotype.Component;
+
+            @Component
+            @Handler(keys = 1)
+            public class DuplicateKeyHandler implements Runnable {
+
+                @Override
+                public void run() {
+                }
+            }
+            """;
+
+    @TempDir
+    private Path outputDirectory;
+
+    @Test
+    @DisplayName("Case when annotated beans have unique keys. Index with key to bean name assignments generated")
+    void process_IndexGenerated() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(HANDLER_SOURCE, CONFIGURATION_SOURCE, COMPONENT_SOURCE);
+        assertTrue(diagnostics.stream().noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR), diagnostics::toString);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> collectorClass = classLoader.loadClass("sample.HandlersConfiguration$RunnableMapCollector");
+            MapCollectorIndex<Integer> index = MapCollectorIndex.load(collectorClass);
+            assertNotNull(index);
+            assertEquals(Map.of(1, "first", 2, "renamed", 3, "renamed", 5, "componentHandler"), index.getBeanNamesByKey());
+
+            DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+            Runnable first = () -> {};
+            Runnable renamed = () -> {};
+            Runnable componentHandler = () -> {};
+            beanFactory.registerSingleton("first", first);
+            beanFactory.registerSingleton("renamed", renamed);
+            beanFactory.registerSingleton("componentHandler", componentHandler);
+
+            @SuppressWarnings("unchecked")
+            MapCollector<Integer, Runnable> collector = (MapCollector<Integer, Runnable>) collectorClass.getConstructor().newInstance();
+            collector.setBeanFactory(beanFactory);
+            assertEquals(Map.of(1, first, 2, renamed, 3, renamed, 5, componentHandler), collector.getMap());
+        }
+    }
+
+    @Test
+    @DisplayName("Case when two annotated beans have the same key. Compilation error reported")
+    void process_DuplicateKey() {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(HANDLER_SOURCE, CONFIGURATION_SOURCE, DUPLICATE_KEY_SOURCE);
+
+        assertTrue(diagnostics.stream().anyMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR
+                && diagnostic.getMessage(null).contains("Key 1 of bean with name")), diagnostics::toString);
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String... sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        List<JavaFileObject> compilationUnits = Arrays.stream(sources).map(this::toJavaFileObject).toList();
+        List<String> options = List.of(
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", outputDirectory.toString(),
+                "-s", outputDirectory.toString());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits);
+        task.setProcessors(List.of(new MapCollectorIndexProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics();
+    }
+
+    private JavaFileObject toJavaFileObject(String source) {
+        String packageName = "sample";
+        String className = source.replaceAll("(?s).*?public (?:@interface|class) (\\w+).*", "$1");
+        URI uri = URI.create("string:///" + packageName.replace('.', File.separatorChar) + "/" + className + JavaFileObject.Kind.SOURCE.extension);
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+}